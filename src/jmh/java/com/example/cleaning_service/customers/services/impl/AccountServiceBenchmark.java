@@ -0,0 +1,175 @@
+package com.example.cleaning_service.customers.services.impl;
+
+import com.example.cleaning_service.commons.KeysetCursor;
+import com.example.cleaning_service.commons.KeysetPage;
+import com.example.cleaning_service.commons.KeysetRequest;
+import com.example.cleaning_service.customers.entities.Account;
+import com.example.cleaning_service.customers.repositories.AccountRepository;
+import com.example.cleaning_service.customers.services.AccountService;
+import com.example.cleaning_service.security.entities.user.User;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the account reads that return customers through the real {@link AccountService}: a keyset page of
+ * {@link KeysetRequest#DEFAULT_SIZE} accounts, the account of a user and an account by ID, at 100k customers split
+ * evenly across the four subtypes. Each invocation picks a random position and reads the customer and user of every
+ * account, as the assemblers do.
+ * <p>
+ * The service runs in a Spring context with only the data source, JPA, Liquibase and transaction auto-configuration
+ * and the beans of the repositories package, so the statements, the transactions and the entity loading are those of
+ * the application. The benchmark only uses the {@link AccountService} interface, so it can be run unchanged against
+ * another revision of the service to compare two ways of loading the customers.
+ * <p>
+ * Needs a disposable PostgreSQL database in {@code BENCHMARK_DB_URL} (credentials in {@code BENCHMARK_DB_USERNAME}
+ * and {@code BENCHMARK_DB_PASSWORD}); the changelog is applied and the tables are seeded on the first run. Run with
+ * {@code BENCHMARK_DB_URL=jdbc:postgresql://localhost:5432/bench mvn -Pjmh test-compile exec:exec
+ * -Djmh.args=AccountServiceBenchmark -Djmh.result=target/accounts.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+    private static final int CUSTOMERS = 100_000;
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class,
+            LiquibaseAutoConfiguration.class, HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackages = "com.example.cleaning_service")
+    @EnableJpaRepositories(basePackageClasses = AccountRepository.class)
+    @ComponentScan(basePackageClasses = AccountRepository.class)
+    @Import(AccountServiceImpl.class)
+    static class BenchmarkConfiguration {
+    }
+
+    private record AccountRow(UUID id, UUID userId, KeysetCursor cursor) {
+    }
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private List<AccountRow> accounts;
+
+    @Setup
+    public void setUp() {
+        String url = System.getenv("BENCHMARK_DB_URL");
+        if (url == null) {
+            throw new IllegalStateException("BENCHMARK_DB_URL is not set");
+        }
+        context = new SpringApplicationBuilder(BenchmarkConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + System.getenv("BENCHMARK_DB_USERNAME"),
+                        "--spring.datasource.password=" + System.getenv("BENCHMARK_DB_PASSWORD"),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        accountService = context.getBean(AccountService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Long customers = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer.customer_details", Long.class);
+        if (customers == null || customers < CUSTOMERS) {
+            seed(jdbcTemplate);
+        }
+        jdbcTemplate.execute("ANALYZE");
+        accounts = jdbcTemplate.query(
+                "SELECT a.id, a.user_id, a.created_at FROM sale.customer_account a ORDER BY a.created_at, a.id",
+                (resultSet, rowNum) -> new AccountRow(resultSet.getObject(1, UUID.class),
+                        resultSet.getObject(2, UUID.class),
+                        KeysetCursor.of(resultSet.getTimestamp(3).toInstant(), resultSet.getObject(1, UUID.class))));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void page(Blackhole blackhole) {
+        KeysetPage<Account> page = accountService.findPage(
+                new KeysetRequest(randomAccount().cursor(), null, KeysetRequest.DEFAULT_SIZE));
+        page.content().forEach(account -> consume(account, blackhole));
+    }
+
+    @Benchmark
+    public void accountOfUser(Blackhole blackhole) {
+        User user = new User();
+        user.setId(randomAccount().userId());
+        consume(accountService.findAccountWithCustomerByUser(user), blackhole);
+    }
+
+    @Benchmark
+    public void accountById(Blackhole blackhole) {
+        consume(accountService.findWithCustomerById(randomAccount().id()), blackhole);
+    }
+
+    private AccountRow randomAccount() {
+        return accounts.get(ThreadLocalRandom.current().nextInt(accounts.size() - KeysetRequest.DEFAULT_SIZE));
+    }
+
+    private static void consume(Account account, Blackhole blackhole) {
+        blackhole.consume(account.getCustomer().getName());
+        blackhole.consume(account.getCustomer().getOrganizationType());
+        blackhole.consume(account.getUser().getId());
+    }
+
+    /**
+     * One user, account and customer per row; the customers cycle through the four subtypes.
+     */
+    private static void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("""
+                INSERT INTO security.users (id, version, created_at, username, password, is_enabled,
+                                            is_account_non_expired, is_account_non_locked, is_credentials_non_expired)
+                SELECT gen_random_uuid(), 0, now(), 'bench_user_' || i, 'x', true, true, true, true
+                FROM generate_series(1, %d) i""".formatted(CUSTOMERS));
+        jdbcTemplate.execute("""
+                INSERT INTO customer.customer_details (id, version, created_at, name, email, loyalty_type, tax_id,
+                                                       registration_number, customer_type)
+                SELECT gen_random_uuid(), 0, now(), 'Customer ' || i, 'bench' || i || '@example.com', 'STANDARD',
+                       'TX-' || i, 'REG-' || i,
+                       (ARRAY['INDIVIDUAL', 'COMPANY', 'GOVERNMENT', 'NON_PROFIT'])[i % 4 + 1]
+                FROM generate_series(1, %d) i""".formatted(CUSTOMERS));
+        jdbcTemplate.execute("""
+                INSERT INTO customer.companies (id, organization_type, company_type)
+                SELECT c.id, c.customer_type, 'SMALL_BUSINESS' FROM customer.customer_details c
+                WHERE c.customer_type = 'COMPANY'""");
+        jdbcTemplate.execute("""
+                INSERT INTO customer.governments (id, organization_type, contractor_name, department_name,
+                                                  is_tax_exempt, requires_emergency_cleaning)
+                SELECT c.id, c.customer_type, 'Contractor', 'Department', true, false
+                FROM customer.customer_details c WHERE c.customer_type = 'GOVERNMENT'""");
+        jdbcTemplate.execute("""
+                INSERT INTO customer.individual_customers (id, organization_type)
+                SELECT c.id, c.customer_type FROM customer.customer_details c WHERE c.customer_type = 'INDIVIDUAL'""");
+        jdbcTemplate.execute("""
+                INSERT INTO customer.non_profit_org (id, organization_type)
+                SELECT c.id, c.customer_type FROM customer.customer_details c WHERE c.customer_type = 'NON_PROFIT'""");
+        jdbcTemplate.execute("""
+                INSERT INTO sale.customer_account (id, version, created_at, user_id, customer_id, is_primary,
+                                                   association_type)
+                SELECT gen_random_uuid(), 0, now() + u.rn * interval '1 millisecond', u.id, c.id, true, 'OWNER'
+                FROM (SELECT id, row_number() OVER () rn FROM security.users WHERE username LIKE 'bench_user_%') u
+                JOIN (SELECT id, row_number() OVER () rn FROM customer.customer_details) c ON c.rn = u.rn""");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.cleaning_service.security.authorization;
+
+import com.example.cleaning_service.security.entities.permission.Permission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.entities.role.Role;
+import com.example.cleaning_service.security.entities.user.User;
+import com.example.cleaning_service.security.util.AuthorityGrants;
+import com.example.cleaning_service.security.util.VerifiedToken;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the SpEL evaluation of {@code @PreAuthorize} with {@link CompiledPreAuthorizeAuthorizationManager},
+ * for a single-role check and for the role-and-authority check of the admin endpoints. {@link #getAuthorities()}
+ * measures building the authority set of a {@link User}, which SpEL reads on every check.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args="PreAuthorizeBenchmark"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreAuthorizeBenchmark {
+
+    @Param({"hasRole", "hasRoleAndAuthority"})
+    public String expression;
+
+    private PreAuthorizeAuthorizationManager spelManager;
+    private CompiledPreAuthorizeAuthorizationManager compiledManager;
+    private MethodInvocation invocation;
+    private Authentication authentication;
+    private User user;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Set<Permission> permissions = ERole.ADMIN.getPermissions().stream()
+                .map(Permission::new)
+                .collect(Collectors.toSet());
+        user = new User("benchmark_admin", "secret", new Role(ERole.ADMIN, permissions));
+        user.setId(UUID.randomUUID());
+
+        Collection<? extends GrantedAuthority> authorities = user.getAuthorities();
+        VerifiedToken verifiedToken = new VerifiedToken(UUID.randomUUID().toString(), user.getUsername(),
+                AuthorityGrants.of(authorities),
+                Instant.now(), Instant.now().plusSeconds(3600));
+        authentication = UsernamePasswordAuthenticationToken.authenticated(user, verifiedToken, authorities);
+
+        spelManager = new PreAuthorizeAuthorizationManager();
+        compiledManager = new CompiledPreAuthorizeAuthorizationManager(new PreAuthorizeAuthorizationManager());
+        Endpoints endpoints = new Endpoints();
+        invocation = new SimpleMethodInvocation(endpoints, Endpoints.class.getMethod(expression));
+    }
+
+    @Benchmark
+    public AuthorizationResult spel() {
+        return spelManager.authorize(() -> authentication, invocation);
+    }
+
+    @Benchmark
+    public AuthorizationResult compiled() {
+        return compiledManager.authorize(() -> authentication, invocation);
+    }
+
+    @Benchmark
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return user.getAuthorities();
+    }
+
+    public static class Endpoints {
+        @PreAuthorize("hasRole('ADMIN')")
+        public void hasRole() {
+        }
+
+        @PreAuthorize("hasRole('ADMIN') and hasAuthority('MANAGE_USERS')")
+        public void hasRoleAndAuthority() {
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.cleaning_service.security.config;
+
+import com.example.cleaning_service.security.cache.RevocationFilter;
+import com.example.cleaning_service.security.cache.UserAuthorizationCache;
+import com.example.cleaning_service.security.cache.VerifiedTokenCache;
+import com.example.cleaning_service.security.entities.permission.Permission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.entities.role.Role;
+import com.example.cleaning_service.security.entities.token.TokenEntity;
+import com.example.cleaning_service.security.entities.token.TokenSession;
+import com.example.cleaning_service.security.entities.token.TokenState;
+import com.example.cleaning_service.security.entities.user.User;
+import com.example.cleaning_service.security.repositories.TokenStateRepository;
+import com.example.cleaning_service.security.repositories.UserRepository;
+import com.example.cleaning_service.security.services.IJwtService;
+import com.example.cleaning_service.security.util.IssuedToken;
+import com.example.cleaning_service.security.util.JwtKeyring;
+import com.example.cleaning_service.security.util.JwtUtil;
+import com.example.cleaning_service.security.util.KeyProvider;
+import com.example.cleaning_service.security.util.VerifiedToken;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Proxy;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the steps of the authentication hot path and the complete {@link JwtAuthenticationFilter}.
+ * <p>
+ * Redis and Postgres are replaced by in-memory stubs: {@link IJwtService} reports every token as active,
+ * and the {@link UserRepository} behind {@link UserAuthorizationCache} serves a fixed user. The filter
+ * benchmarks therefore measure the steady state where both node-local caches are warm.
+ * <p>
+ * Run with {@code mvn -Pjmh test-compile exec:exec -Djmh.args=AuthenticationBenchmark -Djmh.result=target/auth.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
+    private JwtAuthenticationFilter filter;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil(new JwtKeyring(new KeyProvider(
+                new ClassPathResource("keys/private.pem"),
+                new ClassPathResource("keys/public.pem")), List.of(), null));
+
+        Set<Permission> permissions = ERole.CUSTOMER.getPermissions().stream()
+                .map(Permission::new)
+                .collect(Collectors.toSet());
+        user = new User("benchmark_user", "secret", new Role(ERole.CUSTOMER, permissions));
+        user.setId(UUID.randomUUID());
+        user.setVersion(0L);
+        token = jwtUtil.generateToken(user, null);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StringRedisTemplate redisTemplate = new StubRedisTemplate();
+        verifiedTokenCache = new VerifiedTokenCache(jwtUtil, meterRegistry, 10_000, Duration.ofMinutes(15));
+        RevocationFilter revocationFilter = new RevocationFilter(new TokenStateRepository(redisTemplate) {
+            @Override
+            public Set<UUID> findRevokedIds() {
+                return Set.of();
+            }
+        }, meterRegistry, 100_000, 0.01);
+        revocationFilter.rebuild();
+        UserAuthorizationCache userAuthorizationCache = new UserAuthorizationCache(
+                stubUserRepository(user), redisTemplate, meterRegistry, 10_000, Duration.ofMinutes(1), Duration.ofHours(1));
+        filter = new JwtAuthenticationFilter(verifiedTokenCache, revocationFilter,
+                userAuthorizationCache, new StubJwtService());
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(user, null);
+    }
+
+    @Benchmark
+    public SignedJWT parseToken() throws ParseException {
+        return SignedJWT.parse(token);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyToken() {
+        return jwtUtil.verifyToken(token);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verifyTokenCached() {
+        return verifiedTokenCache.verify(token);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public int doFilterInternal() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilterInternal(request, response, NO_OP_CHAIN);
+        return response.getStatus();
+    }
+
+    private static UserRepository stubUserRepository(User user) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findWithRolesByUsername" -> Optional.of(user);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Behaves like an empty Redis: every read misses and every write is dropped.
+     */
+    private static class StubRedisTemplate extends StringRedisTemplate {
+        @Override
+        public <T> T execute(RedisCallback<T> action) {
+            return null;
+        }
+
+        @Override
+        public Boolean delete(String key) {
+            return false;
+        }
+
+        @Override
+        public Long convertAndSend(String channel, Object message) {
+            return 0L;
+        }
+    }
+
+    private static class StubJwtService implements IJwtService {
+        @Override
+        public TokenEntity saveToken(IssuedToken token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TokenEntity rotateToken(String oldToken, IssuedToken newToken) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TokenState getTokenState(String tokenId) {
+            return TokenState.ACTIVE;
+        }
+
+        @Override
+        public void logoutToken(String token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TokenEntity findById(UUID id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<TokenSession> findSessions(String username) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void revokeSession(String username, UUID tokenId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int revokeAllSessions(String username) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.cleaning_service.security.util;
+
+import com.example.cleaning_service.security.entities.permission.Permission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.entities.role.Role;
+import com.example.cleaning_service.security.entities.user.User;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares signing and verification cost of the algorithms supported by {@link JwtKeyring}.
+ * The size of the tokens is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAlgorithmBenchmark {
+    private static final Map<String, String> KIDS = Map.of("RS256", "", "ES256", "ec-bench", "EdDSA", "ed-bench");
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public String algorithm;
+
+    private JwtUtil jwtUtil;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        KeyProvider keyProvider = new KeyProvider(
+                new ClassPathResource("keys/private.pem"),
+                new ClassPathResource("keys/public.pem"));
+        List<JWK> keys = List.of(
+                new ECKeyGenerator(Curve.P_256).keyID("ec-bench").generate(),
+                new OctetKeyPairGenerator(Curve.Ed25519).keyID("ed-bench").generate());
+        jwtUtil = new JwtUtil(new JwtKeyring(keyProvider, keys, KIDS.get(algorithm)));
+
+        Set<Permission> permissions = ERole.CUSTOMER.getPermissions().stream()
+                .map(Permission::new)
+                .collect(Collectors.toSet());
+        user = new User("benchmark_user", "secret", new Role(ERole.CUSTOMER, permissions));
+        token = jwtUtil.generateToken(user, null);
+        System.out.printf("%n%s token size: %d bytes%n", algorithm, token.length());
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtil.generateToken(user, null);
+    }
+
+    @Benchmark
+    public Optional<VerifiedToken> verify() {
+        return jwtUtil.verifyToken(token);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.cleaning_service.commons;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed pool of daemon platform threads with a bounded queue, for CPU-bound work that must not run on the virtual
+ * request threads.
+ * <p>
+ * What happens to a task that finds the queue full is up to the caller: {@link ThreadPoolExecutor.AbortPolicy} fails
+ * fast, {@link ThreadPoolExecutor.CallerRunsPolicy} slows the submitter down. Queue depth, active threads, execution
+ * time and time spent queued are published under the pool's name.
+ */
+public final class BoundedThreadPool implements AutoCloseable {
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+
+    /**
+     * @param name            Names the metrics; the threads are named {@code <threadPrefix>-<n>}
+     * @param threadPrefix    Prefix of the thread names
+     * @param threads         The number of threads, which are all started on demand and kept
+     * @param queueCapacity   The number of tasks that can wait for a thread
+     * @param rejectedHandler Handles tasks submitted while the queue is full
+     */
+    public BoundedThreadPool(String name, String threadPrefix, int threads, int queueCapacity,
+                             RejectedExecutionHandler rejectedHandler, MeterRegistry meterRegistry) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                rejectedHandler);
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, name);
+    }
+
+    /**
+     * @throws RejectedExecutionException If the queue is full and the pool fails fast
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    /**
+     * Removes cancelled tasks from the queue, so they do not hold a slot until a thread reaches them.
+     */
+    public void purge() {
+        pool.purge();
+    }
+
+    public int getThreads() {
+        return pool.getCorePoolSize();
+    }
+
+    /**
+     * Interrupts the running tasks and drops the queued ones.
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
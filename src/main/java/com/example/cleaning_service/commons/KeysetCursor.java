@@ -0,0 +1,51 @@
+package com.example.cleaning_service.commons;
+
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of a row in a listing ordered by {@code (position, id)}, where {@code position} is usually the creation
+ * time. The ID breaks ties between rows created at the same instant.
+ * <p>
+ * Clients receive cursors as opaque strings in the {@code next} and {@code prev} links and pass them back unchanged.
+ */
+public record KeysetCursor(Instant position, UUID id) {
+
+    public KeysetCursor {
+        Assert.notNull(position, "Cursor position must not be null");
+        Assert.notNull(id, "Cursor ID must not be null");
+    }
+
+    public static KeysetCursor of(Instant position, UUID id) {
+        return new KeysetCursor(position, id);
+    }
+
+    public String encode() {
+        String raw = position.getEpochSecond() + "." + position.getNano() + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code token} was not produced by {@link #encode()}.
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('_');
+            int dot = raw.indexOf('.');
+            if (separator < 0 || dot < 0 || dot > separator) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            Instant position = Instant.ofEpochSecond(Long.parseLong(raw.substring(0, dot)),
+                    Long.parseLong(raw.substring(dot + 1, separator)));
+            return new KeysetCursor(position, UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.cleaning_service.commons;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.server.LinkBuilder;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * HAL collection of one keyset page. Instead of page numbers it carries {@code next} and {@code prev} links with
+ * cursors, and the total only when the client asked for it.
+ */
+public class KeysetModel<T> extends CollectionModel<T> {
+    private final PageMetadata page;
+
+    /**
+     * @param linkTo Builds the link to the listing for the given request. Absent cursors are dropped from the links
+     *               rather than left as template variables.
+     */
+    public KeysetModel(Iterable<T> content, KeysetPage<?> keysetPage, KeysetRequest request, Long totalElements,
+                       Function<KeysetRequest, LinkBuilder> linkTo) {
+        super(content);
+        this.page = new PageMetadata(request.size(), totalElements);
+        add(linkTo.apply(request).withSelfRel().expand());
+        if (keysetPage.next() != null) {
+            add(linkTo.apply(new KeysetRequest(keysetPage.next(), null, request.size())).withRel("next").expand());
+        }
+        if (keysetPage.previous() != null) {
+            add(linkTo.apply(new KeysetRequest(null, keysetPage.previous(), request.size())).withRel("prev").expand());
+        }
+    }
+
+    @JsonProperty("page")
+    public PageMetadata getPage() {
+        return page;
+    }
+
+    /**
+     * @param totalElements Number of rows in the whole listing, possibly estimated; {@code null} unless requested
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PageMetadata(int size, Long totalElements) {
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof KeysetModel<?> that && super.equals(that) && page.equals(that.page));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(super.hashCode(), page);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.cleaning_service.commons;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Rows of a keyset listing in listing order, with the cursors of the neighbouring pages. A cursor is {@code null} when
+ * there is no page in that direction.
+ */
+public record KeysetPage<T>(List<T> content, KeysetCursor next, KeysetCursor previous) {
+
+    /**
+     * Builds the page from up to {@link KeysetRequest#limit()} rows in fetch order, which is the reverse of listing
+     * order when the request pages backward.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, KeysetRequest request, Function<T, KeysetCursor> cursorOf) {
+        boolean hasMore = rows.size() > request.size();
+        List<T> content = new ArrayList<>(hasMore ? rows.subList(0, request.size()) : rows);
+        if (request.isBackward()) {
+            Collections.reverse(content);
+        }
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null);
+        }
+        KeysetCursor first = cursorOf.apply(content.getFirst());
+        KeysetCursor last = cursorOf.apply(content.getLast());
+        if (request.isBackward()) {
+            return new KeysetPage<>(content, last, hasMore ? first : null);
+        }
+        return new KeysetPage<>(content, hasMore ? last : null, request.after() != null ? first : null);
+    }
+
+    /**
+     * Puts entities loaded by ID back into the order of {@code ids}, skipping IDs that were not found.
+     */
+    public static <T> List<T> inOrder(List<UUID> ids, Collection<T> entities, Function<T, UUID> idOf) {
+        Map<UUID, T> byId = new HashMap<>();
+        entities.forEach(entity -> byId.put(idOf.apply(entity), entity));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
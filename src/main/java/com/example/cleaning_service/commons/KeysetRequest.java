@@ -0,0 +1,52 @@
+package com.example.cleaning_service.commons;
+
+/**
+ * A page of a keyset listing: the {@code size} rows right after {@code after}, the {@code size} rows right before
+ * {@code before}, or the first {@code size} rows when neither is set.
+ */
+public record KeysetRequest(KeysetCursor after, KeysetCursor before, int size) {
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    public KeysetRequest {
+        if (after != null && before != null) {
+            throw new IllegalArgumentException("Only one of 'after' and 'before' may be given");
+        }
+        size = Math.clamp(size, 1, MAX_SIZE);
+    }
+
+    public static KeysetRequest first(int size) {
+        return new KeysetRequest(null, null, size);
+    }
+
+    /**
+     * @param after  Cursor token of the {@code next} link, or {@code null}
+     * @param before Cursor token of the {@code prev} link, or {@code null}
+     * @throws IllegalArgumentException if a token is invalid or both are given.
+     */
+    public static KeysetRequest of(String after, String before, int size) {
+        return new KeysetRequest(
+                after != null && !after.isBlank() ? KeysetCursor.decode(after) : null,
+                before != null && !before.isBlank() ? KeysetCursor.decode(before) : null,
+                size);
+    }
+
+    public String afterToken() {
+        return after != null ? after.encode() : null;
+    }
+
+    public String beforeToken() {
+        return before != null ? before.encode() : null;
+    }
+
+    public boolean isBackward() {
+        return before != null;
+    }
+
+    /**
+     * Rows to fetch: one more than the page size, so a following page is detected without counting.
+     */
+    public int limit() {
+        return size + 1;
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.cleaning_service.commons;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through Redis cache of HAL representations, stored as the serialized response body.
+ * <p>
+ * Entries are keyed by region, entity ID and {@code version}. Every write increments the version, so a lookup with the
+ * version just read from the database never returns a stale body; {@link #evict} only frees the entry early, and the
+ * TTL removes entries that were never evicted. The links of a representation are absolute and built from the request,
+ * so only requests addressed to the configured public base URI use the cache; a request with another host or context
+ * path, which the client controls, is rendered without reading or storing anything. When Redis is unavailable the
+ * representation is rendered on every call.
+ * <p>
+ * Publishes {@code representation.cache.requests} by region and result, {@code representation.cache.hit.ratio} and the
+ * size of every stored body as {@code representation.cache.payload.size}.
+ */
+@Component
+public class RepresentationCache {
+    private static final Logger log = LoggerFactory.getLogger(RepresentationCache.class);
+    private static final String KEY_PREFIX = "representation:";
+    private static final String METRIC_PREFIX = "representation.cache";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper halObjectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration ttl;
+    private final String baseUri;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public RepresentationCache(StringRedisTemplate redisTemplate,
+                               ObjectMapper objectMapper,
+                               HalMediaTypeConfiguration halMediaTypeConfiguration,
+                               MeterRegistry meterRegistry,
+                               @Value("${representation-cache.ttl:PT30M}") Duration ttl,
+                               @Value("${representation-cache.base-uri}") String baseUri) {
+        this.redisTemplate = redisTemplate;
+        // Same configuration as the message converter that renders application/hal+json responses
+        this.halObjectMapper = halMediaTypeConfiguration.configureObjectMapper(objectMapper.copy());
+        this.meterRegistry = meterRegistry;
+        this.ttl = ttl;
+        this.baseUri = baseUri;
+        Gauge.builder(METRIC_PREFIX + ".hit.ratio", this, RepresentationCache::hitRatio)
+                .description("Share of representation lookups answered from Redis")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the serialized representation of one entity, rendering and storing it on a miss.
+     *
+     * @param region  Distinguishes the representations of different entity types
+     * @param id      The ID of the entity
+     * @param version The current version of the entity
+     * @param render  Builds the representation; only called on a miss
+     */
+    public byte[] get(String region, UUID id, Long version, Supplier<? extends RepresentationModel<?>> render) {
+        return getAll(region, Map.of(id, version), ids -> Map.of(id, render.get())).get(id);
+    }
+
+    /**
+     * Returns the serialized representations of many entities. All of them are looked up with one MGET, and the
+     * missing ones are rendered with a single call to {@code render}.
+     *
+     * @param versions The current version of every entity, by ID
+     * @param render   Builds the representations of the given IDs, by ID
+     * @return The serialized representations by ID, in the iteration order of {@code versions}
+     */
+    public Map<UUID, byte[]> getAll(String region, Map<UUID, Long> versions,
+                                    Function<Collection<UUID>, Map<UUID, ? extends RepresentationModel<?>>> render) {
+        if (!baseUri.equals(requestBaseUri())) {
+            log.debug("Rendering {} representations without the cache for base URI {}", region, requestBaseUri());
+            Map<UUID, byte[]> representations = new LinkedHashMap<>();
+            Map<UUID, ? extends RepresentationModel<?>> rendered = render.apply(versions.keySet());
+            versions.keySet().forEach(id -> representations.put(id, serialize(rendered.get(id))));
+            return representations;
+        }
+        List<UUID> ids = List.copyOf(versions.keySet());
+        byte[][] keys = ids.stream()
+                .map(id -> key(region, id, versions.get(id)))
+                .toArray(byte[][]::new);
+        List<byte[]> cached = multiGet(region, keys);
+
+        Map<UUID, byte[]> representations = new LinkedHashMap<>();
+        Map<UUID, byte[]> missingKeys = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            byte[] value = cached != null ? cached.get(i) : null;
+            representations.put(ids.get(i), value);
+            if (value == null) {
+                missingKeys.put(ids.get(i), keys[i]);
+            }
+        }
+        record(region, ids.size() - missingKeys.size(), missingKeys.size());
+        if (missingKeys.isEmpty()) {
+            return representations;
+        }
+
+        Map<byte[], byte[]> rendered = new LinkedHashMap<>();
+        render.apply(missingKeys.keySet()).forEach((id, model) -> {
+            byte[] value = serialize(model);
+            representations.put(id, value);
+            rendered.put(missingKeys.get(id), value);
+            DistributionSummary.builder(METRIC_PREFIX + ".payload.size")
+                    .baseUnit("bytes")
+                    .tag("region", region)
+                    .register(meterRegistry)
+                    .record(value.length);
+        });
+        store(region, rendered);
+        return representations;
+    }
+
+    /**
+     * Drops the representation of the given version.
+     */
+    public void evict(String region, UUID id, Long version) {
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.keyCommands().del(key(region, id, version)));
+            log.debug("Evicted {} representation {} at version {}", region, id, version);
+        } catch (DataAccessException e) {
+            log.warn("Cannot evict {} representation {} from Redis: {}", region, id, e.getMessage());
+        }
+    }
+
+    private List<byte[]> multiGet(String region, byte[][] keys) {
+        try {
+            return redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.stringCommands().mGet(keys));
+        } catch (DataAccessException e) {
+            log.warn("Cannot read {} representations from Redis: {}", region, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String region, Map<byte[], byte[]> values) {
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                values.forEach((key, value) -> connection.stringCommands().set(key, value, Expiration.from(ttl),
+                        RedisStringCommands.SetOption.upsert()));
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Cannot store {} representations in Redis: {}", region, e.getMessage());
+        }
+    }
+
+    private byte[] serialize(RepresentationModel<?> model) {
+        try {
+            return halObjectMapper.writeValueAsBytes(model);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize representation " + model, e);
+        }
+    }
+
+    private void record(String region, int hitCount, int missCount) {
+        hits.addAndGet(hitCount);
+        misses.addAndGet(missCount);
+        Counter.builder(METRIC_PREFIX + ".requests").tag("region", region).tag("result", "hit")
+                .register(meterRegistry).increment(hitCount);
+        Counter.builder(METRIC_PREFIX + ".requests").tag("region", region).tag("result", "miss")
+                .register(meterRegistry).increment(missCount);
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * The scheme, host, port and context path the links of the current request are built with, or {@code null}
+     * outside of an HTTP request.
+     */
+    String requestBaseUri() {
+        return RequestContextHolder.getRequestAttributes() != null
+                ? ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString()
+                : null;
+    }
+
+    private static byte[] key(String region, UUID id, Long version) {
+        return (KEY_PREFIX + region + ":" + id + ":" + version).getBytes(StandardCharsets.UTF_8);
+    }
+}
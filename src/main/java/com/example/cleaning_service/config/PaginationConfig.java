@@ -1,14 +0,0 @@
-package com.example.cleaning_service.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.data.web.config.PageableHandlerMethodArgumentResolverCustomizer;
-
-@Configuration
-public class PaginationConfig {
-
-    @Bean
-    public PageableHandlerMethodArgumentResolverCustomizer paginationCustomizer() {
-        return resolver -> resolver.setOneIndexedParameters(true);
-    }
-}
@@ -1,31 +1,33 @@
 package com.example.cleaning_service.customers.controllers;
 
+import com.example.cleaning_service.commons.KeysetModel;
+import com.example.cleaning_service.commons.KeysetPage;
+import com.example.cleaning_service.commons.KeysetRequest;
 import com.example.cleaning_service.customers.assemblers.accounts.AccountModelAssembler;
 import com.example.cleaning_service.customers.assemblers.accounts.AdminAccountDetailsModelAssembler;
 import com.example.cleaning_service.customers.dto.accounts.AccountDetailsResponseModel;
 import com.example.cleaning_service.customers.dto.accounts.AccountResponseModel;
 import com.example.cleaning_service.customers.dto.accounts.AccountUpdateRequest;
 import com.example.cleaning_service.customers.entities.*;
-import com.example.cleaning_service.customers.repositories.AccountRepository;
+import com.example.cleaning_service.customers.enums.EFileFormat;
+import com.example.cleaning_service.customers.services.AccountExportService;
 import com.example.cleaning_service.customers.services.AccountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
-import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
-import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.util.Assert;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.UUID;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -36,33 +38,30 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("/admin/accounts")
 @Tag(name = "Admin Accounts", description = "Account management APIs")
 public class AdminAccountController {
-    private final AccountRepository accountRepository;
-    private final PagedResourcesAssembler<Account> pagedResourcesAssembler;
     private final @Qualifier("adminAccountModelAssembler") AccountModelAssembler adminAccountModelAssembler;
     private final AccountService accountService;
     private final @Qualifier("adminAccountDetailsModelAssembler") AdminAccountDetailsModelAssembler adminAccountDetailsModelAssembler;
+    private final AccountExportService accountExportService;
 
-    public AdminAccountController(AccountRepository accountRepository,
-                                  @Qualifier("pagedResourcesAssemblerAccount")
-                                  PagedResourcesAssembler<Account> pagedResourcesAssembler,
-                                  AccountModelAssembler adminAccountModelAssembler,
+    public AdminAccountController(AccountModelAssembler adminAccountModelAssembler,
                                   AccountService accountService,
-                                  AdminAccountDetailsModelAssembler adminAccountDetailsModelAssembler) {
-        this.accountRepository = accountRepository;
-        this.pagedResourcesAssembler = pagedResourcesAssembler;
+                                  AdminAccountDetailsModelAssembler adminAccountDetailsModelAssembler,
+                                  AccountExportService accountExportService) {
         this.adminAccountModelAssembler = adminAccountModelAssembler;
         this.accountService = accountService;
         this.adminAccountDetailsModelAssembler = adminAccountDetailsModelAssembler;
+        this.accountExportService = accountExportService;
     }
 
     @Operation(
             summary = "Get all accounts (admin)",
-            description = "Admin-only endpoint to retrieve a paginated list of all accounts",
+            description = "Admin-only endpoint to retrieve a page of accounts ordered by creation time; follow the 'next' and 'prev' links to page",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
                             description = "Accounts retrieved successfully"
                     ),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized"),
                     @ApiResponse(responseCode = "403", description = "Forbidden")
             }
@@ -70,19 +69,64 @@ public class AdminAccountController {
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping(produces = {"application/hal+json"})
     @ResponseStatus(HttpStatus.OK)
-    public PagedModel<AccountResponseModel> getAdminAccountDetailsPageModelByPageable(
-            @Parameter(description = "Pagination parameters") @ParameterObject Pageable pageable
+    public KeysetModel<AccountResponseModel> getAdminAccountPageModel(
+            @Parameter(description = "Cursor from the 'next' link") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor from the 'prev' link") @RequestParam(required = false) String before,
+            @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include an estimated total") @RequestParam(defaultValue = "false") boolean count
     ) {
-        Page<Account> accountPage = accountRepository.findAll(pageable);
-        pagedResourcesAssembler.setForceFirstAndLastRels(true);
-        PagedModel<AccountResponseModel> accountResponseModels = pagedResourcesAssembler.toModel(
-                accountPage, adminAccountModelAssembler
+        KeysetRequest request = KeysetRequest.of(after, before, size);
+        KeysetPage<Account> accountPage = accountService.findPage(request);
+        KeysetModel<AccountResponseModel> accountResponseModels = new KeysetModel<>(
+                adminAccountModelAssembler.toCollectionModel(accountPage.content()).getContent(),
+                accountPage, request, count ? accountService.estimateCount() : null,
+                page -> linkTo(methodOn(AdminAccountController.class)
+                        .getAdminAccountPageModel(page.afterToken(), page.beforeToken(), page.size(), count))
         );
         log.info("Retrieved account page model {}", accountResponseModels);
 
         return accountResponseModels;
     }
 
+    @Operation(
+            summary = "Export all accounts as NDJSON (admin)",
+            description = "Admin-only endpoint to stream every account with its user and customer details, one JSON object per line",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Accounts streamed successfully"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden")
+            }
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/export", produces = {"application/x-ndjson"})
+    public void exportAccountsAsNdjson(HttpServletResponse response) throws IOException {
+        exportAccounts(EFileFormat.NDJSON, "application/x-ndjson", "accounts.ndjson", response);
+    }
+
+    @Operation(
+            summary = "Export all accounts as CSV (admin)",
+            description = "Admin-only endpoint to stream every account with its user and customer details as CSV with a header row",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Accounts streamed successfully"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden")
+            }
+    )
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping(path = "/export", produces = {"text/csv"})
+    public void exportAccountsAsCsv(HttpServletResponse response) throws IOException {
+        exportAccounts(EFileFormat.CSV, "text/csv;charset=UTF-8", "accounts.csv", response);
+    }
+
+    private void exportAccounts(EFileFormat format, String contentType, String fileName,
+                                HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        long exported = accountExportService.exportAccounts(format, response.getOutputStream());
+        log.info("Streamed {} accounts as {}", exported, format);
+    }
+
     @Operation(
             summary = "Get account details by ID (admin)",
             description = "Admin-only endpoint to retrieve detailed account information by ID",
@@ -0,0 +1,95 @@
+package com.example.cleaning_service.customers.controllers;
+
+import com.example.cleaning_service.customers.dto.imports.CustomerImportResult;
+import com.example.cleaning_service.customers.enums.EFileFormat;
+import com.example.cleaning_service.customers.services.CustomerImportService;
+import com.example.cleaning_service.security.entities.user.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+@Slf4j
+@RestController
+@RequestMapping("/admin/customers")
+@Tag(name = "Admin Customers", description = "Customer import APIs")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminCustomerImportController {
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final CustomerImportService customerImportService;
+    private final ObjectWriter resultWriter;
+
+    public AdminCustomerImportController(CustomerImportService customerImportService, ObjectMapper objectMapper) {
+        this.customerImportService = customerImportService;
+        this.resultWriter = objectMapper.writerFor(CustomerImportResult.class);
+    }
+
+    @Operation(summary = "Import customers from NDJSON (admin)",
+            description = "Creates customers of any type from newline-delimited JSON, one create request with a 'type' "
+                    + "and an 'owner' username field per line, links each to the account of its owner, and streams "
+                    + "back one result per line.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import running, results are streamed as NDJSON")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(path = "/import", consumes = NDJSON, produces = NDJSON)
+    public void importNdjson(InputStream requestBody, @AuthenticationPrincipal User admin,
+                             HttpServletResponse response) throws IOException {
+        importCustomers(requestBody, EFileFormat.NDJSON, admin, response);
+    }
+
+    @Operation(summary = "Import customers from CSV (admin)",
+            description = "Creates customers of any type from CSV with a header row naming the create request fields "
+                    + "and the 'type' and 'owner' columns, links each to the account of its owner, and streams back "
+                    + "one result per record.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import running, results are streamed as NDJSON")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(path = "/import", consumes = "text/csv", produces = NDJSON)
+    public void importCsv(InputStream requestBody, @AuthenticationPrincipal User admin,
+                          HttpServletResponse response) throws IOException {
+        importCustomers(requestBody, EFileFormat.CSV, admin, response);
+    }
+
+    private void importCustomers(InputStream requestBody, EFileFormat format, User admin,
+                                 HttpServletResponse response) throws IOException {
+        log.info("Starting {} customer import for {}", format, admin.getUsername());
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(NDJSON);
+        OutputStream output = response.getOutputStream();
+        try {
+            customerImportService.importCustomers(requestBody, format, admin.getUsername(), results -> {
+                try {
+                    for (CustomerImportResult result : results) {
+                        output.write(resultWriter.writeValueAsBytes(result));
+                        output.write('\n');
+                    }
+                    // Flushing per chunk keeps the report streaming instead of buffering it
+                    output.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
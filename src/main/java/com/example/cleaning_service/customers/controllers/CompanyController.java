@@ -1,5 +1,6 @@
 package com.example.cleaning_service.customers.controllers;
 
+import com.example.cleaning_service.commons.RepresentationCache;
 import com.example.cleaning_service.customers.assemblers.companies.CompanyDetailsModelAssembler;
 import com.example.cleaning_service.customers.assemblers.companies.CompanyModelAssembler;
 import com.example.cleaning_service.customers.dto.companies.CompanyDetailsResponseModel;
@@ -7,16 +8,21 @@ import com.example.cleaning_service.customers.dto.companies.CompanyRequest;
 import com.example.cleaning_service.customers.dto.companies.CompanyResponseModel;
 import com.example.cleaning_service.customers.dto.companies.CompanyUpdateRequest;
 import com.example.cleaning_service.customers.entities.Company;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
 import com.example.cleaning_service.customers.services.CompanyService;
 import com.example.cleaning_service.security.entities.user.User;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -32,11 +38,14 @@ public class CompanyController {
     private final CompanyService companyService;
     private final CompanyDetailsModelAssembler companyDetailsModelAssembler;
     private final CompanyModelAssembler companyModelAssembler;
+    private final RepresentationCache representationCache;
 
-    public CompanyController(CompanyService companyService, CompanyDetailsModelAssembler companyDetailsModelAssembler, CompanyModelAssembler companyModelAssembler) {
+    public CompanyController(CompanyService companyService, CompanyDetailsModelAssembler companyDetailsModelAssembler, CompanyModelAssembler companyModelAssembler,
+                             RepresentationCache representationCache) {
         this.companyService = companyService;
         this.companyDetailsModelAssembler = companyDetailsModelAssembler;
         this.companyModelAssembler = companyModelAssembler;
+        this.representationCache = representationCache;
     }
 
     @Operation(summary = "Create a company", description = "Creates a new company and associates it with the authenticated user.")
@@ -58,19 +67,21 @@ public class CompanyController {
 
     @Operation(summary = "Get company by ID", description = "Retrieves company details by its ID for the authenticated user.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Company details retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Company details retrieved successfully",
+                    content = @Content(mediaType = "application/hal+json",
+                            schema = @Schema(implementation = CompanyDetailsResponseModel.class))),
             @ApiResponse(responseCode = "404", description = "Company not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping(path = "/{id}", produces = "application/hal+json")
-    @ResponseStatus(HttpStatus.OK)
-    public CompanyDetailsResponseModel getCompanyById(@PathVariable UUID id,
-                                                      @AuthenticationPrincipal User user) {
-        Company company = companyService.findByIdAndUser(id, user);
-        CompanyDetailsResponseModel companyDetailsResponseModel = companyDetailsModelAssembler.toModel(company);
-        log.info("Retrieved company details response model: {}", companyDetailsResponseModel.getId());
-        return companyDetailsResponseModel;
+    public ResponseEntity<byte[]> getCompanyById(@PathVariable UUID id,
+                                                 @AuthenticationPrincipal User user) {
+        Long version = companyService.findVersionByIdAndUser(id, user);
+        byte[] companyDetails = representationCache.get(EOrganizationType.COMPANY.name(), id, version,
+                () -> companyDetailsModelAssembler.toModel(companyService.findById(id)));
+        log.info("Retrieved company details response model: {}", id);
+        return ResponseEntity.ok().contentType(MediaTypes.HAL_JSON).body(companyDetails);
     }
 
     @Operation(summary = "Update company details", description = "Updates a company's details. Only non-null fields are updated.")
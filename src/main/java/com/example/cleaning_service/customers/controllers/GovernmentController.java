@@ -1,5 +1,6 @@
 package com.example.cleaning_service.customers.controllers;
 
+import com.example.cleaning_service.commons.RepresentationCache;
 import com.example.cleaning_service.customers.assemblers.governments.GovernmentDetailsModelAssembler;
 import com.example.cleaning_service.customers.assemblers.governments.GovernmentModelAssembler;
 import com.example.cleaning_service.customers.dto.governments.GovernmentDetailsResponseModel;
@@ -7,16 +8,21 @@ import com.example.cleaning_service.customers.dto.governments.GovernmentRequest;
 import com.example.cleaning_service.customers.dto.governments.GovernmentResponseModel;
 import com.example.cleaning_service.customers.dto.governments.GovernmentUpdateRequest;
 import com.example.cleaning_service.customers.entities.Government;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
 import com.example.cleaning_service.customers.services.GovernmentService;
 import com.example.cleaning_service.security.entities.user.User;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -32,11 +38,14 @@ public class GovernmentController {
     private final GovernmentService governmentService;
     private final GovernmentModelAssembler governmentModelAssembler;
     private final GovernmentDetailsModelAssembler governmentDetailsModelAssembler;
+    private final RepresentationCache representationCache;
 
-    public GovernmentController(GovernmentService governmentService, GovernmentModelAssembler governmentModelAssembler, GovernmentDetailsModelAssembler governmentDetailsModelAssembler) {
+    public GovernmentController(GovernmentService governmentService, GovernmentModelAssembler governmentModelAssembler, GovernmentDetailsModelAssembler governmentDetailsModelAssembler,
+                                RepresentationCache representationCache) {
         this.governmentService = governmentService;
         this.governmentModelAssembler = governmentModelAssembler;
         this.governmentDetailsModelAssembler = governmentDetailsModelAssembler;
+        this.representationCache = representationCache;
     }
 
     @Operation(summary = "Create a government", description = "Creates a new government entity and associates it with the authenticated user.")
@@ -58,17 +67,20 @@ public class GovernmentController {
 
     @Operation(summary = "Get government by ID", description = "Retrieves government details by its ID for the authenticated user.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Government details retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Government details retrieved successfully",
+                    content = @Content(mediaType = "application/hal+json",
+                            schema = @Schema(implementation = GovernmentDetailsResponseModel.class))),
             @ApiResponse(responseCode = "404", description = "Government not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public GovernmentDetailsResponseModel getGovernmentById(@PathVariable UUID id,
-                                                            @AuthenticationPrincipal User user) {
-        Government government = governmentService.getGovernmentDetailsResponseModelById(id, user);
-        return governmentDetailsModelAssembler.toModel(government);
+    public ResponseEntity<byte[]> getGovernmentById(@PathVariable UUID id,
+                                                    @AuthenticationPrincipal User user) {
+        Long version = governmentService.findVersionByIdAndUser(id, user);
+        byte[] governmentDetails = representationCache.get(EOrganizationType.GOVERNMENT.name(), id, version,
+                () -> governmentDetailsModelAssembler.toModel(governmentService.findById(id)));
+        return ResponseEntity.ok().contentType(MediaTypes.HAL_JSON).body(governmentDetails);
     }
 
     @Operation(summary = "Update government details", description = "Updates a government entity's details. Only non-null fields are updated.")
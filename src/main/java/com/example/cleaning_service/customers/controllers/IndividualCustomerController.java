@@ -1,5 +1,6 @@
 package com.example.cleaning_service.customers.controllers;
 
+import com.example.cleaning_service.commons.RepresentationCache;
 import com.example.cleaning_service.customers.assemblers.individuals.IndividualCustomerDetailsModelAssembler;
 import com.example.cleaning_service.customers.assemblers.individuals.IndividualCustomerModelAssembler;
 import com.example.cleaning_service.customers.dto.individuals.IndividualCustomerDetailsResponseModel;
@@ -7,16 +8,21 @@ import com.example.cleaning_service.customers.dto.individuals.IndividualCustomer
 import com.example.cleaning_service.customers.dto.individuals.IndividualCustomerResponseModel;
 import com.example.cleaning_service.customers.dto.individuals.IndividualCustomerUpdateRequest;
 import com.example.cleaning_service.customers.entities.IndividualCustomer;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
 import com.example.cleaning_service.customers.services.IndividualCustomerService;
 import com.example.cleaning_service.security.entities.user.User;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -32,11 +38,14 @@ public class IndividualCustomerController {
     private final IndividualCustomerService individualCustomerService;
     private final IndividualCustomerModelAssembler individualCustomerModelAssembler;
     private final IndividualCustomerDetailsModelAssembler individualCustomerDetailsModelAssembler;
+    private final RepresentationCache representationCache;
 
-    public IndividualCustomerController(IndividualCustomerService individualCustomerService, IndividualCustomerModelAssembler individualCustomerModelAssembler, IndividualCustomerDetailsModelAssembler individualCustomerDetailsModelAssembler) {
+    public IndividualCustomerController(IndividualCustomerService individualCustomerService, IndividualCustomerModelAssembler individualCustomerModelAssembler, IndividualCustomerDetailsModelAssembler individualCustomerDetailsModelAssembler,
+                                        RepresentationCache representationCache) {
         this.individualCustomerService = individualCustomerService;
         this.individualCustomerModelAssembler = individualCustomerModelAssembler;
         this.individualCustomerDetailsModelAssembler = individualCustomerDetailsModelAssembler;
+        this.representationCache = representationCache;
     }
 
     @Operation(summary = "Create an Individual Customer", description = "Creates a new individual customer associated with the authenticated user.")
@@ -62,20 +71,21 @@ public class IndividualCustomerController {
 
     @Operation(summary = "Get Individual Customer by ID", description = "Retrieves an individual customer by ID for the authenticated user.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Individual customer retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Individual customer retrieved successfully",
+                    content = @Content(mediaType = "application/hal+json",
+                            schema = @Schema(implementation = IndividualCustomerDetailsResponseModel.class))),
             @ApiResponse(responseCode = "404", description = "Individual customer not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public IndividualCustomerDetailsResponseModel getIndividualCustomerById(@PathVariable UUID id,
-                                                                            @AuthenticationPrincipal User user) {
-        IndividualCustomer individualCustomer = individualCustomerService.getIndividualCustomerDetailsById(id, user);
-        IndividualCustomerDetailsResponseModel individualCustomerDetailsResponseModel =
-                individualCustomerDetailsModelAssembler.toModel(individualCustomer);
-        log.info("Retrieved individual details: {}", individualCustomerDetailsResponseModel);
-        return individualCustomerDetailsResponseModel;
+    public ResponseEntity<byte[]> getIndividualCustomerById(@PathVariable UUID id,
+                                                            @AuthenticationPrincipal User user) {
+        Long version = individualCustomerService.findVersionByIdAndUser(id, user);
+        byte[] individualCustomerDetails = representationCache.get(EOrganizationType.INDIVIDUAL.name(), id, version,
+                () -> individualCustomerDetailsModelAssembler.toModel(individualCustomerService.findById(id)));
+        log.info("Retrieved individual details: {}", id);
+        return ResponseEntity.ok().contentType(MediaTypes.HAL_JSON).body(individualCustomerDetails);
     }
 
     @Operation(summary = "Update Individual Customer", description = "Updates an individual customer's details. Only non-null fields are updated.")
@@ -1,5 +1,6 @@
 package com.example.cleaning_service.customers.controllers;
 
+import com.example.cleaning_service.commons.RepresentationCache;
 import com.example.cleaning_service.customers.assemblers.non_profit_org.NonProfitOrgDetailsModelAssembler;
 import com.example.cleaning_service.customers.assemblers.non_profit_org.NonProfitOrgModelAssembler;
 import com.example.cleaning_service.customers.dto.non_profit_org.NonProfitOrgDetailsResponseModel;
@@ -7,16 +8,21 @@ import com.example.cleaning_service.customers.dto.non_profit_org.NonProfitOrgReq
 import com.example.cleaning_service.customers.dto.non_profit_org.NonProfitOrgResponseModel;
 import com.example.cleaning_service.customers.dto.non_profit_org.NonProfitOrgUpdateRequest;
 import com.example.cleaning_service.customers.entities.NonProfitOrg;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
 import com.example.cleaning_service.customers.services.NonProfitOrgService;
 import com.example.cleaning_service.security.entities.user.User;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -32,11 +38,14 @@ public class NonProfitOrgController {
     private final NonProfitOrgService nonProfitOrgService;
     private final NonProfitOrgModelAssembler nonProfitOrgModelAssembler;
     private final NonProfitOrgDetailsModelAssembler nonProfitOrgDetailsModelAssembler;
+    private final RepresentationCache representationCache;
 
-    public NonProfitOrgController(NonProfitOrgService nonProfitOrgService, NonProfitOrgModelAssembler nonProfitOrgModelAssembler, NonProfitOrgDetailsModelAssembler nonProfitOrgDetailsModelAssembler) {
+    public NonProfitOrgController(NonProfitOrgService nonProfitOrgService, NonProfitOrgModelAssembler nonProfitOrgModelAssembler, NonProfitOrgDetailsModelAssembler nonProfitOrgDetailsModelAssembler,
+                                  RepresentationCache representationCache) {
         this.nonProfitOrgService = nonProfitOrgService;
         this.nonProfitOrgModelAssembler = nonProfitOrgModelAssembler;
         this.nonProfitOrgDetailsModelAssembler = nonProfitOrgDetailsModelAssembler;
+        this.representationCache = representationCache;
     }
 
     @Operation(summary = "Create a Non-profit Organization", description = "Creates a new non-profit organization associated with the authenticated user.")
@@ -59,17 +68,20 @@ public class NonProfitOrgController {
 
     @Operation(summary = "Get Non-profit Organization by ID", description = "Retrieves a non-profit organization by ID for the authenticated user.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Non-profit organization retrieved successfully"),
+            @ApiResponse(responseCode = "200", description = "Non-profit organization retrieved successfully",
+                    content = @Content(mediaType = "application/hal+json",
+                            schema = @Schema(implementation = NonProfitOrgDetailsResponseModel.class))),
             @ApiResponse(responseCode = "404", description = "Non-profit organization not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public NonProfitOrgDetailsResponseModel getNonProfitOrgById(@PathVariable UUID id,
-                                                                @AuthenticationPrincipal User user) {
-        NonProfitOrg nonProfitOrg = nonProfitOrgService.getNonProfitOrgDetailsResponseModelById(id, user);
-        return nonProfitOrgDetailsModelAssembler.toModel(nonProfitOrg);
+    public ResponseEntity<byte[]> getNonProfitOrgById(@PathVariable UUID id,
+                                                      @AuthenticationPrincipal User user) {
+        Long version = nonProfitOrgService.findVersionByIdAndUser(id, user);
+        byte[] nonProfitOrgDetails = representationCache.get(EOrganizationType.NON_PROFIT.name(), id, version,
+                () -> nonProfitOrgDetailsModelAssembler.toModel(nonProfitOrgService.findById(id)));
+        return ResponseEntity.ok().contentType(MediaTypes.HAL_JSON).body(nonProfitOrgDetails);
     }
 
     @Operation(summary = "Update Non-profit Organization", description = "Updates a non-profit organization's details. Only non-null fields are updated.")
@@ -0,0 +1,37 @@
+package com.example.cleaning_service.customers.dto.accounts;
+
+import com.example.cleaning_service.customers.enums.EAssociationType;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
+
+import java.util.UUID;
+
+/**
+ * The part of an account that ownership checks need, read without loading the user or the customer.
+ *
+ * @param customerId      The referenced customer, or {@code null} if the account has none
+ * @param customerType    The subtype of the referenced customer, or {@code null} if the account has none
+ * @param customerVersion The current version of the referenced customer, or {@code null} if the account has none
+ */
+public record AccountAccess(
+        UUID accountId,
+        UUID customerId,
+        EOrganizationType customerType,
+        Long customerVersion,
+        EAssociationType associationType,
+        boolean isPrimary
+) {
+    public boolean hasCustomer() {
+        return customerId != null;
+    }
+
+    /**
+     * @return {@code true} if the account references the customer with {@code id} and it is of type {@code type}.
+     */
+    public boolean references(UUID id, EOrganizationType type) {
+        return customerId != null && customerId.equals(id) && customerType == type;
+    }
+
+    public boolean isRepresentative() {
+        return associationType == EAssociationType.REPRESENTATIVE;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.cleaning_service.customers.dto.accounts;
+
+import com.example.cleaning_service.customers.enums.*;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One account with the user it belongs to and the details of its customer, flattened so that every customer type
+ * fits the same CSV columns. Fields of other customer types, and all customer fields of accounts without a customer,
+ * are {@code null}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AccountExportRow(
+        UUID accountId,
+        UUID userId,
+        String username,
+        EAssociationType associationType,
+        boolean isPrimary,
+        String accountNotes,
+        Instant accountCreatedAt,
+        UUID customerId,
+        EOrganizationType customerType,
+        String name,
+        String email,
+        String phone,
+        String address,
+        String city,
+        String state,
+        String zip,
+        ECountryType country,
+        String taxId,
+        String registrationNumber,
+        String billingAddress,
+        EPaymentType paymentMethod,
+        ELoyaltyType loyaltyType,
+        List<EDay> preferredDays,
+        ECompanyType companyType,
+        String contractorName,
+        String departmentName,
+        Boolean isTaxExempt,
+        Boolean requiresEmergencyCleaning,
+        String customerNotes,
+        Instant customerCreatedAt
+) {
+    public static final List<String> COLUMNS = List.of("accountId", "userId", "username", "associationType",
+            "isPrimary", "accountNotes", "accountCreatedAt", "customerId", "customerType", "name", "email", "phone",
+            "address", "city", "state", "zip", "country", "taxId", "registrationNumber", "billingAddress",
+            "paymentMethod", "loyaltyType", "preferredDays", "companyType", "contractorName", "departmentName",
+            "isTaxExempt", "requiresEmergencyCleaning", "customerNotes", "customerCreatedAt");
+
+    /**
+     * The values in {@link #COLUMNS} order, with preferred days joined by {@code ;}.
+     */
+    public Object[] values() {
+        return new Object[]{accountId, userId, username, associationType, isPrimary, accountNotes, accountCreatedAt,
+                customerId, customerType, name, email, phone, address, city, state, zip, country, taxId,
+                registrationNumber, billingAddress, paymentMethod, loyaltyType,
+                preferredDays != null ? String.join(";", preferredDays.stream().map(Enum::name).toList()) : null,
+                companyType, contractorName, departmentName, isTaxExempt, requiresEmergencyCleaning, customerNotes,
+                customerCreatedAt};
+    }
+}
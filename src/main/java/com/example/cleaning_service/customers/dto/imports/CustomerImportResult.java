@@ -0,0 +1,37 @@
+package com.example.cleaning_service.customers.dto.imports;
+
+import com.example.cleaning_service.customers.enums.EOrganizationType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one row of a bulk customer import, written as one line of the NDJSON report.
+ *
+ * @param line   The 1-based line of the row in the request body; for CSV, the line the record starts on
+ * @param status Whether a customer was created
+ * @param type   The customer type of the row, or {@code null} if the row could not be parsed
+ * @param id     The ID of the created customer
+ * @param reason Why the row was rejected
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CustomerImportResult(
+        long line,
+        Status status,
+        EOrganizationType type,
+        UUID id,
+        String reason
+) {
+    public enum Status {
+        CREATED,
+        REJECTED
+    }
+
+    public static CustomerImportResult created(long line, EOrganizationType type, UUID id) {
+        return new CustomerImportResult(line, Status.CREATED, type, id, null);
+    }
+
+    public static CustomerImportResult rejected(long line, EOrganizationType type, String reason) {
+        return new CustomerImportResult(line, Status.REJECTED, type, null, reason);
+    }
+}
@@ -17,6 +17,7 @@ import java.util.Set;
 @Setter
 @Entity
 @Inheritance(strategy = InheritanceType.JOINED)
+@DiscriminatorColumn(name = "customer_type", discriminatorType = DiscriminatorType.STRING)
 @Table(name = "customer_details", schema = "customer")
 public abstract class AbstractCustomer extends BusinessEntity implements ICustomer, ITaxIdentifiable,
         IRegistrationNumberIdentifiable
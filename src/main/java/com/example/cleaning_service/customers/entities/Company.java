@@ -13,6 +13,7 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@DiscriminatorValue("COMPANY")
 @Table(name = "companies", schema = "customer")
 @ValidTaxId
 @ValidRegistrationNumber
@@ -14,6 +14,7 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@DiscriminatorValue("GOVERNMENT")
 @Table(name = "governments", schema = "customer")
 @ValidTaxId
 @ValidRegistrationNumber
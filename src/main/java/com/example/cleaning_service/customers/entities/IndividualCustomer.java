@@ -14,6 +14,7 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@DiscriminatorValue("INDIVIDUAL")
 @Table(name = "individual_customers", schema = "customer")
 @ValidTaxId
 @ValidRegistrationNumber
@@ -14,6 +14,7 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
+@DiscriminatorValue("NON_PROFIT")
 @Table(name = "non_profit_org", schema = "customer")
 @ValidTaxId
 @ValidRegistrationNumber
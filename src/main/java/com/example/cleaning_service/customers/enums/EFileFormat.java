@@ -0,0 +1,9 @@
+package com.example.cleaning_service.customers.enums;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(enumAsRef = true, description = "File format of bulk imports and exports")
+public enum EFileFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,10 @@
+package com.example.cleaning_service.customers.events;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when a chunk of imported customers was linked to the accounts of the given users.
+ */
+public record CustomersImportedEvent(List<UUID> userIds) {
+}
@@ -5,6 +5,7 @@ import com.example.cleaning_service.customers.enums.EDay;
 import jakarta.validation.constraints.NotNull;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -16,7 +17,10 @@ public class CustomerPreferredDayMapper {
         );
     }
 
-    public Set<CustomerPreferredDay> fromEDaysToCustomerPreferredDays(@NotNull Set<EDay> eDays) {
+    public Set<CustomerPreferredDay> fromEDaysToCustomerPreferredDays(Set<EDay> eDays) {
+        if (eDays == null) {
+            return new HashSet<>();
+        }
         return eDays.stream()
                 .map(this::fromEDayToCustomerPreferredDay)
                 .collect(Collectors.toSet());
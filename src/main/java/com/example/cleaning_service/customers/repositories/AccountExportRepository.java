@@ -0,0 +1,116 @@
+package com.example.cleaning_service.customers.repositories;
+
+import com.example.cleaning_service.customers.dto.accounts.AccountExportRow;
+import com.example.cleaning_service.customers.enums.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads every account with its customer through a forward-only JDBC cursor, bypassing the persistence context.
+ * <p>
+ * The Postgres driver only fetches in batches of {@code fetchSize} rows inside a transaction; outside of one it
+ * loads the whole result into memory. The customer subtype comes from the discriminator, the subtype tables with extra
+ * columns are outer joined and the preferred days are aggregated per customer, so each account is read in one row.
+ */
+@Repository
+public class AccountExportRepository {
+    private static final String SELECT_ACCOUNTS = """
+            SELECT a.id AS account_id, a.user_id, u.username, a.association_type, a.is_primary, a.notes AS account_notes,
+                   a.created_at AS account_created_at, c.id AS customer_id,
+                   c.customer_type, c.name, c.email, c.phone, c.address, c.city, c.state, c.zip, c.country, c.tax_id,
+                   c.registration_number, c.billing_address, c.payment_method, c.loyalty_type,
+                   (SELECT string_agg(d.preferred_day, ',' ORDER BY d.preferred_day)
+                    FROM customer.customer_preferred_days d WHERE d.customer_id = c.id) AS preferred_days,
+                   co.company_type, g.contractor_name, g.department_name, g.is_tax_exempt, g.requires_emergency_cleaning,
+                   c.notes AS customer_notes, c.created_at AS customer_created_at
+            FROM sale.customer_account a
+            JOIN security.users u ON u.id = a.user_id
+            LEFT JOIN customer.customer_details c ON c.id = a.customer_id
+            LEFT JOIN customer.companies co ON co.id = c.id
+            LEFT JOIN customer.governments g ON g.id = c.id
+            ORDER BY a.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    public AccountExportRepository(JdbcTemplate jdbcTemplate,
+                                   @Value("${customers.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Passes every account, ordered by ID, to {@code rows} while the cursor advances. Rows are not retained, so memory
+     * use does not depend on the number of accounts.
+     */
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public void forEach(Consumer<AccountExportRow> rows) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ACCOUNTS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> rows.accept(mapRow(resultSet)));
+    }
+
+    private static AccountExportRow mapRow(ResultSet resultSet) throws SQLException {
+        UUID customerId = resultSet.getObject("customer_id", UUID.class);
+        String preferredDays = resultSet.getString("preferred_days");
+        return new AccountExportRow(
+                resultSet.getObject("account_id", UUID.class),
+                resultSet.getObject("user_id", UUID.class),
+                resultSet.getString("username"),
+                enumValue(EAssociationType.class, resultSet.getString("association_type")),
+                resultSet.getBoolean("is_primary"),
+                resultSet.getString("account_notes"),
+                instant(resultSet.getTimestamp("account_created_at")),
+                customerId,
+                enumValue(EOrganizationType.class, resultSet.getString("customer_type")),
+                resultSet.getString("name"),
+                resultSet.getString("email"),
+                resultSet.getString("phone"),
+                resultSet.getString("address"),
+                resultSet.getString("city"),
+                resultSet.getString("state"),
+                resultSet.getString("zip"),
+                enumValue(ECountryType.class, resultSet.getString("country")),
+                resultSet.getString("tax_id"),
+                resultSet.getString("registration_number"),
+                resultSet.getString("billing_address"),
+                enumValue(EPaymentType.class, resultSet.getString("payment_method")),
+                enumValue(ELoyaltyType.class, resultSet.getString("loyalty_type")),
+                preferredDays != null
+                        ? Arrays.stream(preferredDays.split(",")).map(EDay::valueOf).toList()
+                        : customerId != null ? List.of() : null,
+                enumValue(ECompanyType.class, resultSet.getString("company_type")),
+                resultSet.getString("contractor_name"),
+                resultSet.getString("department_name"),
+                resultSet.getObject("is_tax_exempt", Boolean.class),
+                resultSet.getObject("requires_emergency_cleaning", Boolean.class),
+                resultSet.getString("customer_notes"),
+                instant(resultSet.getTimestamp("customer_created_at")));
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> type, String name) {
+        return name != null ? Enum.valueOf(type, name) : null;
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -2,13 +2,16 @@ package com.example.cleaning_service.customers.repositories;
 
 import com.example.cleaning_service.customers.entities.AbstractCustomer;
 import com.example.cleaning_service.customers.entities.Account;
+import com.example.cleaning_service.customers.enums.EAssociationType;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
 import com.example.cleaning_service.security.entities.user.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.lang.NonNull;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,10 +22,83 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     @EntityGraph(attributePaths = {"customer"})
     Optional<Account> findByUser(User user);
 
+    /**
+     * Columns of an account needed to authorize access to its customer. The subtype comes from the discriminator of
+     * {@code customer_details} instead of loading the customer hierarchy.
+     */
+    interface AccountAccessView {
+        UUID getAccountId();
+
+        UUID getCustomerId();
+
+        EOrganizationType getCustomerType();
+
+        Long getCustomerVersion();
+
+        EAssociationType getAssociationType();
+
+        boolean getIsPrimary();
+    }
+
+    @Query(value = """
+            SELECT a.id AS "accountId", a.customer_id AS "customerId",
+                   c.customer_type AS "customerType", c.version AS "customerVersion",
+                   a.association_type AS "associationType", a.is_primary AS "isPrimary"
+            FROM sale.customer_account a
+            LEFT JOIN customer.customer_details c ON c.id = a.customer_id
+            WHERE a.user_id = :userId
+            """, nativeQuery = true)
+    Optional<AccountAccessView> findAccessByUserId(@Param("userId") UUID userId);
+
+    /**
+     * An existing user named as the owner of an imported customer, and whether their account already has one.
+     */
+    interface ImportOwner {
+        String getUsername();
+
+        UUID getUserId();
+
+        boolean getHasCustomer();
+    }
+
+    @Query(value = """
+            SELECT u.username AS "username", u.id AS "userId", a.customer_id IS NOT NULL AS "hasCustomer"
+            FROM security.users u
+            LEFT JOIN sale.customer_account a ON a.user_id = u.id
+            WHERE u.username IN (:usernames)
+            """, nativeQuery = true)
+    List<ImportOwner> findImportOwnersByUsernameIn(@Param("usernames") Collection<String> usernames);
+
     void deleteByUser(User user);
 
-    @EntityGraph(attributePaths = {"customer"})
-    @NonNull Page<Account> findAll(@NonNull Pageable pageable);
+    @EntityGraph(attributePaths = {"user", "customer"})
+    List<Account> findWithUserAndCustomerByIdIn(Collection<UUID> ids);
+
+    /*
+     * Keyset pages of all accounts ordered by (created_at, id), answered from ix_customer_account_created_at_id.
+     */
+    @Query(value = "SELECT a.id FROM sale.customer_account a ORDER BY a.created_at, a.id LIMIT :limit",
+            nativeQuery = true)
+    List<UUID> findFirstIds(@Param("limit") int limit);
+
+    @Query(value = """
+            SELECT a.id FROM sale.customer_account a
+            WHERE (a.created_at, a.id) > (CAST(:createdAt AS TIMESTAMP), :id)
+            ORDER BY a.created_at, a.id LIMIT :limit""", nativeQuery = true)
+    List<UUID> findIdsAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT a.id FROM sale.customer_account a
+            WHERE (a.created_at, a.id) < (CAST(:createdAt AS TIMESTAMP), :id)
+            ORDER BY a.created_at DESC, a.id DESC LIMIT :limit""", nativeQuery = true)
+    List<UUID> findIdsBefore(@Param("createdAt") Instant createdAt, @Param("id") UUID id, @Param("limit") int limit);
+
+    /**
+     * Row count from the planner statistics, refreshed by autovacuum; avoids scanning the table.
+     */
+    @Query(value = "SELECT GREATEST(c.reltuples, 0)::bigint FROM pg_class c WHERE c.oid = 'sale.customer_account'::regclass",
+            nativeQuery = true)
+    long estimateCount();
 
     @EntityGraph(attributePaths = {"customer"})
     Optional<Account> findWithCustomerById(UUID id);
@@ -0,0 +1,180 @@
+package com.example.cleaning_service.customers.repositories;
+
+import com.example.cleaning_service.customers.entities.*;
+import com.example.cleaning_service.customers.enums.EAssociationType;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts new customers of every type with plain JDBC batches, bypassing the persistence context.
+ * <p>
+ * A call sends one batch for {@code customer_details}, one per subtype table and one for the preferred days,
+ * which the Postgres driver rewrites into multi-row inserts when {@code reWriteBatchedInserts} is enabled.
+ * The customers must already have their IDs assigned. {@link #linkAccounts} then attaches them to the accounts of
+ * their owners with one more batch.
+ */
+@Repository
+public class CustomerBatchRepository {
+    private static final String INSERT_CUSTOMER_DETAILS = """
+            INSERT INTO customer.customer_details (id, version, created_at, created_by, name, address, phone, email,
+                                                   city, state, zip, country, notes, loyalty_type, tax_id,
+                                                   registration_number, billing_address, payment_method, customer_type)
+            VALUES (?, 0, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_COMPANY =
+            "INSERT INTO customer.companies (id, organization_type, company_type) VALUES (?, ?, ?)";
+    private static final String INSERT_GOVERNMENT = """
+            INSERT INTO customer.governments (id, organization_type, contractor_name, department_name, is_tax_exempt,
+                                              requires_emergency_cleaning)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_INDIVIDUAL =
+            "INSERT INTO customer.individual_customers (id, organization_type) VALUES (?, ?)";
+    private static final String INSERT_NON_PROFIT =
+            "INSERT INTO customer.non_profit_org (id, organization_type) VALUES (?, ?)";
+    private static final String INSERT_PREFERRED_DAY =
+            "INSERT INTO customer.customer_preferred_days (id, preferred_day, customer_id) VALUES (?, ?, ?)";
+
+    // Creates the account of the user or fills in one without a customer, like AccountService.handleCustomerCreation
+    private static final String UPSERT_ACCOUNT = """
+            INSERT INTO sale.customer_account (id, version, created_at, created_by, user_id, customer_id, is_primary,
+                                               association_type)
+            VALUES (?, 0, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (user_id) DO UPDATE
+            SET customer_id = EXCLUDED.customer_id, is_primary = EXCLUDED.is_primary,
+                association_type = EXCLUDED.association_type, version = customer_account.version + 1,
+                updated_at = EXCLUDED.created_at, updated_by = EXCLUDED.created_by
+            WHERE customer_account.customer_id IS NULL
+            """;
+
+    private record PreferredDay(UUID customerId, CustomerPreferredDay day) {
+    }
+
+    /**
+     * The account of {@code userId} that is to reference the customer {@code customerId}.
+     */
+    public record AccountLink(UUID userId, UUID customerId, boolean isPrimary, EAssociationType associationType) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CustomerBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the customers and their preferred days. Must run in a transaction, so that a failing row rolls back
+     * the whole batch.
+     */
+    public void insertAll(List<? extends AbstractCustomer> customers, Instant createdAt, String createdBy) {
+        Timestamp timestamp = Timestamp.from(createdAt);
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER_DETAILS, customers, customers.size(), (statement, customer) -> {
+            statement.setObject(1, customer.getId());
+            statement.setTimestamp(2, timestamp);
+            statement.setString(3, createdBy);
+            statement.setString(4, customer.getName());
+            statement.setString(5, customer.getAddress());
+            statement.setString(6, customer.getPhone());
+            statement.setString(7, customer.getEmail());
+            statement.setString(8, customer.getCity());
+            statement.setString(9, customer.getState());
+            statement.setString(10, customer.getZip());
+            statement.setString(11, name(customer.getCountry()));
+            statement.setString(12, customer.getNotes());
+            statement.setString(13, name(customer.getLoyaltyType()));
+            statement.setString(14, customer.getTaxId());
+            statement.setString(15, customer.getRegistrationNumber());
+            statement.setString(16, customer.getBillingAddress());
+            statement.setString(17, name(customer.getPaymentMethod()));
+            statement.setString(18, name(customer.getOrganizationType()));
+        });
+
+        List<Company> companies = new ArrayList<>();
+        List<Government> governments = new ArrayList<>();
+        List<IndividualCustomer> individuals = new ArrayList<>();
+        List<NonProfitOrg> nonProfits = new ArrayList<>();
+        List<PreferredDay> preferredDays = new ArrayList<>();
+        for (AbstractCustomer customer : customers) {
+            switch (customer) {
+                case Company company -> companies.add(company);
+                case Government government -> governments.add(government);
+                case IndividualCustomer individual -> individuals.add(individual);
+                case NonProfitOrg nonProfit -> nonProfits.add(nonProfit);
+                default -> throw new IllegalArgumentException("Unsupported customer type " + customer.getClass());
+            }
+            customer.getPreferredDays().forEach(day -> preferredDays.add(new PreferredDay(customer.getId(), day)));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_COMPANY, companies, companies.size(), (statement, company) -> {
+            statement.setObject(1, company.getId());
+            statement.setString(2, name(company.getOrganizationType()));
+            statement.setString(3, name(company.getCompanyType()));
+        });
+        jdbcTemplate.batchUpdate(INSERT_GOVERNMENT, governments, governments.size(), (statement, government) -> {
+            statement.setObject(1, government.getId());
+            statement.setString(2, name(government.getOrganizationType()));
+            statement.setString(3, government.getContractorName());
+            statement.setString(4, government.getDepartmentName());
+            statement.setBoolean(5, government.isTaxExempt());
+            statement.setBoolean(6, government.isRequiresEmergencyCleaning());
+        });
+        jdbcTemplate.batchUpdate(INSERT_INDIVIDUAL, individuals, individuals.size(), (statement, individual) -> {
+            statement.setObject(1, individual.getId());
+            statement.setString(2, name(individual.getOrganizationType()));
+        });
+        jdbcTemplate.batchUpdate(INSERT_NON_PROFIT, nonProfits, nonProfits.size(), (statement, nonProfit) -> {
+            statement.setObject(1, nonProfit.getId());
+            statement.setString(2, name(nonProfit.getOrganizationType()));
+        });
+        jdbcTemplate.batchUpdate(INSERT_PREFERRED_DAY, preferredDays, preferredDays.size(), (statement, preferredDay) -> {
+            statement.setObject(1, UUID.randomUUID());
+            statement.setString(2, name(preferredDay.day().getPreferredDay()));
+            statement.setObject(3, preferredDay.customerId());
+        });
+    }
+
+    /**
+     * Makes every customer the customer of its owner's account, creating the account if the owner has none. Must run
+     * in the transaction that inserted the customers.
+     *
+     * @throws IncorrectUpdateSemanticsDataAccessException if an account already references another customer, so that
+     *                                                     the transaction is rolled back.
+     */
+    public void linkAccounts(List<AccountLink> links, Instant linkedAt, String linkedBy) {
+        if (links.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.from(linkedAt);
+        jdbcTemplate.batchUpdate(UPSERT_ACCOUNT, links, links.size(), (statement, link) -> {
+            statement.setObject(1, UUID.randomUUID());
+            statement.setTimestamp(2, timestamp);
+            statement.setString(3, linkedBy);
+            statement.setObject(4, link.userId());
+            statement.setObject(5, link.customerId());
+            statement.setBoolean(6, link.isPrimary());
+            statement.setString(7, name(link.associationType()));
+        });
+
+        // Rewritten batches do not report per-row counts, so skipped upserts are detected by counting the links
+        Long linked = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM sale.customer_account WHERE customer_id IN ("
+                        + String.join(", ", Collections.nCopies(links.size(), "?")) + ")",
+                Long.class, links.stream().map(AccountLink::customerId).toArray());
+        if (linked == null || linked != links.size()) {
+            throw new IncorrectUpdateSemanticsDataAccessException("Linked " + linked + " of " + links.size()
+                    + " customers, the account of an owner already references a customer");
+        }
+    }
+
+    private static String name(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+}
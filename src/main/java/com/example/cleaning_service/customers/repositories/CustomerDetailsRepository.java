@@ -0,0 +1,80 @@
+package com.example.cleaning_service.customers.repositories;
+
+import com.example.cleaning_service.customers.entities.AbstractCustomer;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Queries over {@code customer_details}, the table shared by every customer type.
+ */
+@Repository
+public interface CustomerDetailsRepository extends org.springframework.data.repository.Repository<AbstractCustomer, UUID> {
+
+    /**
+     * Which of the fields collide with an existing customer of any type.
+     */
+    interface DuplicateFields {
+        Boolean getTaxId();
+
+        Boolean getRegistrationNumber();
+
+        Boolean getEmail();
+    }
+
+    /**
+     * Checks all three identifying fields in one round trip. The expressions match the functional indexes of
+     * {@code customer_details}, so the arguments must already be normalized the same way: tax ID and registration
+     * number stripped to upper-case letters and digits, email lower-cased. {@code null} arguments never match.
+     */
+    @Query(value = """
+            SELECT COALESCE(bool_or(NULLIF(upper(regexp_replace(c.tax_id, '[^A-Za-z0-9]', '', 'g')), '')
+                                    = CAST(:taxId AS VARCHAR)), false) AS "taxId",
+                   COALESCE(bool_or(NULLIF(upper(regexp_replace(c.registration_number, '[^A-Za-z0-9]', '', 'g')), '')
+                                    = CAST(:registrationNumber AS VARCHAR)), false) AS "registrationNumber",
+                   COALESCE(bool_or(lower(c.email) = CAST(:email AS VARCHAR)), false) AS "email"
+            FROM customer.customer_details c
+            WHERE NULLIF(upper(regexp_replace(c.tax_id, '[^A-Za-z0-9]', '', 'g')), '') = CAST(:taxId AS VARCHAR)
+               OR NULLIF(upper(regexp_replace(c.registration_number, '[^A-Za-z0-9]', '', 'g')), '') = CAST(:registrationNumber AS VARCHAR)
+               OR lower(c.email) = CAST(:email AS VARCHAR)
+            """, nativeQuery = true)
+    DuplicateFields findDuplicateFields(@Param("taxId") String taxId,
+                                        @Param("registrationNumber") String registrationNumber,
+                                        @Param("email") String email);
+
+    /**
+     * A normalized value that is already taken; {@code field} is {@code TAX_ID}, {@code REGISTRATION_NUMBER}
+     * or {@code EMAIL}.
+     */
+    interface ExistingIdentifier {
+        String getField();
+
+        String getValue();
+    }
+
+    /**
+     * Set-based variant of {@link #findDuplicateFields} for many candidates at once. The arguments are normalized the
+     * same way and must not be empty; an empty string never matches, since the indexed expressions map it to
+     * {@code null}.
+     */
+    @Query(value = """
+            SELECT 'TAX_ID' AS "field", NULLIF(upper(regexp_replace(c.tax_id, '[^A-Za-z0-9]', '', 'g')), '') AS "value"
+            FROM customer.customer_details c
+            WHERE NULLIF(upper(regexp_replace(c.tax_id, '[^A-Za-z0-9]', '', 'g')), '') IN (:taxIds)
+            UNION ALL
+            SELECT 'REGISTRATION_NUMBER', NULLIF(upper(regexp_replace(c.registration_number, '[^A-Za-z0-9]', '', 'g')), '')
+            FROM customer.customer_details c
+            WHERE NULLIF(upper(regexp_replace(c.registration_number, '[^A-Za-z0-9]', '', 'g')), '') IN (:registrationNumbers)
+            UNION ALL
+            SELECT 'EMAIL', lower(c.email)
+            FROM customer.customer_details c
+            WHERE lower(c.email) IN (:emails)
+            """, nativeQuery = true)
+    List<ExistingIdentifier> findExistingIdentifiers(@Param("taxIds") Collection<String> taxIds,
+                                                     @Param("registrationNumbers") Collection<String> registrationNumbers,
+                                                     @Param("emails") Collection<String> emails);
+}
@@ -0,0 +1,23 @@
+package com.example.cleaning_service.customers.services;
+
+import com.example.cleaning_service.customers.enums.EFileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface AccountExportService {
+    /**
+     * Writes every account with its user and customer details to {@code output}, one row per account ordered by
+     * account ID. NDJSON rows are JSON objects without {@code null} fields; CSV starts with a header row and joins
+     * preferred days with {@code ;}.
+     * <p>
+     * Rows are written while they are read from the database, so memory use does not depend on the number of
+     * accounts.
+     *
+     * @param format The format to write
+     * @param output The stream to write to; it is flushed but not closed
+     * @return The number of accounts written
+     * @throws IOException if writing to {@code output} fails.
+     */
+    long exportAccounts(EFileFormat format, OutputStream output) throws IOException;
+}
@@ -1,5 +1,8 @@
 package com.example.cleaning_service.customers.services;
 
+import com.example.cleaning_service.commons.KeysetPage;
+import com.example.cleaning_service.commons.KeysetRequest;
+import com.example.cleaning_service.customers.dto.accounts.AccountAccess;
 import com.example.cleaning_service.customers.dto.accounts.AccountRequest;
 import com.example.cleaning_service.customers.dto.accounts.AccountUpdateRequest;
 import com.example.cleaning_service.customers.entities.AbstractCustomer;
@@ -13,10 +16,19 @@ public interface AccountService {
     Account findById(UUID id);
     Account patchAccountDetailsById(UUID id, AccountUpdateRequest accountUpdateRequest);
     Account findWithCustomerById(UUID id);
+    KeysetPage<Account> findPage(KeysetRequest request);
+    long estimateCount();
 
     Account findAccountWithCustomerByUser(User user);
+
+    /**
+     * Reads what ownership checks need from the account of {@code user}, without loading the account entity.
+     * The result is kept for the rest of the current HTTP request and dropped when the account changes.
+     *
+     * @throws jakarta.persistence.EntityNotFoundException if the user has no account.
+     */
+    AccountAccess findAccountAccessByUser(User user);
     void checkAccountReferenceCustomer(User user);
     Account handleCustomerCreation(AccountRequest accountRequest);
     void detachCustomerFromAccount(AbstractCustomer abstractCustomer);
-    boolean isRepresentativeAssociationType(Account account);
 }
@@ -50,6 +50,17 @@ public interface CompanyService {
      */
     Company findByIdAndUser(UUID id, User user);
 
+    /**
+     * Returns the current version of a company after verifying that the user is associated with it, without
+     * loading the company.
+     *
+     * @param id The UUID of the company
+     * @param user The user requesting the company details
+     * @return The version of the company
+     * @throws AccessDeniedException If the user is not associated with the company
+     */
+    Long findVersionByIdAndUser(UUID id, User user);
+
     /**
      * Updates company details based on the provided request.
      * <p>
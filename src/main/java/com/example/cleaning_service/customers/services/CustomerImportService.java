@@ -0,0 +1,32 @@
+package com.example.cleaning_service.customers.services;
+
+import com.example.cleaning_service.customers.dto.imports.CustomerImportResult;
+import com.example.cleaning_service.customers.enums.EFileFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface CustomerImportService {
+    /**
+     * Creates customers of any type from a stream of rows and makes each one the customer of its owner's account.
+     * <p>
+     * Each row carries a {@code type} ({@code COMPANY}, {@code GOVERNMENT}, {@code INDIVIDUAL} or {@code NON_PROFIT}),
+     * the {@code owner}, i.e. the username of an existing user whose account does not reference a customer yet, and
+     * the fields of the matching create request. Owners are granted the customer role like users who create a
+     * customer themselves. In NDJSON every line is one JSON object; in CSV the first record
+     * is a header naming the fields, and {@code preferredDays} lists days separated by {@code ;}.
+     * <p>
+     * Rows are processed in chunks, and the results of every chunk are passed to {@code results} in input order
+     * before the next chunk is read, so memory use does not depend on the size of the input.
+     *
+     * @param input      The request body
+     * @param format     The format of the body
+     * @param importedBy The username recorded as creator of the customers
+     * @param results    Receives the outcome of every row
+     * @throws IOException if the input cannot be read.
+     */
+    void importCustomers(InputStream input, EFileFormat format, String importedBy,
+                         Consumer<List<CustomerImportResult>> results) throws IOException;
+}
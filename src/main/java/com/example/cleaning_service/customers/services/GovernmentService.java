@@ -50,6 +50,17 @@ public interface GovernmentService {
      */
     Government getGovernmentDetailsResponseModelById(UUID id, User user);
 
+    /**
+     * Returns the current version of a government entity after verifying that the user is associated with it, without
+     * loading the entity.
+     *
+     * @param id The UUID of the government entity
+     * @param user The user requesting the government entity details
+     * @return The version of the government entity
+     * @throws AccessDeniedException If the user is not associated with the government entity
+     */
+    Long findVersionByIdAndUser(UUID id, User user);
+
     /**
      * Updates government details based on the provided request.
      * <p>
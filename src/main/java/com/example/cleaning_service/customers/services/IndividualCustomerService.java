@@ -55,6 +55,17 @@ public interface IndividualCustomerService {
       */
      IndividualCustomer getIndividualCustomerDetailsById(UUID id, User user);
 
+     /**
+      * Returns the current version of a individual customer after verifying that the user is associated with it, without
+      * loading the customer.
+      *
+      * @param id The UUID of the individual customer
+      * @param user The user requesting the individual customer details
+      * @return The version of the individual customer
+      * @throws AccessDeniedException If the user is not associated with the individual customer
+      */
+     Long findVersionByIdAndUser(UUID id, User user);
+
      /**
       * Updates individual customer details based on the provided request.
       * <p>
@@ -55,6 +55,17 @@ public interface NonProfitOrgService {
      */
     NonProfitOrg getNonProfitOrgDetailsResponseModelById(UUID id, User user);
 
+    /**
+     * Returns the current version of a non-profit organization after verifying that the user is associated with it, without
+     * loading the organization.
+     *
+     * @param id The UUID of the non-profit organization
+     * @param user The user requesting the non-profit organization details
+     * @return The version of the non-profit organization
+     * @throws AccessDeniedException If the user is not associated with the non-profit organization
+     */
+    Long findVersionByIdAndUser(UUID id, User user);
+
     /**
      * Updates non-profit organization details based on the provided request.
      * <p>
@@ -0,0 +1,65 @@
+package com.example.cleaning_service.customers.services.impl;
+
+import com.example.cleaning_service.customers.dto.accounts.AccountExportRow;
+import com.example.cleaning_service.customers.enums.EFileFormat;
+import com.example.cleaning_service.customers.repositories.AccountExportRepository;
+import com.example.cleaning_service.customers.services.AccountExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+@Service
+class AccountExportServiceImpl implements AccountExportService {
+    private static final Logger log = LoggerFactory.getLogger(AccountExportServiceImpl.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final AccountExportRepository accountExportRepository;
+    private final ObjectWriter rowWriter;
+
+    AccountExportServiceImpl(AccountExportRepository accountExportRepository, ObjectMapper objectMapper) {
+        this.accountExportRepository = accountExportRepository;
+        this.rowWriter = objectMapper.writerFor(AccountExportRow.class);
+    }
+
+    /**
+     * Runs in one read-only transaction, which the database cursor needs; the buffer is flushed to {@code output}
+     * whenever it fills, so the response is streamed while the cursor advances.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAccounts(EFileFormat format, OutputStream output) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+        CsvRecordWriter csv = new CsvRecordWriter(writer);
+        long[] count = {0};
+        try {
+            if (format == EFileFormat.CSV) {
+                csv.write(AccountExportRow.COLUMNS);
+            }
+            accountExportRepository.forEach(row -> {
+                try {
+                    if (format == EFileFormat.CSV) {
+                        csv.write(row.values());
+                    } else {
+                        writer.write(rowWriter.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("Account export aborted after {} rows: {}", count[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+        writer.flush();
+        log.info("Exported {} accounts as {}", count[0], format);
+        return count[0];
+    }
+}
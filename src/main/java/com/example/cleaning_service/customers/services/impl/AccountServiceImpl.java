@@ -1,9 +1,12 @@
 package com.example.cleaning_service.customers.services.impl;
 
+import com.example.cleaning_service.commons.KeysetCursor;
+import com.example.cleaning_service.commons.KeysetPage;
+import com.example.cleaning_service.commons.KeysetRequest;
+import com.example.cleaning_service.customers.dto.accounts.AccountAccess;
 import com.example.cleaning_service.customers.dto.accounts.AccountRequest;
 import com.example.cleaning_service.customers.dto.accounts.AccountUpdateRequest;
 import com.example.cleaning_service.customers.entities.*;
-import com.example.cleaning_service.customers.enums.EAssociationType;
 import com.example.cleaning_service.customers.repositories.AccountRepository;
 import com.example.cleaning_service.customers.services.AccountService;
 import com.example.cleaning_service.security.entities.user.User;
@@ -16,8 +19,13 @@ import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -32,6 +40,7 @@ import java.util.UUID;
 class AccountServiceImpl implements AccountService {
 
     private static final Logger log = LoggerFactory.getLogger(AccountServiceImpl.class);
+    private static final String ACCOUNT_ACCESS_ATTRIBUTE = AccountServiceImpl.class.getName() + ".accountAccess";
     private final AccountRepository accountRepository;
 
     AccountServiceImpl(AccountRepository accountRepository) {
@@ -60,17 +69,63 @@ class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
+    public AccountAccess findAccountAccessByUser(User user) {
+        return findAccountAccess(user)
+                .orElseThrow(() -> new EntityNotFoundException("User " + user.getUsername() + "'s account not found"));
+    }
+
+    /**
+     * Looks the access up in the current request first. Outside of an HTTP request, for example in event listeners,
+     * every call queries the database.
+     */
+    Optional<AccountAccess> findAccountAccess(User user) {
+        Map<UUID, AccountAccess> cache = requestAccountAccessCache();
+        AccountAccess cached = cache != null ? cache.get(user.getId()) : null;
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<AccountAccess> accountAccess = accountRepository.findAccessByUserId(user.getId())
+                .map(view -> new AccountAccess(view.getAccountId(), view.getCustomerId(), view.getCustomerType(),
+                        view.getCustomerVersion(), view.getAssociationType(), view.getIsPrimary()));
+        if (cache != null) {
+            accountAccess.ifPresent(access -> cache.put(user.getId(), access));
+        }
+        return accountAccess;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<UUID, AccountAccess> requestAccountAccessCache() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object cache = attributes.getAttribute(ACCOUNT_ACCESS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null) {
+            cache = new HashMap<UUID, AccountAccess>();
+            attributes.setAttribute(ACCOUNT_ACCESS_ATTRIBUTE, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<UUID, AccountAccess>) cache;
+    }
+
+    private static void evictAccountAccess() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(ACCOUNT_ACCESS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public void checkAccountReferenceCustomer(User user) {
-        Account account = accountRepository.findByUser(user)
-                .orElse(null);
-        if (account == null) {return;}
-        log.info("Attempting to check account reference a customer: {}", account);
-        if (account.getCustomer() != null) {
-            throw new EntityExistsException("Account with ID: " + account.getId() +
-                    " already references a Customer with ID: " + account.getCustomer().getId());
+        AccountAccess accountAccess = findAccountAccess(user).orElse(null);
+        if (accountAccess == null) {return;}
+        log.info("Attempting to check account reference a customer: {}", accountAccess);
+        if (accountAccess.hasCustomer()) {
+            throw new EntityExistsException("Account with ID: " + accountAccess.accountId() +
+                    " already references a Customer with ID: " + accountAccess.customerId());
         }
-        log.info("Account with ID: {} does not reference a Customer", account.getId());
+        log.info("Account with ID: {} does not reference a Customer", accountAccess.accountId());
     }
 
     /**
@@ -104,6 +159,7 @@ class AccountServiceImpl implements AccountService {
         if (accountRequest.associationType() != null) {
             account.setAssociationType(accountRequest.associationType());
         }
+        evictAccountAccess();
         return saveAccount(account);
     }
 
@@ -112,6 +168,7 @@ class AccountServiceImpl implements AccountService {
     public void detachCustomerFromAccount(@NotNull AbstractCustomer abstractCustomer) {
         List<Account> accounts = findAllByCustomer(abstractCustomer);
         accounts.forEach(accountAssociation -> accountAssociation.setCustomer(null));
+        evictAccountAccess();
         accountRepository.saveAll(accounts);
     }
 
@@ -129,11 +186,6 @@ class AccountServiceImpl implements AccountService {
         return account;
     }
 
-    @Transactional
-    public boolean isRepresentativeAssociationType(Account account) {
-        return account.getAssociationType().equals(EAssociationType.REPRESENTATIVE);
-    }
-
     @Override
     @Transactional
     public Account patchAccountDetailsById(UUID id, AccountUpdateRequest accountUpdateRequest) {
@@ -162,6 +214,7 @@ class AccountServiceImpl implements AccountService {
         if (accountUpdateRequest.eAssociationType() != null) {
             account.setAssociationType(accountUpdateRequest.eAssociationType());
         }
+        evictAccountAccess();
         return saveAccount(account);
     }
 
@@ -171,4 +224,27 @@ class AccountServiceImpl implements AccountService {
         return accountRepository.findWithCustomerById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Account with id " + id + " not found"));
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Account> findPage(KeysetRequest request) {
+        KeysetCursor after = request.after();
+        KeysetCursor before = request.before();
+        List<UUID> ids;
+        if (before != null) {
+            ids = accountRepository.findIdsBefore(before.position(), before.id(), request.limit());
+        } else if (after != null) {
+            ids = accountRepository.findIdsAfter(after.position(), after.id(), request.limit());
+        } else {
+            ids = accountRepository.findFirstIds(request.limit());
+        }
+        List<Account> accounts = KeysetPage.inOrder(ids, accountRepository.findWithUserAndCustomerByIdIn(ids), Account::getId);
+        return KeysetPage.of(accounts, request, account -> KeysetCursor.of(account.getCreatedAt(), account.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long estimateCount() {
+        return accountRepository.estimateCount();
+    }
 }
@@ -1,13 +1,14 @@
 package com.example.cleaning_service.customers.services.impl;
 
 import com.example.cleaning_service.commons.BusinessEntityService;
+import com.example.cleaning_service.commons.RepresentationCache;
+import com.example.cleaning_service.customers.dto.accounts.AccountAccess;
 import com.example.cleaning_service.customers.dto.accounts.AccountRequest;
 import com.example.cleaning_service.customers.dto.companies.CompanyRequest;
 import com.example.cleaning_service.customers.dto.companies.CompanyUpdateRequest;
-import com.example.cleaning_service.customers.entities.AbstractCustomer;
-import com.example.cleaning_service.customers.entities.Account;
 import com.example.cleaning_service.customers.entities.Company;
 import com.example.cleaning_service.customers.enums.EAssociationType;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
 import com.example.cleaning_service.customers.events.CustomerCreationEvent;
 import com.example.cleaning_service.customers.mappers.CompanyMapper;
 import com.example.cleaning_service.customers.repositories.CompanyRepository;
@@ -44,6 +45,7 @@ class CompanyServiceImpl implements CompanyService {
     private final CustomerService customerService;
     private final CompanyMapper companyMapper;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final RepresentationCache representationCache;
 
     /**
      * Constructs a new CompanyServiceImpl with all required dependencies.
@@ -56,6 +58,7 @@ class CompanyServiceImpl implements CompanyService {
      * @param customerService Service for general customer operations
 
      * @param companyMapper Mapper for company entities and DTOs
+     * @param representationCache Cache of the serialized company details
      */
     CompanyServiceImpl(
             CompanyRepository companyRepository,
@@ -65,7 +68,8 @@ class CompanyServiceImpl implements CompanyService {
             OrganizationDetailsService organizationDetailsService,
             CustomerService customerService,
             CompanyMapper companyMapper,
-            ApplicationEventPublisher applicationEventPublisher) {
+            ApplicationEventPublisher applicationEventPublisher,
+            RepresentationCache representationCache) {
 
         this.companyRepository = companyRepository;
         this.accountService = accountService;
@@ -75,18 +79,14 @@ class CompanyServiceImpl implements CompanyService {
         this.customerService = customerService;
         this.companyMapper = companyMapper;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.representationCache = representationCache;
     }
 
     @Override
     @Transactional
     public Company createCompany(@Valid CompanyRequest companyRequest, User user) {
         log.info("Check duplicated fields");
-        customerService.checkDuplicatedFields(
-                companyRequest,
-                companyRepository::existsByTaxId,
-                companyRepository::existsByRegistrationNumber,
-                companyRepository::existsByEmail
-        );
+        customerService.checkDuplicatedFields(companyRequest);
 
         log.info("Attempting to create a company for user: {}", user.getUsername());
         accountService.checkAccountReferenceCustomer(user);
@@ -131,9 +131,9 @@ class CompanyServiceImpl implements CompanyService {
      * <p>
      * This method performs the following operations:
      * <ol>
-     * <li>Retrieves the user's account and associated customer</li>
+     * <li>Retrieves the {@link AccountAccess} of the user's account</li>
      * <li>Checks if the user is associated with the requested company through their account</li>
-     * <li>Returns the company if the user has proper access</li>
+     * <li>Loads the company if the user has proper access</li>
      * </ol>
      *
      * @param id The UUID of the company to retrieve
@@ -145,13 +145,28 @@ class CompanyServiceImpl implements CompanyService {
     @Transactional
     public Company findByIdAndUser(UUID id, User user) {
         log.info("Fetching company with ID: {} for user: {}", id, user.getUsername());
-        AbstractCustomer abstractCustomer = accountService.findAccountWithCustomerByUser(user).getCustomer();
-        if (isNotValidReferenceAbstractCustomer(id, abstractCustomer)) {
+        findAccessToRead(id, user);
+        return findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long findVersionByIdAndUser(UUID id, User user) {
+        return findAccessToRead(id, user).customerVersion();
+    }
+
+    /**
+     * Returns the {@link AccountAccess} of the user's account after checking that it references the company.
+     *
+     * @throws AccessDeniedException If the user is not associated with the requested company
+     */
+    AccountAccess findAccessToRead(UUID id, User user) {
+        AccountAccess accountAccess = accountService.findAccountAccessByUser(user);
+        if (isNotValidReference(id, accountAccess)) {
             throw new AccessDeniedException("User " + user.getUsername() + " is not associated with the company with id "
                     + id);
         }
-
-        return (Company) abstractCustomer;
+        return accountAccess;
     }
 
     @Override
@@ -159,8 +174,10 @@ class CompanyServiceImpl implements CompanyService {
     public Company updateCompanyDetailsById(UUID id, @Valid CompanyUpdateRequest updateRequest, User user) {
         log.info("Updating company details for ID: {} by user: {}", id, user.getUsername());
         Company company = findCompanyToChange(id, user);
+        Long version = company.getVersion();
         updateCompanyFields(company, updateRequest);
         Company updatedCompany = saveCompany(company);
+        representationCache.evict(EOrganizationType.COMPANY.name(), id, version);
         log.info("Successfully updated company with ID: {}", updatedCompany.getId());
         return updatedCompany;
     }
@@ -205,6 +222,7 @@ class CompanyServiceImpl implements CompanyService {
         accountService.detachCustomerFromAccount(dbCompany);
 
         companyRepository.delete(dbCompany);
+        representationCache.evict(EOrganizationType.COMPANY.name(), id, dbCompany.getVersion());
         log.info("Successfully deleted company with ID: {}", id);
     }
 
@@ -213,7 +231,7 @@ class CompanyServiceImpl implements CompanyService {
      * <p>
      * This method performs the following operations:
      * <ol>
-     * <li>Retrieves the user's account and associated customer</li>
+     * <li>Retrieves the {@link AccountAccess} of the user's account</li>
      * <li>Verifies if the user has the required permission level</li>
      * <li>Checks if the user's account is properly associated with the requested company</li>
      * </ol>
@@ -226,35 +244,35 @@ class CompanyServiceImpl implements CompanyService {
      */
     @Transactional
     Company findCompanyToChange(UUID id, User user) {
-        Account account = accountService.findAccountWithCustomerByUser(user);
+        AccountAccess accountAccess = accountService.findAccountAccessByUser(user);
 
-        if (accountService.isRepresentativeAssociationType(account)) {
+        if (accountAccess.isRepresentative()) {
             throw new AccessDeniedException("User " + user.getUsername() + " does not have permission to the " +
                     "company with id " + id);
         }
 
-        if (isNotValidReferenceAbstractCustomer(id, account.getCustomer())) {
+        if (isNotValidReference(id, accountAccess)) {
             throw new IllegalStateException("Account does not reference a valid company.");
         }
-        return (Company) account.getCustomer();
+        return findById(id);
     }
 
     /**
-     * Checks if the provided customer is not a valid reference to the company with the given ID.
+     * Checks if the account is not a valid reference to the company with the given ID.
      * <p>
      * This method verifies that:
      * <ol>
-     * <li>The customer's ID matches the provided ID</li>
-     * <li>The customer is an instance of Company</li>
+     * <li>The referenced customer's ID matches the provided ID</li>
+     * <li>The referenced customer is a Company</li>
      * </ol>
      *
      * @param id The UUID to compare against the customer's ID
-     * @param abstractCustomer The customer to validate
+     * @param accountAccess The {@link AccountAccess} of the user's account
      * @return {@code true} if the customer is not a valid reference to the company, {@code false} otherwise
      */
     @Transactional
-    boolean isNotValidReferenceAbstractCustomer(UUID id, AbstractCustomer abstractCustomer) {
-        return abstractCustomer == null || !abstractCustomer.getId().equals(id) || !(abstractCustomer instanceof Company);
+    boolean isNotValidReference(UUID id, AccountAccess accountAccess) {
+        return !accountAccess.references(id, EOrganizationType.COMPANY);
     }
 
     /**
@@ -0,0 +1,101 @@
+package com.example.cleaning_service.customers.services.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 records one at a time: comma-separated fields, optionally enclosed in double quotes, where quoted
+ * fields may contain commas, line breaks and doubled quotes. Blank lines are skipped.
+ */
+class CsvRecordReader {
+    private final Reader reader;
+    private long line = 1;
+    private long recordLine;
+    private int pending = -2;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * @return The fields of the next record, or {@code null} at the end of the input.
+     * @throws IllegalArgumentException if a quoted field is not closed before the end of the input.
+     */
+    List<String> next() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = skipLineBreak(c);
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Unterminated quoted field in record starting on line " + recordLine);
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                fields.add(field.toString());
+                if (c != -1) {
+                    pending = skipLineBreak(c);
+                }
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * @return The 1-based line on which the record last returned by {@link #next()} starts.
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    // Consumes a line break, treating \r\n as one, and returns the character after it
+    private int skipLineBreak(int c) throws IOException {
+        line++;
+        int next = read();
+        if (c == '\r' && next == '\n') {
+            next = read();
+        }
+        return next;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
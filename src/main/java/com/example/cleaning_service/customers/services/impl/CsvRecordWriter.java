@@ -0,0 +1,48 @@
+package com.example.cleaning_service.customers.services.impl;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes RFC 4180 records, the counterpart of {@link CsvRecordReader}. Fields containing commas, quotes or line
+ * breaks are quoted, {@code null} is written as an empty field, and records end with {@code \r\n}.
+ */
+class CsvRecordWriter {
+    private final Writer writer;
+
+    CsvRecordWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    void write(List<?> fields) throws IOException {
+        write(fields.toArray());
+    }
+
+    void write(Object[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (fields[i] != null) {
+                writeField(fields[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String field) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        writer.write(field.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
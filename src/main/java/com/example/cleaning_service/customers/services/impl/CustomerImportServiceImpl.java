@@ -0,0 +1,478 @@
+package com.example.cleaning_service.customers.services.impl;
+
+import com.example.cleaning_service.commons.BoundedThreadPool;
+import com.example.cleaning_service.customers.dto.DuplicatedValidatable;
+import com.example.cleaning_service.customers.dto.companies.CompanyRequest;
+import com.example.cleaning_service.customers.dto.governments.GovernmentRequest;
+import com.example.cleaning_service.customers.dto.imports.CustomerImportResult;
+import com.example.cleaning_service.customers.dto.individuals.IndividualCustomerRequest;
+import com.example.cleaning_service.customers.dto.non_profit_org.NonProfitOrgRequest;
+import com.example.cleaning_service.customers.entities.AbstractCustomer;
+import com.example.cleaning_service.customers.entities.IOrganization;
+import com.example.cleaning_service.customers.enums.EFileFormat;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
+import com.example.cleaning_service.customers.events.CustomersImportedEvent;
+import com.example.cleaning_service.customers.mappers.CompanyMapper;
+import com.example.cleaning_service.customers.mappers.GovernmentMapper;
+import com.example.cleaning_service.customers.mappers.IndividualCustomerMapper;
+import com.example.cleaning_service.customers.mappers.NonProfitOrgMapper;
+import com.example.cleaning_service.customers.repositories.AccountRepository;
+import com.example.cleaning_service.customers.repositories.AccountRepository.ImportOwner;
+import com.example.cleaning_service.customers.repositories.CustomerBatchRepository;
+import com.example.cleaning_service.customers.repositories.CustomerBatchRepository.AccountLink;
+import com.example.cleaning_service.customers.repositories.CustomerDetailsRepository;
+import com.example.cleaning_service.customers.repositories.CustomerDetailsRepository.ExistingIdentifier;
+import com.example.cleaning_service.customers.services.CustomerImportService;
+import com.example.cleaning_service.customers.services.OrganizationDetailsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Imports customers in chunks. Rows of a chunk are parsed, validated and mapped in parallel on a dedicated pool,
+ * checked for duplicates within the chunk and against {@code customer_details} with one query, and inserted with one
+ * JDBC batch per table. The owners of the rows are looked up with one more query, and their accounts are linked to
+ * the new customers in the same transaction. Earlier chunks are committed before the next one is checked, so
+ * duplicates across chunks are caught by the query. If a batch fails, e.g. because a tax ID was taken concurrently,
+ * the chunk is retried row by row so that only the offending rows are rejected.
+ */
+@Service
+class CustomerImportServiceImpl implements CustomerImportService {
+    private static final Logger log = LoggerFactory.getLogger(CustomerImportServiceImpl.class);
+    private static final String TYPE_FIELD = "type";
+    private static final String OWNER_FIELD = "owner";
+    private static final String PREFERRED_DAYS_FIELD = "preferredDays";
+    private static final Map<String, String> DUPLICATE_MESSAGES = Map.of(
+            "TAX_ID", "Entity with this tax ID already exists",
+            "REGISTRATION_NUMBER", "Entity with this registration number already exists",
+            "EMAIL", "Entity with this email already exists");
+
+    private final CustomerDetailsRepository customerDetailsRepository;
+    private final CustomerBatchRepository customerBatchRepository;
+    private final AccountRepository accountRepository;
+    private final OrganizationDetailsService organizationDetailsService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final CompanyMapper companyMapper;
+    private final GovernmentMapper governmentMapper;
+    private final IndividualCustomerMapper individualCustomerMapper;
+    private final NonProfitOrgMapper nonProfitOrgMapper;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedThreadPool validationPool;
+    private final int chunkSize;
+    private final Counter createdCounter;
+    private final Counter rejectedCounter;
+
+    CustomerImportServiceImpl(CustomerDetailsRepository customerDetailsRepository,
+                              CustomerBatchRepository customerBatchRepository,
+                              AccountRepository accountRepository,
+                              OrganizationDetailsService organizationDetailsService,
+                              ApplicationEventPublisher applicationEventPublisher,
+                              CompanyMapper companyMapper,
+                              GovernmentMapper governmentMapper,
+                              IndividualCustomerMapper individualCustomerMapper,
+                              NonProfitOrgMapper nonProfitOrgMapper,
+                              ObjectMapper objectMapper,
+                              Validator validator,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${customers.import.validation-threads:0}") int validationThreads,
+                              @Value("${customers.import.chunk-size:1000}") int chunkSize) {
+        this.customerDetailsRepository = customerDetailsRepository;
+        this.customerBatchRepository = customerBatchRepository;
+        this.accountRepository = accountRepository;
+        this.organizationDetailsService = organizationDetailsService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.companyMapper = companyMapper;
+        this.governmentMapper = governmentMapper;
+        this.individualCustomerMapper = individualCustomerMapper;
+        this.nonProfitOrgMapper = nonProfitOrgMapper;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+
+        // A thread count of 0 means half of the available processors, leaving the rest to regular requests
+        int threads = validationThreads > 0 ? validationThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        // Room for one chunk; rows of concurrent imports beyond that are validated on the importing thread
+        this.validationPool = new BoundedThreadPool("customer-import-validation", "customer-import", threads,
+                chunkSize, new ThreadPoolExecutor.CallerRunsPolicy(), meterRegistry);
+        this.createdCounter = Counter.builder("customers.import.rows").tag("outcome", "created")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("customers.import.rows").tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A row as read from the input: either its fields or the reason it could not be read.
+     */
+    private record RawRow(long line, ObjectNode fields, String error) {
+    }
+
+    /**
+     * A row after validation: either a customer ready to insert or the reason it was rejected. The ID of the owner is
+     * only known once the row is accepted.
+     */
+    private record Row(long line, EOrganizationType type, AbstractCustomer customer, Map<String, String> identifiers,
+                       String owner, UUID ownerId, String rejection) {
+        static Row rejected(long line, EOrganizationType type, String rejection) {
+            return new Row(line, type, null, Map.of(), null, null, rejection);
+        }
+
+        Row withOwnerId(UUID ownerId) {
+            return new Row(line, type, customer, identifiers, owner, ownerId, null);
+        }
+    }
+
+    private interface RowSource {
+        RawRow next() throws IOException;
+    }
+
+    @Override
+    public void importCustomers(InputStream input, EFileFormat format, String importedBy,
+                                Consumer<List<CustomerImportResult>> results) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        RowSource source = format == EFileFormat.CSV ? csvSource(reader) : ndjsonSource(reader);
+
+        List<RawRow> chunk = new ArrayList<>(chunkSize);
+        long received = 0;
+        long created = 0;
+        RawRow row;
+        while ((row = source.next()) != null) {
+            received++;
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                created += importChunk(chunk, importedBy, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += importChunk(chunk, importedBy, results);
+        }
+        log.info("Imported {} of {} customers for {}", created, received, importedBy);
+    }
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        long[] lineNumber = {0};
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    return node instanceof ObjectNode fields
+                            ? new RawRow(lineNumber[0], fields, null)
+                            : new RawRow(lineNumber[0], null, "Expected a JSON object");
+                } catch (JsonProcessingException e) {
+                    return new RawRow(lineNumber[0], null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private RowSource csvSource(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return () -> null;
+        }
+        List<String> columns = header.stream().map(String::trim).toList();
+        boolean[] failed = {false};
+        return () -> {
+            if (failed[0]) {
+                return null;
+            }
+            List<String> values;
+            try {
+                values = csv.next();
+            } catch (IllegalArgumentException e) {
+                // Everything after an unterminated quote belongs to the broken field, so the rest cannot be read
+                failed[0] = true;
+                return new RawRow(csv.recordLine(), null, e.getMessage());
+            }
+            if (values == null) {
+                return null;
+            }
+            if (values.size() != columns.size()) {
+                return new RawRow(csv.recordLine(), null,
+                        "Expected " + columns.size() + " fields but found " + values.size());
+            }
+            ObjectNode fields = objectMapper.createObjectNode();
+            for (int i = 0; i < columns.size(); i++) {
+                String value = values.get(i).trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                if (PREFERRED_DAYS_FIELD.equals(columns.get(i))) {
+                    ArrayNode days = fields.putArray(PREFERRED_DAYS_FIELD);
+                    Arrays.stream(value.split(";")).map(String::trim).filter(day -> !day.isEmpty()).forEach(days::add);
+                } else {
+                    fields.put(columns.get(i), value);
+                }
+            }
+            return new RawRow(csv.recordLine(), fields, null);
+        };
+    }
+
+    private int importChunk(List<RawRow> rawRows, String importedBy, Consumer<List<CustomerImportResult>> results) {
+        List<Future<Row>> futures = new ArrayList<>(rawRows.size());
+        for (RawRow rawRow : rawRows) {
+            futures.add(validationPool.submit(() -> prepare(rawRow)));
+        }
+        List<Row> rows = new ArrayList<>(rawRows.size());
+        futures.forEach(future -> rows.add(await(future)));
+
+        List<Row> accepted = rejectConflicts(rows);
+        Map<Long, CustomerImportResult> outcomes = new HashMap<>();
+        rows.stream()
+                .filter(row -> row.rejection() != null)
+                .forEach(row -> outcomes.put(row.line(), CustomerImportResult.rejected(row.line(), row.type(), row.rejection())));
+        insert(accepted, importedBy, outcomes);
+
+        List<CustomerImportResult> chunkResults = new ArrayList<>(outcomes.values());
+        chunkResults.sort(Comparator.comparingLong(CustomerImportResult::line));
+        long created = chunkResults.stream().filter(result -> result.status() == CustomerImportResult.Status.CREATED).count();
+        createdCounter.increment(created);
+        rejectedCounter.increment(chunkResults.size() - created);
+        results.accept(chunkResults);
+        return (int) created;
+    }
+
+    private Row prepare(RawRow rawRow) {
+        if (rawRow.error() != null) {
+            return Row.rejected(rawRow.line(), null, rawRow.error());
+        }
+        ObjectNode fields = rawRow.fields();
+        JsonNode typeNode = fields.remove(TYPE_FIELD);
+        if (typeNode == null || !typeNode.isTextual()) {
+            return Row.rejected(rawRow.line(), null, "Missing type, expected one of " + Arrays.toString(EOrganizationType.values()));
+        }
+        EOrganizationType type;
+        try {
+            type = EOrganizationType.valueOf(typeNode.asText().trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return Row.rejected(rawRow.line(), null, "Unknown type " + typeNode.asText() + ", expected one of "
+                    + Arrays.toString(EOrganizationType.values()));
+        }
+        JsonNode ownerNode = fields.remove(OWNER_FIELD);
+        if (ownerNode == null || !ownerNode.isTextual() || ownerNode.asText().isBlank()) {
+            return Row.rejected(rawRow.line(), type, "Missing owner, expected the username of an existing user");
+        }
+        String owner = ownerNode.asText().trim();
+
+        return switch (type) {
+            case COMPANY -> prepare(rawRow.line(), type, owner, fields, CompanyRequest.class,
+                    companyMapper::fromCompanyRequestToCompany);
+            case GOVERNMENT -> prepare(rawRow.line(), type, owner, fields, GovernmentRequest.class,
+                    governmentMapper::fromGovernmentRequestToGovernment);
+            case INDIVIDUAL -> prepare(rawRow.line(), type, owner, fields, IndividualCustomerRequest.class,
+                    individualCustomerMapper::fromRequestToCustomer);
+            case NON_PROFIT -> prepare(rawRow.line(), type, owner, fields, NonProfitOrgRequest.class,
+                    nonProfitOrgMapper::fromRequestToNonProfitOrg);
+        };
+    }
+
+    private <T extends DuplicatedValidatable> Row prepare(long line, EOrganizationType type, String owner,
+                                                          ObjectNode fields, Class<T> requestType,
+                                                          Function<T, ? extends AbstractCustomer> mapper) {
+        T request;
+        try {
+            request = objectMapper.treeToValue(fields, requestType);
+        } catch (JsonProcessingException e) {
+            return Row.rejected(line, type, "Invalid field: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<T>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            StringJoiner reason = new StringJoiner("; ");
+            violations.forEach(violation -> reason.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+            return Row.rejected(line, type, reason.toString());
+        }
+
+        AbstractCustomer customer;
+        try {
+            customer = mapper.apply(request);
+        } catch (RuntimeException e) {
+            return Row.rejected(line, type, "Invalid row: " + e.getMessage());
+        }
+        Map<String, String> identifiers = new HashMap<>();
+        putIfNotNull(identifiers, "TAX_ID", CustomerServiceImpl.normalizeIdentifier(request.taxId()));
+        putIfNotNull(identifiers, "REGISTRATION_NUMBER", CustomerServiceImpl.normalizeIdentifier(request.registrationNumber()));
+        putIfNotNull(identifiers, "EMAIL", CustomerServiceImpl.normalizeEmail(request.email()));
+        return new Row(line, type, customer, identifiers, owner, null, null);
+    }
+
+    /**
+     * Replaces rows that cannot be created with rejections and returns the remaining valid rows with the IDs of their
+     * owners. A row is rejected if one of its identifiers belongs to an existing customer or repeats an accepted row
+     * of the chunk, or if its owner is unknown, already has a customer or already owns an accepted row of the chunk.
+     */
+    private List<Row> rejectConflicts(List<Row> rows) {
+        Map<String, Set<String>> requested = new HashMap<>();
+        DUPLICATE_MESSAGES.keySet().forEach(field -> requested.put(field, new HashSet<>()));
+        Set<String> owners = new HashSet<>();
+        for (Row row : rows) {
+            if (row.rejection() == null) {
+                row.identifiers().forEach((field, value) -> requested.get(field).add(value));
+                owners.add(row.owner());
+            }
+        }
+        if (owners.isEmpty()) {
+            return List.of();
+        }
+
+        Set<String> taken = new HashSet<>();
+        if (requested.values().stream().anyMatch(values -> !values.isEmpty())) {
+            List<ExistingIdentifier> existing = customerDetailsRepository.findExistingIdentifiers(
+                    orNeverMatching(requested.get("TAX_ID")),
+                    orNeverMatching(requested.get("REGISTRATION_NUMBER")),
+                    orNeverMatching(requested.get("EMAIL")));
+            existing.forEach(identifier -> taken.add(identifier.getField() + ":" + identifier.getValue()));
+        }
+        Map<String, ImportOwner> knownOwners = new HashMap<>();
+        accountRepository.findImportOwnersByUsernameIn(owners)
+                .forEach(owner -> knownOwners.put(owner.getUsername(), owner));
+
+        // Only accepted rows are recorded, so a rejected row never causes a later one to be rejected
+        Map<String, Long> acceptedLines = new HashMap<>();
+        List<Row> accepted = new ArrayList<>(rows.size());
+        for (ListIterator<Row> iterator = rows.listIterator(); iterator.hasNext(); ) {
+            Row row = iterator.next();
+            if (row.rejection() != null) {
+                continue;
+            }
+            StringJoiner reason = new StringJoiner("; ");
+            row.identifiers().forEach((field, value) -> {
+                String key = field + ":" + value;
+                if (taken.contains(key)) {
+                    reason.add(DUPLICATE_MESSAGES.get(field));
+                } else if (acceptedLines.containsKey(key)) {
+                    reason.add(DUPLICATE_MESSAGES.get(field) + " on line " + acceptedLines.get(key));
+                }
+            });
+            ImportOwner owner = knownOwners.get(row.owner());
+            String ownerKey = OWNER_FIELD + ":" + row.owner();
+            if (owner == null) {
+                reason.add("Unknown owner " + row.owner());
+            } else if (owner.getHasCustomer()) {
+                reason.add("Account of owner " + row.owner() + " already references a customer");
+            } else if (acceptedLines.containsKey(ownerKey)) {
+                reason.add("Owner " + row.owner() + " already receives the customer on line " + acceptedLines.get(ownerKey));
+            }
+
+            if (reason.length() > 0) {
+                iterator.set(Row.rejected(row.line(), row.type(), reason.toString()));
+            } else {
+                row.identifiers().forEach((field, value) -> acceptedLines.put(field + ":" + value, row.line()));
+                acceptedLines.put(ownerKey, row.line());
+                accepted.add(row.withOwnerId(owner.getUserId()));
+            }
+        }
+        return accepted;
+    }
+
+    private void insert(List<Row> rows, String importedBy, Map<Long, CustomerImportResult> outcomes) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<AbstractCustomer> customers = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            row.customer().setId(UUID.randomUUID());
+            customers.add(row.customer());
+        }
+        Instant now = Instant.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertAndLink(rows, customers, now, importedBy));
+            rows.forEach(row -> outcomes.put(row.line(), CustomerImportResult.created(row.line(), row.type(), row.customer().getId())));
+            return;
+        } catch (DataAccessException e) {
+            log.warn("Batch insert of {} customers failed, retrying row by row: {}", customers.size(), e.getMessage());
+        }
+
+        for (Row row : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        insertAndLink(List.of(row), List.of(row.customer()), now, importedBy));
+                outcomes.put(row.line(), CustomerImportResult.created(row.line(), row.type(), row.customer().getId()));
+            } catch (DataAccessException e) {
+                outcomes.put(row.line(), CustomerImportResult.rejected(row.line(), row.type(),
+                        "Insert failed: " + e.getMostSpecificCause().getMessage()));
+            }
+        }
+    }
+
+    /**
+     * Inserts the customers and links them to the accounts of their owners. The owners are granted the customer role
+     * once the transaction commits, as when they create a customer themselves.
+     */
+    private void insertAndLink(List<Row> rows, List<AbstractCustomer> customers, Instant now, String importedBy) {
+        customerBatchRepository.insertAll(customers, now, importedBy);
+        List<AccountLink> links = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            IOrganization organization = (IOrganization) row.customer();
+            links.add(new AccountLink(row.ownerId(), row.customer().getId(),
+                    organizationDetailsService.getIsPrimaryByIOrganization(organization),
+                    organizationDetailsService.getEAssociationTypeByIOrganization(organization)));
+        }
+        customerBatchRepository.linkAccounts(links, now, importedBy);
+        applicationEventPublisher.publishEvent(new CustomersImportedEvent(
+                rows.stream().map(Row::ownerId).toList()));
+    }
+
+    // An empty IN list is not valid SQL; the empty string never matches the normalized expressions
+    private static Collection<String> orNeverMatching(Set<String> values) {
+        return values.isEmpty() ? List.of("") : values;
+    }
+
+    private static void putIfNotNull(Map<String, String> map, String key, String value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private static Row await(Future<Row> row) {
+        try {
+            return row.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while validating customers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Customer validation failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        validationPool.close();
+    }
+}
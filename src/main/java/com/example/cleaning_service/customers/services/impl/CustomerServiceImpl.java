@@ -1,37 +1,51 @@
 package com.example.cleaning_service.customers.services.impl;
 
 import com.example.cleaning_service.customers.dto.DuplicatedValidatable;
+import com.example.cleaning_service.customers.repositories.CustomerDetailsRepository;
+import com.example.cleaning_service.customers.repositories.CustomerDetailsRepository.DuplicateFields;
 import com.example.cleaning_service.customers.services.CustomerService;
 import com.example.cleaning_service.exceptions.DuplicateFieldsException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.regex.Pattern;
 
 @Service
 class CustomerServiceImpl implements CustomerService {
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^A-Za-z0-9]");
 
-    @Transactional
+    private final CustomerDetailsRepository customerDetailsRepository;
+
+    CustomerServiceImpl(CustomerDetailsRepository customerDetailsRepository) {
+        this.customerDetailsRepository = customerDetailsRepository;
+    }
+
+    /**
+     * Rejects the request if its tax ID, registration number or email is already used by a customer of any type.
+     * Tax IDs and registration numbers are compared without separators and case, emails without case.
+     */
+    @Transactional(readOnly = true)
     @Override
-    public <T extends DuplicatedValidatable> void checkDuplicatedFields(
-            T request,
-            Function<String, Boolean> taxIdChecker,
-            Function<String, Boolean> registrationNumberChecker,
-            Function<String, Boolean> emailChecker) {
+    public <T extends DuplicatedValidatable> void checkDuplicatedFields(T request) {
+        DuplicateFields duplicates = customerDetailsRepository.findDuplicateFields(
+                normalizeIdentifier(request.taxId()),
+                normalizeIdentifier(request.registrationNumber()),
+                normalizeEmail(request.email()));
 
         Map<String, String> duplicateFields = new HashMap<>();
 
-        if (taxIdChecker.apply(request.taxId())) {
+        if (Boolean.TRUE.equals(duplicates.getTaxId())) {
             duplicateFields.put("taxId", "Entity with this tax ID already exists");
         }
 
-        if (registrationNumberChecker.apply(request.registrationNumber())) {
+        if (Boolean.TRUE.equals(duplicates.getRegistrationNumber())) {
             duplicateFields.put("registrationNumber", "Entity with this registration number already exists");
         }
 
-        if (emailChecker.apply(request.email())) {
+        if (Boolean.TRUE.equals(duplicates.getEmail())) {
             duplicateFields.put("email", "Entity with this email already exists");
         }
 
@@ -39,5 +53,16 @@ class CustomerServiceImpl implements CustomerService {
             throw new DuplicateFieldsException(duplicateFields);
         }
     }
-}
 
+    static String normalizeIdentifier(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = NON_ALPHANUMERIC.matcher(value).replaceAll("").toUpperCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    static String normalizeEmail(String value) {
+        return value == null || value.isBlank() ? null : value.toLowerCase(Locale.ROOT);
+    }
+}
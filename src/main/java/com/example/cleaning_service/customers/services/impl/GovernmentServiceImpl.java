@@ -1,13 +1,14 @@
 package com.example.cleaning_service.customers.services.impl;
 
 import com.example.cleaning_service.commons.BusinessEntityService;
+import com.example.cleaning_service.commons.RepresentationCache;
+import com.example.cleaning_service.customers.dto.accounts.AccountAccess;
 import com.example.cleaning_service.customers.dto.accounts.AccountRequest;
 import com.example.cleaning_service.customers.dto.governments.GovernmentRequest;
 import com.example.cleaning_service.customers.dto.governments.GovernmentUpdateRequest;
-import com.example.cleaning_service.customers.entities.AbstractCustomer;
-import com.example.cleaning_service.customers.entities.Account;
 import com.example.cleaning_service.customers.entities.Government;
 import com.example.cleaning_service.customers.enums.EAssociationType;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
 import com.example.cleaning_service.customers.events.CustomerCreationEvent;
 import com.example.cleaning_service.customers.mappers.GovernmentMapper;
 import com.example.cleaning_service.customers.repositories.GovernmentRepository;
@@ -41,6 +42,7 @@ class GovernmentServiceImpl implements GovernmentService {
     private final CustomerService customerService;
     private final GovernmentMapper governmentMapper;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final RepresentationCache representationCache;
 
     GovernmentServiceImpl(
             GovernmentRepository governmentRepository,
@@ -51,7 +53,8 @@ class GovernmentServiceImpl implements GovernmentService {
             CustomerService customerService,
 
             GovernmentMapper governmentMapper,
-            ApplicationEventPublisher applicationEventPublisher) {
+            ApplicationEventPublisher applicationEventPublisher,
+            RepresentationCache representationCache) {
 
         this.governmentRepository = governmentRepository;
 
@@ -63,18 +66,14 @@ class GovernmentServiceImpl implements GovernmentService {
 
         this.governmentMapper = governmentMapper;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.representationCache = representationCache;
     }
 
     @Override
     @Transactional
     public Government createGovernment(@Valid GovernmentRequest governmentRequest, User user) {
         log.info("Check duplicated fields");
-        customerService.checkDuplicatedFields(
-                governmentRequest,
-                governmentRepository::existsByTaxId,
-                governmentRepository::existsByRegistrationNumber,
-                governmentRepository::existsByEmail
-        );
+        customerService.checkDuplicatedFields(governmentRequest);
 
         log.info("Attempting to create a government for user: {}", user.getUsername());
         accountService.checkAccountReferenceCustomer(user);
@@ -120,9 +119,10 @@ class GovernmentServiceImpl implements GovernmentService {
      * Retrieves a government entity by its ID while verifying that the requesting user has access to it.
      * <p>
      * This method performs the following operations:
-     * 1. Retrieves the government entity using the provided ID.
+     * 1. Retrieves the {@link AccountAccess} of the user's account.
      * 2. Checks if the user is associated with the government entity through an account association.
-     * 3. If the user lacks the required association, throws an {@code IllegalStateException}.
+     * 3. If the user lacks the required association, throws an {@code AccessDeniedException}.
+     * 4. Loads the government entity using the provided ID.
      *
      * @param id The UUID of the government entity to retrieve.
      * @param user The user requesting access to the government entity.
@@ -132,12 +132,28 @@ class GovernmentServiceImpl implements GovernmentService {
      */
     @Transactional
     Government getByIdAndUser(UUID id, User user) {
-        AbstractCustomer abstractCustomer = accountService.findAccountWithCustomerByUser(user).getCustomer();
-        if (isNotValidReferenceAbstractCustomer(id, abstractCustomer)) {
+        findAccessToRead(id, user);
+        return findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long findVersionByIdAndUser(UUID id, User user) {
+        return findAccessToRead(id, user).customerVersion();
+    }
+
+    /**
+     * Returns the {@link AccountAccess} of the user's account after checking that it references the government entity.
+     *
+     * @throws AccessDeniedException If the user does not have the required association.
+     */
+    AccountAccess findAccessToRead(UUID id, User user) {
+        AccountAccess accountAccess = accountService.findAccountAccessByUser(user);
+        if (isNotValidReference(id, accountAccess)) {
             throw new AccessDeniedException("User " + user.getUsername() + " is not associated with a government with id "
             + id);
         }
-        return (Government) abstractCustomer;
+        return accountAccess;
     }
 
     @Override
@@ -145,8 +161,10 @@ class GovernmentServiceImpl implements GovernmentService {
     public Government updateCompanyDetailsById(UUID id, @Valid GovernmentUpdateRequest updateRequest, User user) {
         log.info("Updating government details for ID: {} by user: {}", id, user);
         Government government = findGovernmentToChange(id, user);
+        Long version = government.getVersion();
         updateGovernmentFields(government, updateRequest);
         Government updatedGovernment = saveGovernment(government);
+        representationCache.evict(EOrganizationType.GOVERNMENT.name(), id, version);
         log.info("Successfully updated company with ID: {}", updatedGovernment.getId());
 
         return updatedGovernment;
@@ -194,21 +212,22 @@ class GovernmentServiceImpl implements GovernmentService {
         Government dbGovernment = findGovernmentToChange(id, user);
         accountService.detachCustomerFromAccount(dbGovernment);
         governmentRepository.delete(dbGovernment);
+        representationCache.evict(EOrganizationType.GOVERNMENT.name(), id, dbGovernment.getVersion());
     }
 
     @Transactional
     Government findGovernmentToChange(UUID id, User user) {
-        Account account = accountService.findAccountWithCustomerByUser(user);
+        AccountAccess accountAccess = accountService.findAccountAccessByUser(user);
 
-        if (accountService.isRepresentativeAssociationType(account)) {
+        if (accountAccess.isRepresentative()) {
             throw new AccessDeniedException("User " + user.getUsername() + " does not have permission to the " +
                     "government with id " + id);
         }
 
-        if (isNotValidReferenceAbstractCustomer(id, account.getCustomer())) {
+        if (isNotValidReference(id, accountAccess)) {
             throw new IllegalStateException("Account does not reference a valid government.");
         }
-        return (Government) account.getCustomer();
+        return findById(id);
     }
 
     /**
@@ -228,20 +247,20 @@ class GovernmentServiceImpl implements GovernmentService {
     }
 
     /**
-     * Checks if the provided customer is not a valid reference to the government with the given ID.
+     * Checks if the account is not a valid reference to the government with the given ID.
      * <p>
      * This method verifies that:
      * <ol>
-     * <li>The customer's ID matches the provided ID</li>
-     * <li>The customer is an instance of Government</li>
+     * <li>The referenced customer's ID matches the provided ID</li>
+     * <li>The referenced customer is a Government</li>
      * </ol>
      *
      * @param id The UUID to compare against the customer's ID
-     * @param abstractCustomer The customer to validate
+     * @param accountAccess The {@link AccountAccess} of the user's account
      * @return {@code true} if the customer is not a valid reference to the government, {@code false} otherwise
      */
     @Transactional
-    boolean isNotValidReferenceAbstractCustomer(UUID id, AbstractCustomer abstractCustomer) {
-        return abstractCustomer == null || !abstractCustomer.getId().equals(id) || !(abstractCustomer instanceof Government);
+    boolean isNotValidReference(UUID id, AccountAccess accountAccess) {
+        return !accountAccess.references(id, EOrganizationType.GOVERNMENT);
     }
 }
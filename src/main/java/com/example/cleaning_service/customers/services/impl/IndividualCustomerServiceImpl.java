@@ -1,14 +1,15 @@
 package com.example.cleaning_service.customers.services.impl;
 
 import com.example.cleaning_service.commons.BusinessEntityService;
+import com.example.cleaning_service.commons.RepresentationCache;
 import com.example.cleaning_service.customers.assemblers.individuals.IndividualCustomerDetailsModelAssembler;
+import com.example.cleaning_service.customers.dto.accounts.AccountAccess;
 import com.example.cleaning_service.customers.dto.accounts.AccountRequest;
 import com.example.cleaning_service.customers.dto.individuals.IndividualCustomerRequest;
 import com.example.cleaning_service.customers.dto.individuals.IndividualCustomerUpdateRequest;
-import com.example.cleaning_service.customers.entities.AbstractCustomer;
-import com.example.cleaning_service.customers.entities.Account;
 import com.example.cleaning_service.customers.entities.IndividualCustomer;
 import com.example.cleaning_service.customers.enums.EAssociationType;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
 import com.example.cleaning_service.customers.events.CustomerCreationEvent;
 import com.example.cleaning_service.customers.mappers.IndividualCustomerMapper;
 import com.example.cleaning_service.customers.repositories.IndividualCustomerRepository;
@@ -45,6 +46,7 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
     private final CustomerService customerService;
     private final IndividualCustomerMapper individualCustomerMapper;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final RepresentationCache representationCache;
 
     /**
      * Constructs a new IndividualCustomerServiceImpl with required dependencies.
@@ -56,6 +58,7 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
      * @param organizationDetailsService The service for organization details operations
      * @param customerService The service for general customer operations
      * @param individualCustomerMapper The mapper for individual customer objects
+     * @param representationCache The cache of serialized individual customer details
      */
     IndividualCustomerServiceImpl(
             IndividualCustomerRepository individualCustomerRepository,
@@ -65,7 +68,8 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
             OrganizationDetailsService organizationDetailsService,
             CustomerService customerService,
             IndividualCustomerMapper individualCustomerMapper,
-            ApplicationEventPublisher applicationEventPublisher) {
+            ApplicationEventPublisher applicationEventPublisher,
+            RepresentationCache representationCache) {
 
         this.individualCustomerRepository = individualCustomerRepository;
         this.accountService = accountService;
@@ -75,6 +79,7 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
         this.customerService = customerService;
         this.individualCustomerMapper = individualCustomerMapper;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.representationCache = representationCache;
     }
 
     /**
@@ -95,12 +100,7 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
     @Transactional
     public IndividualCustomer createIndividualCustomer(@Valid IndividualCustomerRequest individualCustomerRequest, User user) {
         log.info("Check duplicated fields");
-        customerService.checkDuplicatedFields(
-                individualCustomerRequest,
-                individualCustomerRepository::existsByTaxId,
-                individualCustomerRepository::existsByRegistrationNumber,
-                individualCustomerRepository::existsByEmail
-        );
+        customerService.checkDuplicatedFields(individualCustomerRequest);
         log.info("Attempting to create an individual customer for user: {}", user.getUsername());
         accountService.checkAccountReferenceCustomer(user);
 
@@ -159,9 +159,9 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
      * <p>
      * This method performs the following operations:
      * <ol>
-     *   <li>Retrieves the user's account and associated customer</li>
-     *   <li>Verifies the customer is the requested individual customer</li>
-     *   <li>Returns the individual customer if validation passes</li>
+     *   <li>Retrieves the {@link AccountAccess} of the user's account</li>
+     *   <li>Verifies the account references the requested individual customer</li>
+     *   <li>Loads the individual customer if validation passes</li>
      * </ol>
      *
      * @param id The UUID of the individual customer to retrieve
@@ -171,11 +171,28 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
      */
     @Transactional
     IndividualCustomer getByIdAndUser(UUID id, User user) {
-        AbstractCustomer abstractCustomer = accountService.findAccountWithCustomerByUser(user).getCustomer();
-        if (isNotValidReferenceAbstractCustomer(id, abstractCustomer)) {
+        findAccessToRead(id, user);
+        return findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long findVersionByIdAndUser(UUID id, User user) {
+        return findAccessToRead(id, user).customerVersion();
+    }
+
+    /**
+     * Returns the {@link AccountAccess} of the user's account after verifying that it references the requested
+     * individual customer.
+     *
+     * @throws AccessDeniedException If the user does not have the required association
+     */
+    AccountAccess findAccessToRead(UUID id, User user) {
+        AccountAccess accountAccess = accountService.findAccountAccessByUser(user);
+        if (isNotValidReference(id, accountAccess)) {
             throw new AccessDeniedException("User " + user.getUsername() + " is not associated with an individual customer with id " + id);
         }
-        return (IndividualCustomer) abstractCustomer;
+        return accountAccess;
     }
 
     /**
@@ -196,10 +213,12 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
     public IndividualCustomer updateIndividualCustomerDetailsById(UUID id, @Valid IndividualCustomerUpdateRequest updateRequest, User user) {
         log.info("Attempting to update individual customer details for ID: {} by user: {}", id, user.getUsername());
         IndividualCustomer individualCustomer = findIndividualCustomerToChange(id, user);
+        Long version = individualCustomer.getVersion();
 
         updateCustomerFields(individualCustomer, updateRequest);
 
         IndividualCustomer updatedIndividualCustomer = saveIndividualCustomer(individualCustomer);
+        representationCache.evict(EOrganizationType.INDIVIDUAL.name(), id, version);
         log.info("Successfully updated company with ID: {}", updatedIndividualCustomer.getId());
 
         return updatedIndividualCustomer;
@@ -242,6 +261,7 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
         IndividualCustomer individualCustomer = findIndividualCustomerToChange(id, user);
         accountService.detachCustomerFromAccount(individualCustomer);
         individualCustomerRepository.delete(individualCustomer);
+        representationCache.evict(EOrganizationType.INDIVIDUAL.name(), id, individualCustomer.getVersion());
     }
 
     /**
@@ -249,10 +269,10 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
      * <p>
      * This method performs the following operations:
      * <ol>
-     *   <li>Retrieves the user's account with associated customer</li>
+     *   <li>Retrieves the {@link AccountAccess} of the user's account</li>
      *   <li>Verifies the user has proper permission based on association type</li>
-     *   <li>Verifies the customer is the requested individual customer</li>
-     *   <li>Returns the individual customer if all verifications pass</li>
+     *   <li>Verifies the account references the requested individual customer</li>
+     *   <li>Loads the individual customer if all verifications pass</li>
      * </ol>
      *
      * @param id The UUID of the individual customer to retrieve
@@ -263,36 +283,36 @@ class IndividualCustomerServiceImpl implements IndividualCustomerService {
      */
     @Transactional
     IndividualCustomer findIndividualCustomerToChange(UUID id, User user) {
-        Account account = accountService.findAccountWithCustomerByUser(user);
+        AccountAccess accountAccess = accountService.findAccountAccessByUser(user);
 
-        if (accountService.isRepresentativeAssociationType(account)) {
+        if (accountAccess.isRepresentative()) {
             throw new AccessDeniedException("User " + user.getUsername() + " does not have permission to the " +
                     "individual with id " + id);
         }
 
-        if (isNotValidReferenceAbstractCustomer(id, account.getCustomer())) {
+        if (isNotValidReference(id, accountAccess)) {
             throw new IllegalStateException("Account does not reference a valid company.");
         }
-        return (IndividualCustomer) account.getCustomer();
+        return findById(id);
     }
 
     /**
-     * Checks if the abstract customer is not a valid reference to the specified individual customer.
+     * Checks if the account is not a valid reference to the specified individual customer.
      * <p>
      * A reference is considered invalid if:
      * <ol>
-     *   <li>The abstract customer is null</li>
-     *   <li>The abstract customer's ID does not match the expected ID</li>
-     *   <li>The abstract customer is not an instance of {@link IndividualCustomer}</li>
+     *   <li>The account does not reference a customer</li>
+     *   <li>The referenced customer's ID does not match the expected ID</li>
+     *   <li>The referenced customer is not an {@link IndividualCustomer}</li>
      * </ol>
      *
      * @param id The expected UUID of the individual customer
-     * @param abstractCustomer The {@link AbstractCustomer} to validate
+     * @param accountAccess The {@link AccountAccess} of the user's account
      * @return true if the reference is invalid, false otherwise
      */
     @Transactional
-    boolean isNotValidReferenceAbstractCustomer(UUID id, AbstractCustomer abstractCustomer) {
-        return abstractCustomer == null || !abstractCustomer.getId().equals(id) || !(abstractCustomer instanceof IndividualCustomer);
+    boolean isNotValidReference(UUID id, AccountAccess accountAccess) {
+        return !accountAccess.references(id, EOrganizationType.INDIVIDUAL);
     }
 
     /**
@@ -1,13 +1,14 @@
 package com.example.cleaning_service.customers.services.impl;
 
 import com.example.cleaning_service.commons.BusinessEntityService;
+import com.example.cleaning_service.commons.RepresentationCache;
+import com.example.cleaning_service.customers.dto.accounts.AccountAccess;
 import com.example.cleaning_service.customers.dto.accounts.AccountRequest;
 import com.example.cleaning_service.customers.dto.non_profit_org.NonProfitOrgRequest;
 import com.example.cleaning_service.customers.dto.non_profit_org.NonProfitOrgUpdateRequest;
-import com.example.cleaning_service.customers.entities.AbstractCustomer;
-import com.example.cleaning_service.customers.entities.Account;
 import com.example.cleaning_service.customers.entities.NonProfitOrg;
 import com.example.cleaning_service.customers.enums.EAssociationType;
+import com.example.cleaning_service.customers.enums.EOrganizationType;
 import com.example.cleaning_service.customers.events.CustomerCreationEvent;
 import com.example.cleaning_service.customers.mappers.NonProfitOrgMapper;
 import com.example.cleaning_service.customers.repositories.NonProfitOrgRepository;
@@ -42,6 +43,7 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
     private final CustomerService customerService;
     private final NonProfitOrgMapper nonProfitOrgMapper;
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final RepresentationCache representationCache;
 
     /**
      * Constructs a new {@link NonProfitOrgServiceImpl} with the required dependencies.
@@ -53,6 +55,7 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
      * @param businessEntityService Service for managing business entity details
      * @param customerService Service for general customer operations
      * @param nonProfitOrgMapper Mapper for converting between DTOs and entities
+     * @param representationCache Cache of the serialized organization details
      */
     NonProfitOrgServiceImpl(
             NonProfitOrgRepository nonProfitOrgRepository,
@@ -62,7 +65,8 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
             BusinessEntityService businessEntityService,
             CustomerService customerService,
             NonProfitOrgMapper nonProfitOrgMapper,
-            ApplicationEventPublisher applicationEventPublisher) {
+            ApplicationEventPublisher applicationEventPublisher,
+            RepresentationCache representationCache) {
 
         this.nonProfitOrgRepository = nonProfitOrgRepository;
         this.accountService = accountService;
@@ -73,6 +77,7 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
 
         this.nonProfitOrgMapper = nonProfitOrgMapper;
         this.applicationEventPublisher = applicationEventPublisher;
+        this.representationCache = representationCache;
     }
 
     /**
@@ -93,12 +98,7 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
     @Transactional
     public NonProfitOrg createProfitOrg(@Valid NonProfitOrgRequest nonProfitOrgRequest, User user) {
         log.info("Check duplicated fields");
-        customerService.checkDuplicatedFields(
-                nonProfitOrgRequest,
-                nonProfitOrgRepository::existsByTaxId,
-                nonProfitOrgRepository::existsByRegistrationNumber,
-                nonProfitOrgRepository::existsByEmail
-        );
+        customerService.checkDuplicatedFields(nonProfitOrgRequest);
 
         log.info("Attempting to create a non-profit org for user: {}", user.getUsername());
         accountService.checkAccountReferenceCustomer(user);
@@ -151,9 +151,9 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
      * <p>
      * Implementation steps:
      * <ol>
-     *     <li>Fetches the user's associated {@link AbstractCustomer} via {@link AccountService}</li>
-     *     <li>Validates that the customer is the requested non-profit organization</li>
-     *     <li>Returns the validated {@link NonProfitOrg} entity</li>
+     *     <li>Fetches the {@link AccountAccess} of the user's account via {@link AccountService}</li>
+     *     <li>Validates that the account references the requested non-profit organization</li>
+     *     <li>Loads the validated {@link NonProfitOrg} entity</li>
      * </ol>
      *
      * @param id The UUID of the non-profit organization to retrieve
@@ -163,13 +163,30 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
      */
     @Transactional
     NonProfitOrg getByIdAndUser(UUID id, User user) {
-        AbstractCustomer abstractCustomer = accountService.findAccountWithCustomerByUser(user).getCustomer();
-        log.info("Found customer with ID: {}", abstractCustomer.getId());
-        if (isNotValidReferenceAbstractCustomer(id, abstractCustomer)) {
+        findAccessToRead(id, user);
+        return findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long findVersionByIdAndUser(UUID id, User user) {
+        return findAccessToRead(id, user).customerVersion();
+    }
+
+    /**
+     * Returns the {@link AccountAccess} of the user's account after validating that it references the requested
+     * non-profit organization.
+     *
+     * @throws AccessDeniedException If the user doesn't have access to the organization
+     */
+    AccountAccess findAccessToRead(UUID id, User user) {
+        AccountAccess accountAccess = accountService.findAccountAccessByUser(user);
+        log.info("Found customer with ID: {}", accountAccess.customerId());
+        if (isNotValidReference(id, accountAccess)) {
             throw new AccessDeniedException("User " + user.getUsername() + " is not associated with a non-profit " +
                     "organization with id " + id);
         }
-        return (NonProfitOrg) abstractCustomer;
+        return accountAccess;
     }
 
     /**
@@ -187,10 +204,12 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
     public NonProfitOrg updateNonProfitOrgDetailsById(UUID id, @Valid NonProfitOrgUpdateRequest updateRequest, User user) {
         log.info("Updating non-profit org details for ID: {} by user: {}", id, user.getUsername());
         NonProfitOrg nonProfitOrg = findNonProfitOrgToChange(id, user);
+        Long version = nonProfitOrg.getVersion();
 
         updateNonProfitOrgDetails(nonProfitOrg, updateRequest);
 
         NonProfitOrg updatedNonProfitOrg = saveNonProfitOrg(nonProfitOrg);
+        representationCache.evict(EOrganizationType.NON_PROFIT.name(), id, version);
         log.info("Successfully updated organization with ID: {}", updatedNonProfitOrg.getId());
 
         return updatedNonProfitOrg;
@@ -231,6 +250,7 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
         NonProfitOrg nonProfitOrg = findNonProfitOrgToChange(id, user);
         accountService.detachCustomerFromAccount(nonProfitOrg);
         nonProfitOrgRepository.delete(nonProfitOrg);
+        representationCache.evict(EOrganizationType.NON_PROFIT.name(), id, nonProfitOrg.getVersion());
     }
 
     /**
@@ -238,7 +258,7 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
      * <p>
      * Implementation steps:
      * <ol>
-     *     <li>Retrieves the user's account with its associated customer</li>
+     *     <li>Retrieves the {@link AccountAccess} of the user's account</li>
      *     <li>Verifies the user has suitable association type for modifications</li>
      *     <li>Validates that the customer is the requested non-profit organization</li>
      * </ol>
@@ -251,30 +271,30 @@ class NonProfitOrgServiceImpl implements NonProfitOrgService {
      */
     @Transactional
     NonProfitOrg findNonProfitOrgToChange(UUID id, User user) {
-        Account account = accountService.findAccountWithCustomerByUser(user);
+        AccountAccess accountAccess = accountService.findAccountAccessByUser(user);
 
-        if (accountService.isRepresentativeAssociationType(account)) {
+        if (accountAccess.isRepresentative()) {
             throw new AccessDeniedException("User " + user.getUsername() + " does not have permission to the " +
                     "non-profit org with id " + id);
         }
 
-        if (isNotValidReferenceAbstractCustomer(id, account.getCustomer())) {
+        if (isNotValidReference(id, accountAccess)) {
             throw new IllegalStateException("Account does not reference a valid non-profit org.");
         }
 
-        return (NonProfitOrg) account.getCustomer();
+        return findById(id);
     }
 
     /**
-     * Checks if the abstract customer is not a valid non-profit organization with the expected ID.
+     * Checks if the account does not reference a non-profit organization with the expected ID.
      *
      * @param abstractCustomerId The expected customer ID
-     * @param abstractCustomer The customer to validate
-     * @return {@code true} if the customer is invalid or not a non-profit organization, {@code false} otherwise
+     * @param accountAccess The {@link AccountAccess} of the user's account
+     * @return {@code true} if the referenced customer is missing or not that non-profit organization, {@code false} otherwise
      */
     @Transactional
-    boolean isNotValidReferenceAbstractCustomer(UUID abstractCustomerId, AbstractCustomer abstractCustomer) {
-        return abstractCustomer == null || !abstractCustomer.getId().equals(abstractCustomerId) || !(abstractCustomer instanceof NonProfitOrg);
+    boolean isNotValidReference(UUID abstractCustomerId, AccountAccess accountAccess) {
+        return !accountAccess.references(abstractCustomerId, EOrganizationType.NON_PROFIT);
     }
 
     /**
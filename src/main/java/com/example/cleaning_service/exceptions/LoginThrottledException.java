@@ -0,0 +1,22 @@
+package com.example.cleaning_service.exceptions;
+
+import java.io.Serial;
+import java.time.Duration;
+
+/**
+ * Thrown when a login attempt is rejected by throttling, before any password is checked.
+ */
+public class LoginThrottledException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+    private final Duration retryAfter;
+
+    public LoginThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.cleaning_service.exceptions;
+
+import java.io.Serial;
+
+/**
+ * Thrown when the password hashing pool is saturated and cannot take the request in time.
+ */
+public class PasswordHashingRejectedException extends RuntimeException {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.cleaning_service.notifications.controllers;
 
+import com.example.cleaning_service.commons.KeysetModel;
+import com.example.cleaning_service.commons.KeysetPage;
+import com.example.cleaning_service.commons.KeysetRequest;
 import com.example.cleaning_service.notifications.assemblers.NotificationDetailsModelAssembler;
 import com.example.cleaning_service.notifications.assemblers.NotificationModelAssembler;
 import com.example.cleaning_service.notifications.dtos.NotificationDetailsModel;
@@ -9,22 +12,21 @@ import com.example.cleaning_service.notifications.services.NotificationPersisten
 import com.example.cleaning_service.security.entities.user.User;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import lombok.extern.slf4j.Slf4j;
-import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PagedResourcesAssembler;
-import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
 
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
 @Slf4j
 @RestController
 @RequestMapping("/notifications")
@@ -32,33 +34,41 @@ public class NotificationController {
 
     private final NotificationPersistenceService notificationService;
     private final @Qualifier("notificationModelAssembler") NotificationModelAssembler notificationModelAssembler;
-    private final @Qualifier("pagedResourcesAssemblerNotification") PagedResourcesAssembler<NotificationEntity> pagedResourcesAssemblerNotification;
     private final @Qualifier("notificationDetailsModelAssembler")NotificationDetailsModelAssembler notificationDetailsModelAssembler;
 
     public NotificationController(NotificationPersistenceService notificationService, NotificationModelAssembler notificationModelAssembler,
-                                  PagedResourcesAssembler<NotificationEntity> pagedResourcesAssemblerNotification, NotificationDetailsModelAssembler notificationDetailsModelAssembler) {
+                                  NotificationDetailsModelAssembler notificationDetailsModelAssembler) {
         this.notificationService = notificationService;
         this.notificationModelAssembler = notificationModelAssembler;
-        this.pagedResourcesAssemblerNotification = pagedResourcesAssemblerNotification;
         this.notificationDetailsModelAssembler = notificationDetailsModelAssembler;
     }
 
-    @Operation(summary = "Get unread notifications", description = "Returns all unread notifications for the authenticated user")
+    @Operation(summary = "Get unread notifications",
+            description = "Returns a page of unread notifications for the authenticated user, newest first; follow the 'next' and 'prev' links to page")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Notifications retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
             @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public PagedModel<NotificationModel> getUnreadNotifications(@ParameterObject Pageable pageable, @AuthenticationPrincipal User user) {
+    public KeysetModel<NotificationModel> getUnreadNotifications(
+            @Parameter(description = "Cursor from the 'next' link") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor from the 'prev' link") @RequestParam(required = false) String before,
+            @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include the number of unread notifications") @RequestParam(defaultValue = "false") boolean count,
+            @AuthenticationPrincipal User user) {
         log.info("Retrieving unread notifications for user: {}", user.getUsername());
-        Page<NotificationEntity> notificationEntityPage = notificationService.getUnreadNotificationsForUser(pageable, user);
-        log.info("Retrieved unread notifications for user: {} with number of elements: {}, total elements: {}",
-                user.getUsername(), notificationEntityPage.getNumberOfElements(),notificationEntityPage.getTotalElements());
-        pagedResourcesAssemblerNotification.setForceFirstAndLastRels(true);
-        PagedModel<NotificationModel> notificationModels = pagedResourcesAssemblerNotification.toModel(
-                notificationEntityPage, notificationModelAssembler
+        KeysetRequest request = KeysetRequest.of(after, before, size);
+        KeysetPage<NotificationEntity> notificationEntityPage = notificationService.getUnreadNotificationsForUser(request, user);
+        log.info("Retrieved unread notifications for user: {} with number of elements: {}",
+                user.getUsername(), notificationEntityPage.content().size());
+        KeysetModel<NotificationModel> notificationModels = new KeysetModel<>(
+                notificationModelAssembler.toCollectionModel(notificationEntityPage.content()).getContent(),
+                notificationEntityPage, request, count ? notificationService.countUnreadNotificationsForUser(user) : null,
+                page -> linkTo(methodOn(NotificationController.class)
+                        .getUnreadNotifications(page.afterToken(), page.beforeToken(), page.size(), count, null))
         );
         log.info("Assembling notifications to model page: {}", notificationModels);
         return notificationModels;
@@ -2,17 +2,42 @@ package com.example.cleaning_service.notifications.repositories;
 
 import com.example.cleaning_service.notifications.entites.NotificationEntity;
 import com.example.cleaning_service.security.entities.user.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<NotificationEntity, UUID> {
-    Page<NotificationEntity> findByUserAndReadOrderByTimestampDesc(Pageable pageable, User user, boolean read);
+    /*
+     * Keyset pages of the unread notifications of a user, newest first by ("timestamp", id). All three are answered
+     * from ix_security_notifications_user_read_timestamp_id in index order.
+     */
+    @Query(value = """
+            SELECT n.* FROM security.security_notifications n
+            WHERE n.user_id = :userId AND n."read" = false
+            ORDER BY n."timestamp" DESC, n.id DESC LIMIT :limit""", nativeQuery = true)
+    List<NotificationEntity> findUnreadFirst(@Param("userId") UUID userId, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT n.* FROM security.security_notifications n
+            WHERE n.user_id = :userId AND n."read" = false AND (n."timestamp", n.id) < (:timestamp, :id)
+            ORDER BY n."timestamp" DESC, n.id DESC LIMIT :limit""", nativeQuery = true)
+    List<NotificationEntity> findUnreadOlderThan(@Param("userId") UUID userId, @Param("timestamp") long timestamp,
+                                                 @Param("id") UUID id, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT n.* FROM security.security_notifications n
+            WHERE n.user_id = :userId AND n."read" = false AND (n."timestamp", n.id) > (:timestamp, :id)
+            ORDER BY n."timestamp", n.id LIMIT :limit""", nativeQuery = true)
+    List<NotificationEntity> findUnreadNewerThan(@Param("userId") UUID userId, @Param("timestamp") long timestamp,
+                                                 @Param("id") UUID id, @Param("limit") int limit);
+
+    long countByUserAndRead(User user, boolean read);
 
     Optional<NotificationEntity> findByIdAndUser(UUID id, User user);
-}
\ No newline at end of file
+}
@@ -1,6 +1,9 @@
 package com.example.cleaning_service.notifications.services;
 
 
+import com.example.cleaning_service.commons.KeysetCursor;
+import com.example.cleaning_service.commons.KeysetPage;
+import com.example.cleaning_service.commons.KeysetRequest;
 import com.example.cleaning_service.notifications.entites.NotificationEntity;
 import com.example.cleaning_service.notifications.entites.SecurityNotification;
 import com.example.cleaning_service.notifications.repositories.NotificationRepository;
@@ -8,11 +11,11 @@ import com.example.cleaning_service.security.entities.user.User;
 import com.example.cleaning_service.security.services.IUserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -41,9 +44,31 @@ public class NotificationPersistenceService {
         log.debug("Persisted notification for user ID: {}", user.getId());
     }
 
+    /**
+     * Unread notifications of {@code user}, newest first. The cursor position is the notification timestamp, so
+     * {@code after} moves to older and {@code before} to newer notifications.
+     */
     @Transactional(readOnly = true)
-    public Page<NotificationEntity> getUnreadNotificationsForUser(Pageable pageable, User user) {
-        return notificationRepository.findByUserAndReadOrderByTimestampDesc(pageable, user, false);
+    public KeysetPage<NotificationEntity> getUnreadNotificationsForUser(KeysetRequest request, User user) {
+        KeysetCursor after = request.after();
+        KeysetCursor before = request.before();
+        List<NotificationEntity> notifications;
+        if (before != null) {
+            notifications = notificationRepository.findUnreadNewerThan(user.getId(),
+                    before.position().toEpochMilli(), before.id(), request.limit());
+        } else if (after != null) {
+            notifications = notificationRepository.findUnreadOlderThan(user.getId(),
+                    after.position().toEpochMilli(), after.id(), request.limit());
+        } else {
+            notifications = notificationRepository.findUnreadFirst(user.getId(), request.limit());
+        }
+        return KeysetPage.of(notifications, request, notification ->
+                KeysetCursor.of(Instant.ofEpochMilli(notification.getTimestamp()), notification.getId()));
+    }
+
+    @Transactional(readOnly = true)
+    public long countUnreadNotificationsForUser(User user) {
+        return notificationRepository.countByUserAndRead(user, false);
     }
 
     @Transactional
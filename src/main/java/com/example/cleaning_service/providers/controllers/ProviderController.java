@@ -1,17 +1,18 @@
 package com.example.cleaning_service.providers.controllers;
 
+import com.example.cleaning_service.commons.RepresentationCache;
 import com.example.cleaning_service.providers.assemblers.ProviderDetailsModelAssembler;
 import com.example.cleaning_service.providers.assemblers.ProviderModelAssembler;
-import com.example.cleaning_service.providers.dtos.ProviderDetailsModel;
 import com.example.cleaning_service.providers.dtos.ProviderModel;
 import com.example.cleaning_service.providers.dtos.ProviderRequest;
 import com.example.cleaning_service.providers.entities.Provider;
-import com.example.cleaning_service.providers.entities.ProviderAccount;
 import com.example.cleaning_service.providers.services.ProviderAccountService;
 import com.example.cleaning_service.providers.services.ProviderService;
 import com.example.cleaning_service.security.entities.user.User;
 import jakarta.validation.Valid;
+import org.springframework.hateoas.MediaTypes;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -21,16 +22,21 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/providers")
 public class ProviderController {
+    private static final String DETAILS_REGION = "PROVIDER";
+
     private final ProviderService providerService;
     private final ProviderModelAssembler providerModelAssembler;
     private final ProviderDetailsModelAssembler providerDetailsModelAssembler;
     private final ProviderAccountService providerAccountService;
+    private final RepresentationCache representationCache;
 
-    public ProviderController(ProviderService providerService, ProviderModelAssembler providerModelAssembler, ProviderDetailsModelAssembler providerDetailsModelAssembler, ProviderAccountService providerAccountService) {
+    public ProviderController(ProviderService providerService, ProviderModelAssembler providerModelAssembler, ProviderDetailsModelAssembler providerDetailsModelAssembler, ProviderAccountService providerAccountService,
+                              RepresentationCache representationCache) {
         this.providerService = providerService;
         this.providerModelAssembler = providerModelAssembler;
         this.providerDetailsModelAssembler = providerDetailsModelAssembler;
         this.providerAccountService = providerAccountService;
+        this.representationCache = representationCache;
     }
 
     @PreAuthorize("hasRole('USER')")
@@ -44,10 +50,11 @@ public class ProviderController {
 
     @PreAuthorize("hasRole('PROVIDER')")
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public ProviderDetailsModel getProvider(@PathVariable UUID id,
-                                            @AuthenticationPrincipal User user) {
-        ProviderAccount providerAccount = providerAccountService.findByProvider_IdAndUser(id, user);
-        return providerDetailsModelAssembler.toModel(providerAccount.getProvider());
+    public ResponseEntity<byte[]> getProvider(@PathVariable UUID id,
+                                              @AuthenticationPrincipal User user) {
+        Provider provider = providerAccountService.findByProvider_IdAndUser(id, user).getProvider();
+        byte[] providerDetails = representationCache.get(DETAILS_REGION, id, provider.getVersion(),
+                () -> providerDetailsModelAssembler.toModel(provider));
+        return ResponseEntity.ok().contentType(MediaTypes.HAL_JSON).body(providerDetails);
     }
 }
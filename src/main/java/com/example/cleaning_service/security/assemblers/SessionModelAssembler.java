@@ -0,0 +1,30 @@
+package com.example.cleaning_service.security.assemblers;
+
+import com.example.cleaning_service.security.controllers.AuthController;
+import com.example.cleaning_service.security.dtos.auth.SessionModel;
+import com.example.cleaning_service.security.entities.token.TokenSession;
+import org.springframework.hateoas.server.mvc.RepresentationModelAssemblerSupport;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+@Component
+public class SessionModelAssembler extends RepresentationModelAssemblerSupport<TokenSession, SessionModel> {
+
+    public SessionModelAssembler() {
+        super(AuthController.class, SessionModel.class);
+    }
+
+    @Override
+    protected @NonNull SessionModel instantiateModel(@NonNull TokenSession tokenSession) {
+        return new SessionModel(tokenSession.id(), tokenSession.expiresAt());
+    }
+
+    @Override
+    public @NonNull SessionModel toModel(@NonNull TokenSession tokenSession) {
+        SessionModel sessionModel = instantiateModel(tokenSession);
+        sessionModel.add(linkTo(AuthController.class).slash("sessions").slash(tokenSession.id()).withSelfRel());
+        return sessionModel;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.cleaning_service.security.authorization;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.util.AuthorityGrants;
+import com.example.cleaning_service.security.util.EnumBitmask;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A {@code @PreAuthorize} expression compiled into bitmask tests over {@link AuthorityGrants}.
+ * <p>
+ * {@link #compile(String)} accepts the subset of SpEL the controllers use: {@code hasRole}, {@code hasAnyRole},
+ * {@code hasAuthority} and {@code hasAnyAuthority} over known roles and permissions, joined by either {@code and}
+ * or {@code or} without parentheses. Anything else is left to SpEL.
+ */
+final class AuthorityRule {
+    private static final Pattern TERM = Pattern.compile("(hasRole|hasAnyRole|hasAuthority|hasAnyAuthority)\\((.*)\\)");
+    private static final Pattern ARGUMENT = Pattern.compile("'([A-Za-z0-9_]+)'");
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * A single check: the grants must hold all of, or any of, the roles and permissions in the masks.
+     */
+    private record Term(long roleMask, long permissionMask, boolean any) {
+        boolean test(AuthorityGrants grants) {
+            if (any) {
+                return (grants.roleMask() & roleMask) != 0 || (grants.permissionMask() & permissionMask) != 0;
+            }
+            return (grants.roleMask() & roleMask) == roleMask && (grants.permissionMask() & permissionMask) == permissionMask;
+        }
+    }
+
+    private final List<Term> terms;
+    private final boolean disjunction;
+
+    private AuthorityRule(List<Term> terms, boolean disjunction) {
+        this.terms = terms;
+        this.disjunction = disjunction;
+    }
+
+    boolean test(AuthorityGrants grants) {
+        for (Term term : terms) {
+            if (term.test(grants) == disjunction) {
+                return disjunction;
+            }
+        }
+        return !disjunction;
+    }
+
+    /**
+     * Compiles the expression, or returns empty if it uses anything beyond the supported subset.
+     */
+    static Optional<AuthorityRule> compile(String expression) {
+        String trimmed = expression.trim();
+        boolean hasAnd = trimmed.contains(" and ");
+        boolean hasOr = trimmed.contains(" or ");
+        if (hasAnd && hasOr) {
+            return Optional.empty();
+        }
+        boolean disjunction = hasOr;
+        List<Term> terms = new ArrayList<>();
+        for (String part : trimmed.split(disjunction ? " or " : " and ")) {
+            Optional<Term> term = compileTerm(part.trim());
+            if (term.isEmpty()) {
+                return Optional.empty();
+            }
+            terms.add(term.get());
+        }
+        return Optional.of(new AuthorityRule(List.copyOf(terms), disjunction));
+    }
+
+    private static Optional<Term> compileTerm(String term) {
+        Matcher matcher = TERM.matcher(term);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        List<String> arguments = parseArguments(matcher.group(2));
+        if (arguments.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String function = matcher.group(1);
+        boolean roleFunction = function.equals("hasRole") || function.equals("hasAnyRole");
+        boolean any = function.startsWith("hasAny");
+        if (!any && arguments.size() != 1) {
+            return Optional.empty();
+        }
+        Set<ERole> roles = EnumSet.noneOf(ERole.class);
+        Set<EPermission> permissions = EnumSet.noneOf(EPermission.class);
+        for (String argument : arguments) {
+            if (roleFunction || argument.startsWith(ROLE_PREFIX)) {
+                String role = roleFunction && !argument.startsWith(ROLE_PREFIX) ? argument : argument.substring(ROLE_PREFIX.length());
+                Optional<ERole> parsed = parse(ERole.class, role);
+                if (parsed.isEmpty()) {
+                    return Optional.empty();
+                }
+                roles.add(parsed.get());
+            } else {
+                Optional<EPermission> parsed = parse(EPermission.class, argument);
+                if (parsed.isEmpty()) {
+                    return Optional.empty();
+                }
+                permissions.add(parsed.get());
+            }
+        }
+        return Optional.of(new Term(EnumBitmask.toMask(roles), EnumBitmask.toMask(permissions), any));
+    }
+
+    private static List<String> parseArguments(String arguments) {
+        List<String> values = new ArrayList<>();
+        for (String argument : arguments.split(",")) {
+            Matcher matcher = ARGUMENT.matcher(argument.trim());
+            if (!matcher.matches()) {
+                return List.of();
+            }
+            values.add(matcher.group(1));
+        }
+        return values;
+    }
+
+    private static <E extends Enum<E>> Optional<E> parse(Class<E> type, String name) {
+        try {
+            return Optional.of(Enum.valueOf(type, name));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
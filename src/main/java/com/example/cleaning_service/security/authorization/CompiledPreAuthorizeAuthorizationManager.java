@@ -0,0 +1,78 @@
+package com.example.cleaning_service.security.authorization;
+
+import com.example.cleaning_service.security.util.AuthorityGrants;
+import com.example.cleaning_service.security.util.VerifiedToken;
+import org.aopalliance.intercept.MethodInvocation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Authorizes {@code @PreAuthorize} methods with {@link AuthorityRule}s compiled once per method and target class,
+ * instead of evaluating the SpEL expression against a freshly built authority set on every call. The target class is
+ * part of the key because an inherited method takes the class-level annotation of the class it is called on.
+ * <p>
+ * Requests authenticated by a JWT are checked against the interned {@link AuthorityGrants} of their
+ * {@link VerifiedToken}, so a check costs a map lookup and a few mask comparisons. Expressions outside the
+ * compiled subset, such as those referring to method arguments or beans, are delegated to Spring's
+ * {@link PreAuthorizeAuthorizationManager}.
+ */
+public class CompiledPreAuthorizeAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+    private static final Logger log = LoggerFactory.getLogger(CompiledPreAuthorizeAuthorizationManager.class);
+
+    private final PreAuthorizeAuthorizationManager delegate;
+    private final Map<MethodClassKey, Optional<AuthorityRule>> rules = new ConcurrentHashMap<>();
+
+    public CompiledPreAuthorizeAuthorizationManager(PreAuthorizeAuthorizationManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Class<?> targetClass = invocation.getThis() != null ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+        Optional<AuthorityRule> rule = rules.computeIfAbsent(new MethodClassKey(method, targetClass),
+                key -> compile(method, targetClass));
+        if (rule.isEmpty()) {
+            return delegate.check(authentication, invocation);
+        }
+        return new AuthorizationDecision(rule.get().test(grantsOf(authentication.get())));
+    }
+
+    private static Optional<AuthorityRule> compile(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        PreAuthorize preAuthorize = AnnotatedElementUtils.findMergedAnnotation(specificMethod, PreAuthorize.class);
+        if (preAuthorize == null) {
+            preAuthorize = AnnotatedElementUtils.findMergedAnnotation(targetClass, PreAuthorize.class);
+        }
+        if (preAuthorize == null) {
+            return Optional.empty();
+        }
+        Optional<AuthorityRule> rule = AuthorityRule.compile(preAuthorize.value());
+        if (rule.isEmpty()) {
+            log.info("Evaluating @PreAuthorize(\"{}\") on {} with SpEL", preAuthorize.value(), specificMethod);
+        }
+        return rule;
+    }
+
+    private static AuthorityGrants grantsOf(Authentication authentication) {
+        if (authentication.getCredentials() instanceof VerifiedToken verifiedToken) {
+            return verifiedToken.grants();
+        }
+        return AuthorityGrants.of(authentication.getAuthorities());
+    }
+}
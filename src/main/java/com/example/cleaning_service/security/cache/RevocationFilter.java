@@ -0,0 +1,111 @@
+package com.example.cleaning_service.security.cache;
+
+import com.example.cleaning_service.security.repositories.TokenStateRepository;
+import com.example.cleaning_service.security.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Node-local Bloom filter of revoked token ids.
+ * <p>
+ * A negative answer from {@link #mightBeRevoked(String)} is definite, so the common case of a token
+ * that was never revoked is decided without a Redis round-trip; only possible hits need to be confirmed
+ * against Redis. New revocations are added locally and pushed to other nodes through
+ * {@link TokenRevocationPublisher}. Since Bloom filters cannot forget, the filter is periodically rebuilt
+ * from the revoked set in Redis, which drops ids of expired tokens and repairs any missed message.
+ */
+@Component
+public class RevocationFilter {
+    private static final Logger log = LoggerFactory.getLogger(RevocationFilter.class);
+
+    private final TokenStateRepository tokenStateRepository;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    // Orders add() against the start and the end of a rebuild, see add()
+    private final Object filterLock = new Object();
+
+    private volatile BloomFilter current;
+    private BloomFilter rebuilding;
+    private volatile int size;
+
+    public RevocationFilter(TokenStateRepository tokenStateRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.jwt.revocation-filter.expected-insertions:100000}") long expectedInsertions,
+                            @Value("${security.jwt.revocation-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.tokenStateRepository = tokenStateRepository;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        Gauge.builder("security.revocation-filter.entries", this, filter -> filter.size)
+                .description("Revoked token ids loaded by the last rebuild")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns false only if the token was definitely not revoked. Tokens without an id,
+     * and every token until the first rebuild succeeds, are reported as possibly revoked.
+     */
+    public boolean mightBeRevoked(String tokenId) {
+        BloomFilter filter = current;
+        if (filter == null || tokenId == null) {
+            return true;
+        }
+        try {
+            return filter.mightContain(UUID.fromString(tokenId));
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Flags a revoked id. Must be called after the revocation is stored in Redis: an id added before a rebuild
+     * starts reaches the new filter through {@link TokenStateRepository#findRevokedIds()}, one added while it runs is
+     * added to both filters, and one added after the swap goes to the new filter.
+     */
+    public void add(UUID tokenId) {
+        synchronized (filterLock) {
+            if (current != null) {
+                current.add(tokenId);
+            }
+            if (rebuilding != null) {
+                rebuilding.add(tokenId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation-filter.rebuild-interval:PT1M}")
+    public synchronized void rebuild() {
+        BloomFilter next = new BloomFilter(expectedInsertions, falsePositiveRate);
+        synchronized (filterLock) {
+            rebuilding = next;
+        }
+        try {
+            Set<UUID> revokedIds = tokenStateRepository.findRevokedIds();
+            revokedIds.forEach(next::add);
+            synchronized (filterLock) {
+                current = next;
+                rebuilding = null;
+            }
+            size = revokedIds.size();
+            if (revokedIds.size() > expectedInsertions) {
+                log.warn("{} revoked tokens exceed the expected {}, the false positive rate will rise",
+                        revokedIds.size(), expectedInsertions);
+            }
+            log.debug("Rebuilt revocation filter with {} revoked tokens", revokedIds.size());
+        } catch (DataAccessException e) {
+            log.warn("Cannot rebuild revocation filter, keeping the previous one: {}", e.getMessage());
+        } finally {
+            synchronized (filterLock) {
+                rebuilding = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.cleaning_service.security.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Broadcasts token revocations to every node through Redis pub/sub so that node-local caches
+ * drop the revoked token and node-local revocation filters learn its id immediately, instead of
+ * waiting for their TTL or next rebuild.
+ * <p>
+ * Messages have the form {@code <token id> <token hash>}, or just {@code <token id>} when a revocation
+ * does not have the raw token at hand; nodes then keep the verified claims until the revocation filter
+ * sends the token to Redis, which reports it as blacklisted.
+ */
+@Component
+public class TokenRevocationPublisher {
+    public static final String CHANNEL = "security:token-revocations";
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationPublisher.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public TokenRevocationPublisher(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    public void publish(UUID tokenId, String token) {
+        String tokenHash = VerifiedTokenCache.hash(token);
+        stringRedisTemplate.convertAndSend(CHANNEL, tokenId + " " + tokenHash);
+        log.info("Published revocation of token {}", tokenHash);
+    }
+
+    public void publish(UUID tokenId) {
+        stringRedisTemplate.convertAndSend(CHANNEL, tokenId.toString());
+        log.info("Published revocation of token {}", tokenId);
+    }
+}
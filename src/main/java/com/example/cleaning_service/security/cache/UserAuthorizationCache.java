@@ -0,0 +1,152 @@
+package com.example.cleaning_service.security.cache;
+
+import com.example.cleaning_service.security.repositories.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Two-tier cache of {@link UserAuthorizationSnapshot}s keyed by username.
+ * <p>
+ * Lookups hit a node-local Caffeine cache first, then the shared Redis copy, and only load the user
+ * from Postgres when both miss. Invalidations delete the Redis copy and are broadcast on {@link #CHANNEL}
+ * so every node drops its local copy; the local TTL bounds staleness if a message is lost.
+ * <p>
+ * Every invalidation also increments a per-user generation in Redis. A load remembers the generation it saw before
+ * reading Postgres and only stores its snapshot if the generation is unchanged, so a read that raced with an update
+ * cannot put the old snapshot back after the update invalidated it.
+ */
+@Component
+public class UserAuthorizationCache {
+    public static final String CHANNEL = "security:user-invalidations";
+    private static final Logger log = LoggerFactory.getLogger(UserAuthorizationCache.class);
+    private static final String CACHE_NAME = "security.user-authorizations";
+    private static final String KEY_PREFIX = "user:authz:";
+    private static final String GENERATION_KEY_PREFIX = "user:authz:gen:";
+
+    // Stores the snapshot only if no invalidation happened since the load read the generation
+    private static final RedisScript<Long> STORE_SCRIPT = new DefaultRedisScript<>("""
+            local generation = redis.call('GET', KEYS[2]) or ''
+            if generation ~= ARGV[3] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    // Bumps the generation before dropping the snapshot, so loads already running cannot store theirs
+    private static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('INCR', KEYS[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[1])
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Duration redisTtl;
+    private final Cache<String, UserAuthorizationSnapshot> cache;
+
+    public UserAuthorizationCache(UserRepository userRepository,
+                                  StringRedisTemplate redisTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${security.user-authorization-cache.max-size:10000}") long maxSize,
+                                  @Value("${security.user-authorization-cache.local-ttl:PT1M}") Duration localTtl,
+                                  @Value("${security.user-authorization-cache.redis-ttl:PT1H}") Duration redisTtl) {
+        this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
+        this.redisTtl = redisTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the authorization snapshot of the user, loading it from Redis or Postgres on a local miss.
+     *
+     * @throws UsernameNotFoundException if the user does not exist.
+     */
+    public UserAuthorizationSnapshot get(String username) {
+        return cache.get(username, this::load);
+    }
+
+    /**
+     * Drops the snapshot from Redis and from the local cache of every node.
+     */
+    public void invalidate(String username) {
+        redisTemplate.execute(INVALIDATE_SCRIPT, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class), List.of(KEY_PREFIX + username,
+                        GENERATION_KEY_PREFIX + username), ascii(redisTtl.toMillis()));
+        cache.invalidate(username);
+        redisTemplate.convertAndSend(CHANNEL, username);
+        log.info("Invalidated authorization snapshot of user {}", username);
+    }
+
+    public void evictLocal(String username) {
+        cache.invalidate(username);
+        log.debug("Evicted local authorization snapshot of user {}", username);
+    }
+
+    private UserAuthorizationSnapshot load(String username) {
+        byte[] key = (KEY_PREFIX + username).getBytes(StandardCharsets.UTF_8);
+        byte[] generationKey = (GENERATION_KEY_PREFIX + username).getBytes(StandardCharsets.UTF_8);
+        byte[] generation = null;
+        boolean redisAvailable = true;
+        try {
+            List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.stringCommands().mGet(key, generationKey));
+            if (values != null && values.get(0) != null) {
+                return UserAuthorizationSnapshot.fromBytes(values.get(0));
+            }
+            generation = values != null ? values.get(1) : null;
+        } catch (DataAccessException e) {
+            redisAvailable = false;
+            log.warn("Cannot read authorization snapshot of user {} from Redis: {}", username, e.getMessage());
+        }
+
+        log.debug("Loading authorization snapshot of user {} from database", username);
+        UserAuthorizationSnapshot snapshot = userRepository.findWithRolesByUsername(username)
+                .map(UserAuthorizationSnapshot::from)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+        // Without the generation there is nothing to compare against, so the snapshot is only kept locally
+        if (!redisAvailable) {
+            return snapshot;
+        }
+        try {
+            Long stored = redisTemplate.execute(STORE_SCRIPT, RedisSerializer.byteArray(),
+                    new GenericToStringSerializer<>(Long.class), List.of(KEY_PREFIX + username,
+                            GENERATION_KEY_PREFIX + username), snapshot.toBytes(), ascii(redisTtl.toMillis()),
+                    generation != null ? generation : new byte[0]);
+            if (stored == null || stored == 0) {
+                log.debug("Authorization snapshot of user {} was invalidated while loading, not storing it", username);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Cannot store authorization snapshot of user {} in Redis: {}", username, e.getMessage());
+        }
+        return snapshot;
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+}
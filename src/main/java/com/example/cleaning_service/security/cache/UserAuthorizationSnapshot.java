@@ -0,0 +1,124 @@
+package com.example.cleaning_service.security.cache;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.entities.role.Role;
+import com.example.cleaning_service.security.entities.user.User;
+import com.example.cleaning_service.security.util.EnumBitmask;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * The part of a {@link User} needed to authenticate a request: identity, account flags, roles and permissions.
+ * <p>
+ * Snapshots are immutable and serialize to a compact binary form for the shared Redis tier:
+ * <pre>
+ * [0..15]   user id
+ * [16..23]  entity version
+ * [24]      account flags
+ * [25..32]  role bitmask
+ * [33..40]  permission bitmask
+ * [41..]    username (UTF-8)
+ * </pre>
+ */
+public record UserAuthorizationSnapshot(
+        UUID id,
+        Long version,
+        String username,
+        boolean enabled,
+        boolean accountNonExpired,
+        boolean accountNonLocked,
+        boolean credentialsNonExpired,
+        Set<ERole> roles,
+        Set<EPermission> permissions
+) {
+    private static final int ENABLED = 0x01;
+    private static final int ACCOUNT_NON_EXPIRED = 0x02;
+    private static final int ACCOUNT_NON_LOCKED = 0x04;
+    private static final int CREDENTIALS_NON_EXPIRED = 0x08;
+    private static final int HEADER_LENGTH = 2 * Long.BYTES + Long.BYTES + 1 + 2 * Long.BYTES;
+
+    public UserAuthorizationSnapshot {
+        roles = roles.isEmpty() ? EnumSet.noneOf(ERole.class) : EnumSet.copyOf(roles);
+        permissions = permissions.isEmpty() ? EnumSet.noneOf(EPermission.class) : EnumSet.copyOf(permissions);
+    }
+
+    public static UserAuthorizationSnapshot from(User user) {
+        return new UserAuthorizationSnapshot(
+                user.getId(),
+                user.getVersion(),
+                user.getUsername(),
+                user.isEnabled(),
+                user.isAccountNonExpired(),
+                user.isAccountNonLocked(),
+                user.isCredentialsNonExpired(),
+                user.getRoles().stream().map(Role::getName)
+                        .collect(Collectors.toCollection(() -> EnumSet.noneOf(ERole.class))),
+                user.getPermissions()
+        );
+    }
+
+    public boolean isUsable() {
+        return enabled && accountNonExpired && accountNonLocked && credentialsNonExpired;
+    }
+
+    /**
+     * Builds a detached {@link User} carrying the id, version, username and account flags of this snapshot.
+     * <p>
+     * The principal has no roles, permissions or password: authorities live on the {@code Authentication},
+     * and code that needs the full user must load it by id.
+     */
+    public User toPrincipal() {
+        User user = new User(username, null);
+        user.setId(id);
+        user.setVersion(version);
+        user.setEnabled(enabled);
+        user.setAccountNonExpired(accountNonExpired);
+        user.setAccountNonLocked(accountNonLocked);
+        user.setCredentialsNonExpired(credentialsNonExpired);
+        return user;
+    }
+
+    byte[] toBytes() {
+        byte[] usernameBytes = username.getBytes(StandardCharsets.UTF_8);
+        int flags = (enabled ? ENABLED : 0)
+                | (accountNonExpired ? ACCOUNT_NON_EXPIRED : 0)
+                | (accountNonLocked ? ACCOUNT_NON_LOCKED : 0)
+                | (credentialsNonExpired ? CREDENTIALS_NON_EXPIRED : 0);
+        return ByteBuffer.allocate(HEADER_LENGTH + usernameBytes.length)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .putLong(version != null ? version : -1L)
+                .put((byte) flags)
+                .putLong(EnumBitmask.toMask(roles))
+                .putLong(EnumBitmask.toMask(permissions))
+                .put(usernameBytes)
+                .array();
+    }
+
+    static UserAuthorizationSnapshot fromBytes(byte[] value) {
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        UUID id = new UUID(buffer.getLong(), buffer.getLong());
+        long version = buffer.getLong();
+        int flags = buffer.get();
+        Set<ERole> roles = EnumBitmask.fromMask(ERole.class, buffer.getLong());
+        Set<EPermission> permissions = EnumBitmask.fromMask(EPermission.class, buffer.getLong());
+        String username = new String(value, buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+        return new UserAuthorizationSnapshot(
+                id,
+                version >= 0 ? version : null,
+                username,
+                (flags & ENABLED) != 0,
+                (flags & ACCOUNT_NON_EXPIRED) != 0,
+                (flags & ACCOUNT_NON_LOCKED) != 0,
+                (flags & CREDENTIALS_NON_EXPIRED) != 0,
+                roles,
+                permissions
+        );
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.cleaning_service.security.cache;
+
+import com.example.cleaning_service.security.util.JwtUtil;
+import com.example.cleaning_service.security.util.VerifiedToken;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Size-bounded, in-process cache of tokens that already passed signature verification.
+ * <p>
+ * Entries are keyed by the SHA-256 hash of the raw token, so the cache never holds bearer tokens
+ * themselves, and live until the earlier of the token expiration and the configured TTL.
+ * Only successfully verified tokens are cached; malformed or forged tokens are always re-checked.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCache.class);
+    private static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final JwtUtil jwtUtil;
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${security.jwt.verified-token-cache.max-size:10000}") long maxSize,
+                              @Value("${security.jwt.verified-token-cache.ttl:PT15M}") Duration ttl) {
+        this.jwtUtil = jwtUtil;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the verified claims of the token, running the signature check only on a cache miss.
+     *
+     * @param token The raw JWT token.
+     * @return The verified token, or empty if the token is malformed, tampered with or expired.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        String key = hash(token);
+        VerifiedToken cached = cache.getIfPresent(key);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return Optional.of(cached);
+        }
+
+        Optional<VerifiedToken> verifiedToken = jwtUtil.verifyToken(token);
+        verifiedToken.ifPresent(value -> cache.put(key, value));
+        return verifiedToken;
+    }
+
+    public void evict(String token) {
+        evictByHash(hash(token));
+    }
+
+    public void evictByHash(String tokenHash) {
+        cache.invalidate(tokenHash);
+        log.debug("Evicted verified token {}", tokenHash);
+    }
+
+    /**
+     * Hashes a raw token into the key used by this cache and by cluster-wide eviction messages.
+     */
+    public static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record TokenExpiry(Duration ttl) implements Expiry<String, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long untilExpiration = Duration.between(Instant.now(), value.expiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExpiration, ttl.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
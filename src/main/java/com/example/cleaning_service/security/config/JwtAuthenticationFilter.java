@@ -1,9 +1,12 @@
 package com.example.cleaning_service.security.config;
 
-import com.example.cleaning_service.security.entities.user.User;
+import com.example.cleaning_service.security.cache.RevocationFilter;
+import com.example.cleaning_service.security.cache.UserAuthorizationCache;
+import com.example.cleaning_service.security.cache.UserAuthorizationSnapshot;
+import com.example.cleaning_service.security.cache.VerifiedTokenCache;
+import com.example.cleaning_service.security.entities.token.TokenState;
 import com.example.cleaning_service.security.services.IJwtService;
-import com.example.cleaning_service.security.services.impl.CustomUserDetailsService;
-import com.example.cleaning_service.security.util.JwtUtil;
+import com.example.cleaning_service.security.util.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,26 +15,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
-    private final JwtUtil jwtUtil;
-    private final CustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevocationFilter revocationFilter;
+    private final UserAuthorizationCache userAuthorizationCache;
     private final IJwtService jwtService;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService, IJwtService jwtService) {
-        this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+    public JwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache, RevocationFilter revocationFilter,
+                                   UserAuthorizationCache userAuthorizationCache, IJwtService jwtService) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationFilter = revocationFilter;
+        this.userAuthorizationCache = userAuthorizationCache;
         this.jwtService = jwtService;
     }
 
@@ -41,47 +44,56 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String authHeader = request.getHeader("Authorization");
         String token = null;
-        String username = null;
+        VerifiedToken verifiedToken = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
 
-            // 🔹 Check if token exists in Redis (ensure it's valid and not revoked)
-            if (!jwtService.existsByToken(token)) {
-                logger.warn("Token not found in Redis (possible logout or expiration)");
+            // 🔹 Parse, verify and decode the token once, skipping verification for recently seen tokens
+            verifiedToken = verifiedTokenCache.verify(token).orElse(null);
+            if (verifiedToken == null) {
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
                 return;
             }
 
-            // 🔴 Check if Token is Blacklisted (Logged out)
-            if (jwtService.isTokenBlacklisted(token)) {
-                logger.warn("Attempt to use blacklisted token: {}", token);
-                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token has been blacklisted");
-                return;
+            // 🔹 Only tokens the local revocation filter flags need a Redis lookup by jti
+            if (revocationFilter.mightBeRevoked(verifiedToken.id())) {
+                TokenState tokenState = jwtService.getTokenState(verifiedToken.id());
+                if (tokenState == TokenState.ABSENT) {
+                    logger.warn("Token not found in Redis (possible logout or expiration)");
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
+                    return;
+                }
+
+                // 🔴 Check if Token is Blacklisted (Logged out)
+                if (tokenState == TokenState.BLACKLISTED) {
+                    logger.warn("Attempt to use blacklisted token: {}", verifiedToken.id());
+                    response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token has been blacklisted");
+                    return;
+                }
             }
-
-            username = jwtUtil.extractUsername(token);
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            User user = userDetailsService.loadUserByUsername(username);
-
-            if (!jwtUtil.validateToken(token, user)) {
-                logger.warn("Invalid JWT token: {}", token);
+        if (verifiedToken != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            // 🔹 Load the account state from the cached authorization snapshot, no SQL on a cache hit.
+            // Changes that take privileges away revoke the user's sessions, so the token's roles can be trusted.
+            UserAuthorizationSnapshot user;
+            try {
+                user = userAuthorizationCache.get(verifiedToken.username());
+            } catch (UsernameNotFoundException e) {
+                logger.warn("Token issued to unknown user: {}", verifiedToken.username());
                 response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
                 return;
             }
-            Set<GrantedAuthority> roles = jwtUtil.extractRoles(token).stream()
-                    .map(s -> new SimpleGrantedAuthority("ROLE_" + s))
-                    .collect(Collectors.toSet());
-            Set<GrantedAuthority> authorities = jwtUtil.extractPermissions(token).stream()
-                    .map(SimpleGrantedAuthority::new)
-                    .collect(Collectors.toSet());
 
-            authorities.addAll(roles);
+            if (!user.isUsable()) {
+                logger.warn("Token issued to disabled or locked user: {}", verifiedToken.username());
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Account is disabled or locked");
+                return;
+            }
 
             UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(user, null, authorities);
+                    new UsernamePasswordAuthenticationToken(user.toPrincipal(), verifiedToken, verifiedToken.authorities());
 
             authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
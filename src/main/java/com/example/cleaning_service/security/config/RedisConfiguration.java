@@ -1,39 +1,26 @@
 package com.example.cleaning_service.security.config;
 
-import com.example.cleaning_service.security.entities.token.TokenEntity;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.cleaning_service.security.cache.TokenRevocationPublisher;
+import com.example.cleaning_service.security.cache.UserAuthorizationCache;
+import com.example.cleaning_service.security.listeners.TokenRevocationListener;
+import com.example.cleaning_service.security.listeners.UserAuthorizationInvalidationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.core.RedisKeyExpiredEvent;
-import org.springframework.data.redis.core.RedisKeyValueAdapter;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
-import org.springframework.stereotype.Component;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 
 @Configuration
-@EnableRedisRepositories(enableKeyspaceEvents = RedisKeyValueAdapter.EnableKeyspaceEvents.ON_STARTUP)
 public class RedisConfiguration {
 
-    private static final Logger log = LoggerFactory.getLogger(RedisConfiguration.class);
-
     @Bean
-    public RedisTemplate<String, TokenEntity> getRedisTemplate(RedisConnectionFactory redisConnectionFactory) {
-        RedisTemplate<String, TokenEntity> redisTemplate = new RedisTemplate<>();
-        redisTemplate.setConnectionFactory(redisConnectionFactory);
-
-        return redisTemplate;
-    }
-
-    @Component
-    public static class SessionExpiredEventListener {
-        @EventListener
-        public void handleRedisKeyExpiredEvent(RedisKeyExpiredEvent<TokenEntity> event) {
-            TokenEntity expiredToken = (TokenEntity) event.getValue();
-            assert expiredToken != null;
-            log.info("Session with key={} has expired", expiredToken.getToken().substring(0, 10));
-        }
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                       TokenRevocationListener tokenRevocationListener,
+                                                                       UserAuthorizationInvalidationListener userAuthorizationInvalidationListener) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(tokenRevocationListener, new ChannelTopic(TokenRevocationPublisher.CHANNEL));
+        container.addMessageListener(userAuthorizationInvalidationListener, new ChannelTopic(UserAuthorizationCache.CHANNEL));
+        return container;
     }
 }
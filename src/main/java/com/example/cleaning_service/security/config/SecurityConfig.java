@@ -1,50 +1,88 @@
 package com.example.cleaning_service.security.config;
 
+import com.example.cleaning_service.security.authorization.CompiledPreAuthorizeAuthorizationManager;
+import com.example.cleaning_service.security.cache.RevocationFilter;
+import com.example.cleaning_service.security.cache.UserAuthorizationCache;
+import com.example.cleaning_service.security.cache.VerifiedTokenCache;
+import com.example.cleaning_service.security.crypto.BoundedPasswordEncoder;
 import com.example.cleaning_service.security.services.IJwtService;
 import com.example.cleaning_service.security.services.impl.CustomUserDetailsService;
-import com.example.cleaning_service.security.util.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity // Enables @PreAuthorize annotations
+@EnableMethodSecurity(prePostEnabled = false) // @PreAuthorize is enabled by the advisor below
 public class SecurityConfig {
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
 
-    public SecurityConfig(UserDetailsService userDetailsService) {
+    public SecurityConfig(CustomUserDetailsService userDetailsService) {
         this.userDetailsService = userDetailsService;
     }
 
     @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength,
+                                                  @Value("${security.password.pool-size:0}") int poolSize,
+                                                  @Value("${security.password.queue-capacity:64}") int queueCapacity,
+                                                  @Value("${security.password.wait-timeout:PT5S}") Duration waitTimeout,
+                                                  MeterRegistry meterRegistry) {
+        // A pool size of 0 means one hashing thread per available processor
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(strength, threads, queueCapacity, waitTimeout, meterRegistry);
+    }
+
+    /**
+     * Enforces {@code @PreAuthorize} with rules compiled at first use, falling back to SpEL for other expressions.
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor preAuthorizeAdvisor(ApplicationContext applicationContext) {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(applicationContext);
+        PreAuthorizeAuthorizationManager spelManager = new PreAuthorizeAuthorizationManager();
+        spelManager.setExpressionHandler(expressionHandler);
+        return AuthorizationManagerBeforeMethodInterceptor.preAuthorize(
+                new CompiledPreAuthorizeAuthorizationManager(spelManager));
     }
 
     @Bean
-    public AuthenticationManager authenticationManager() {
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
         authenticationProvider.setUserDetailsService(userDetailsService);
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        // Rehashes the password on login when the configured BCrypt strength changed
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
 
         return new ProviderManager(authenticationProvider);
     }
 
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService, IJwtService jwtService) {
-        return new JwtAuthenticationFilter(jwtUtil, userDetailsService, jwtService);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(VerifiedTokenCache verifiedTokenCache,
+                                                           RevocationFilter revocationFilter,
+                                                           UserAuthorizationCache userAuthorizationCache, IJwtService jwtService) {
+        return new JwtAuthenticationFilter(verifiedTokenCache, revocationFilter, userAuthorizationCache, jwtService);
     }
 
     @Bean
@@ -55,7 +93,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/login", "/auth/register", "/users", "/auth/token/public/**").permitAll()
                         .requestMatchers("/", "/swagger-ui/**", "/v3/api-docs/**", "/public/**").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
+                        .requestMatchers("/actuator/health/**", "/actuator/info").permitAll()
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
                         .requestMatchers("/ws-endpoint/**").permitAll()
                         .requestMatchers("/reports/**").hasAuthority("VIEW_REPORTS")
                         .requestMatchers("/orders/create").hasAuthority("CREATE_ORDERS")
@@ -8,12 +8,10 @@ import com.example.cleaning_service.security.controllers.AuthController;
 import com.example.cleaning_service.security.dtos.auth.AuthResponseProfileModel;
 import com.example.cleaning_service.security.dtos.auth.AuthResponseRegisterModel;
 import com.example.cleaning_service.security.dtos.auth.TokenModel;
-import com.example.cleaning_service.security.entities.user.User;
 import com.example.cleaning_service.security.mapper.AuthMapper;
 import com.example.cleaning_service.security.mapper.TokenEntityMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.web.PagedResourcesAssembler;
 
 @Configuration
 public class SecurityModelAssemblerConfig {
@@ -37,9 +35,4 @@ public class SecurityModelAssemblerConfig {
     public AuthResponseProfileModelAssembler authResponseProfileModelAssembler(AuthMapper authMapper) {
         return new AuthResponseProfileModelAssembler(AuthController.class, AuthResponseProfileModel.class, authMapper);
     }
-
-    @Bean
-    public PagedResourcesAssembler<User> pagedResourcesAssemblerUser(PagedResourcesAssembler<User> pagedResourcesAssembler) {
-        return pagedResourcesAssembler;
-    }
 }
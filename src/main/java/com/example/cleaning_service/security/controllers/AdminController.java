@@ -1,31 +1,32 @@
 package com.example.cleaning_service.security.controllers;
 
+import com.example.cleaning_service.commons.KeysetModel;
+import com.example.cleaning_service.commons.KeysetPage;
+import com.example.cleaning_service.commons.KeysetRequest;
 import com.example.cleaning_service.security.assemblers.UserResponseModelAssembler;
+import com.example.cleaning_service.security.dtos.user.BulkUserReport;
 import com.example.cleaning_service.security.dtos.user.UserRequest;
 import com.example.cleaning_service.security.dtos.user.UserResponseModel;
 import com.example.cleaning_service.security.entities.user.User;
-import com.example.cleaning_service.security.repositories.UserRepository;
+import com.example.cleaning_service.security.services.IUserProvisioningService;
 import com.example.cleaning_service.security.services.IUserService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
-import org.springdoc.core.annotations.ParameterObject;
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.Link;
-import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.UUID;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -39,17 +40,14 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
     private final IUserService userService;
+    private final IUserProvisioningService userProvisioningService;
     private final UserResponseModelAssembler userResponseModelAssembler;
-    private final UserRepository userRepository;
-    private final PagedResourcesAssembler<User> pagedResourcesAssembler;
 
-    public AdminController(IUserService userService, UserResponseModelAssembler userResponseModelAssembler,
-                           UserRepository userRepository,
-                           @Qualifier("pagedResourcesAssemblerUser") PagedResourcesAssembler<User> pagedResourcesAssembler) {
+    public AdminController(IUserService userService, IUserProvisioningService userProvisioningService,
+                           UserResponseModelAssembler userResponseModelAssembler) {
         this.userService = userService;
+        this.userProvisioningService = userProvisioningService;
         this.userResponseModelAssembler = userResponseModelAssembler;
-        this.userRepository = userRepository;
-        this.pagedResourcesAssembler = pagedResourcesAssembler;
     }
 
     @Operation(summary = "Create a new user (admin)", description = "Creates a new user with the provided details.")
@@ -65,27 +63,48 @@ public class AdminController {
         // Convert to UserResponseModel using assembler
         UserResponseModel userResponseModel = userResponseModelAssembler.toModel(user);
         // Add a link for all users
-        PageRequest pageRequest = PageRequest.of(0, 20);
-        Link allUsersLink = linkTo(methodOn(AdminController.class).getAllUsers(pageRequest)).withRel("users");
+        Link allUsersLink = linkTo(methodOn(AdminController.class)
+                .getAllUsers(null, null, KeysetRequest.DEFAULT_SIZE, false)).withRel("users");
 
         userResponseModel.add(allUsersLink);
         // Return userResponseModel with additional links
         return userResponseModel;
     }
 
-    @Operation(summary = "Get all users (admin)", description = "Fetches a paginated list of all users.")
+    @Operation(summary = "Provision users in bulk (admin)",
+            description = "Creates users from newline-delimited JSON, one user request per line, and reports the rejected lines.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "List of users retrieved successfully")
+            @ApiResponse(responseCode = "200", description = "Job completed, rejected lines are listed in the report")
+    })
+    @PreAuthorize("hasRole('ADMIN') and hasAuthority('MANAGE_USERS')")
+    @PostMapping(path = "/users/bulk", consumes = { "application/x-ndjson" }, produces = { "application/json" })
+    @ResponseStatus(HttpStatus.OK)
+    public BulkUserReport provisionUsers(InputStream requestBody, @AuthenticationPrincipal User admin) throws IOException {
+        return userProvisioningService.provisionUsers(requestBody, admin.getUsername());
+    }
+
+    @Operation(summary = "Get all users (admin)",
+            description = "Fetches a page of users ordered by creation time. Follow the 'next' and 'prev' links to page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List of users retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
     })
     @PreAuthorize("hasRole('ADMIN') and hasAuthority('MANAGE_USERS')")
     @GetMapping(path = "/users", produces = { "application/hal+json" })
     @ResponseStatus(HttpStatus.OK)
-    public PagedModel<UserResponseModel> getAllUsers(@ParameterObject Pageable pageable) {
-        Page<User> userPage = userRepository.findAll(pageable);
-        log.info("Fetched {} users on current page out of {} total users.",
-                userPage.getNumberOfElements(), userPage.getTotalElements());
-        pagedResourcesAssembler.setForceFirstAndLastRels(true);
-        return pagedResourcesAssembler.toModel(userPage, userResponseModelAssembler);
+    public KeysetModel<UserResponseModel> getAllUsers(
+            @Parameter(description = "Cursor from the 'next' link") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor from the 'prev' link") @RequestParam(required = false) String before,
+            @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Include an estimated total") @RequestParam(defaultValue = "false") boolean count) {
+        KeysetRequest request = KeysetRequest.of(after, before, size);
+        KeysetPage<User> userPage = userService.findPage(request);
+        log.info("Fetched {} users on current page.", userPage.content().size());
+        return new KeysetModel<>(
+                userResponseModelAssembler.toCollectionModel(userPage.content()).getContent(),
+                userPage, request, count ? userService.estimateCount() : null,
+                page -> linkTo(methodOn(AdminController.class)
+                        .getAllUsers(page.afterToken(), page.beforeToken(), page.size(), count)));
     }
 
     @Operation(summary = "Get user by ID (admin)", description = "Fetches details of a specific user by their ID.")
@@ -112,8 +131,8 @@ public class AdminController {
     public ResponseEntity<?> deleteUserById(@PathVariable UUID id) {
         userService.deleteUser(id);
 
-        Link allUsersLink = linkTo(methodOn(AdminController.class).getAllUsers(PageRequest.of(0, 20)))
-                .withRel("allUsers");
+        Link allUsersLink = linkTo(methodOn(AdminController.class)
+                .getAllUsers(null, null, KeysetRequest.DEFAULT_SIZE, false)).withRel("allUsers");
 
         return ResponseEntity.noContent()
                 .header("Link", allUsersLink.toUri().toString())
@@ -2,6 +2,7 @@ package com.example.cleaning_service.security.controllers;
 
 import com.example.cleaning_service.security.assemblers.AuthResponseProfileModelAssembler;
 import com.example.cleaning_service.security.assemblers.AuthResponseRegisterModelAssembler;
+import com.example.cleaning_service.security.assemblers.SessionModelAssembler;
 import com.example.cleaning_service.security.assemblers.TokenLoginModelAssembler;
 import com.example.cleaning_service.security.assemblers.TokenModelAssembler;
 import com.example.cleaning_service.security.dtos.auth.*;
@@ -17,12 +18,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
 import java.util.UUID;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -39,27 +42,31 @@ public class AuthController {
     private final TokenLoginModelAssembler tokenLoginModelAssembler;
     private final AuthResponseProfileModelAssembler authResponseProfileModelAssembler;
     private final IUserService iUserService;
+    private final SessionModelAssembler sessionModelAssembler;
 
     public AuthController(IAuthService authService, AuthResponseRegisterModelAssembler authResponseRegisterModelAssembler,
                           TokenModelAssembler tokenModelAssembler, TokenLoginModelAssembler tokenLoginModelAssembler,
-                          AuthResponseProfileModelAssembler authResponseProfileModelAssembler, IUserService iUserService) {
+                          AuthResponseProfileModelAssembler authResponseProfileModelAssembler, IUserService iUserService,
+                          SessionModelAssembler sessionModelAssembler) {
         this.authService = authService;
         this.authResponseRegisterModelAssembler = authResponseRegisterModelAssembler;
         this.tokenModelAssembler = tokenModelAssembler;
         this.tokenLoginModelAssembler = tokenLoginModelAssembler;
         this.authResponseProfileModelAssembler = authResponseProfileModelAssembler;
         this.iUserService = iUserService;
+        this.sessionModelAssembler = sessionModelAssembler;
     }
 
     @Operation(summary = "User login", description = "Authenticates a user and returns a JWT token.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Login successful"),
-            @ApiResponse(responseCode = "400", description = "Invalid login credentials")
+            @ApiResponse(responseCode = "400", description = "Invalid login credentials"),
+            @ApiResponse(responseCode = "429", description = "Too many login attempts")
     })
     @PostMapping(value = "/login", produces = { "application/hal+json" })
     @ResponseStatus(HttpStatus.OK)
-    public TokenModel login(@RequestBody @Valid AuthRequest authRequest) {
-        TokenEntity tokenEntity = authService.login(authRequest);
+    public TokenModel login(@RequestBody @Valid AuthRequest authRequest, HttpServletRequest request) {
+        TokenEntity tokenEntity = authService.login(authRequest, request.getRemoteAddr());
         TokenModel tokenModel = tokenLoginModelAssembler.toModel(tokenEntity);
         log.info("Assembling token model {}...", tokenModel.getAccessToken().substring(0, 10));
         return tokenModel;
@@ -110,7 +117,7 @@ public class AuthController {
         String token = request.getHeader("Authorization");
         authService.logout(token);
 
-        Link loginLink = linkTo(methodOn(AuthController.class).login(null)).withRel("login");
+        Link loginLink = linkTo(methodOn(AuthController.class).login(null, null)).withRel("login");
         return ResponseEntity.noContent()
                 .header("Link", loginLink.toUri().toString())
                 .build();
@@ -132,6 +139,16 @@ public class AuthController {
         return tokenLoginModelAssembler.toModel(tokenEntity);
     }
 
+    @Operation(summary = "JSON Web Key Set", description = "Publishes the public keys that verify issued tokens, indexed by kid.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "JWKS document returned")
+    })
+    @GetMapping(path = "/token/public/jwks", produces = { "application/jwk-set+json", "application/json" })
+    @ResponseStatus(HttpStatus.OK)
+    public Map<String, Object> getPublicJwkSet() {
+        return authService.getPublicJwkSet();
+    }
+
     @SecurityRequirement(name = "bearerAuth")
     @GetMapping(path = "/token/public/{id}", produces = { "application/hal+json" })
     @ResponseStatus(HttpStatus.OK)
@@ -139,4 +156,42 @@ public class AuthController {
         TokenEntity tokenEntity = authService.getTokenById(id, user);
         return tokenModelAssembler.toModel(tokenEntity);
     }
+
+    @Operation(summary = "List sessions", description = "Lists the live tokens issued to the authenticated user.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Sessions retrieved successfully"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized, invalid token")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping(path = "/sessions", produces = { "application/hal+json" })
+    @ResponseStatus(HttpStatus.OK)
+    public CollectionModel<SessionModel> getSessions(@AuthenticationPrincipal User user) {
+        CollectionModel<SessionModel> sessionModels = sessionModelAssembler.toCollectionModel(authService.getSessions(user));
+        sessionModels.add(linkTo(methodOn(AuthController.class).getSessions(user)).withSelfRel());
+        return sessionModels;
+    }
+
+    @Operation(summary = "Revoke a session", description = "Revokes one live token of the authenticated user.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Session revoked"),
+            @ApiResponse(responseCode = "403", description = "Session not found")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @DeleteMapping(path = "/sessions/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revokeSession(@PathVariable UUID id, @AuthenticationPrincipal User user) {
+        authService.revokeSession(id, user);
+    }
+
+    @Operation(summary = "Revoke all sessions", description = "Revokes every live token of the authenticated user, including the current one.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Sessions revoked"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized, invalid token")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @DeleteMapping(path = "/sessions")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void revokeAllSessions(@AuthenticationPrincipal User user) {
+        authService.revokeAllSessions(user);
+    }
 }
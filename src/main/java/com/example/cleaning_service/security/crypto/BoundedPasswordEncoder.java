@@ -0,0 +1,136 @@
+package com.example.cleaning_service.security.crypto;
+
+import com.example.cleaning_service.commons.BoundedThreadPool;
+import com.example.cleaning_service.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * BCrypt {@link PasswordEncoder} that runs every hash on a dedicated, bounded pool of platform threads.
+ * <p>
+ * Request threads are virtual, so without a bound a login burst would run any number of CPU-heavy hashes
+ * at once and starve every other endpoint. Here at most {@code poolSize} hashes run concurrently and at most
+ * {@code queueCapacity} wait; further requests, and requests that wait longer than {@code waitTimeout},
+ * fail fast with {@link PasswordHashingRejectedException}.
+ * <p>
+ * BCrypt does not check for interruption, so a hash that has started cannot be stopped: after a timeout it runs to
+ * completion and keeps its thread, and only {@code poolSize} bounds the CPU spent on abandoned hashes. A hash that
+ * times out while still queued is removed from the queue, so it does not hold a slot another request could use.
+ * <p>
+ * {@link #upgradeEncoding(String)} reports hashes whose cost factor differs from the configured one,
+ * so that {@code DaoAuthenticationProvider} rehashes them on the next successful login.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+    private static final String METRIC_PREFIX = "security.password";
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final Duration waitTimeout;
+    private final BoundedThreadPool pool;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(int strength, int poolSize, int queueCapacity, Duration waitTimeout,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.waitTimeout = waitTimeout;
+
+        this.pool = new BoundedThreadPool("password-hashing", "password-hash", poolSize, queueCapacity,
+                new ThreadPoolExecutor.AbortPolicy(), meterRegistry);
+        this.encodeTimer = Timer.builder(METRIC_PREFIX + ".hash")
+                .description("Time to hash or verify a password, including time spent queued")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder(METRIC_PREFIX + ".hash")
+                .description("Time to hash or verify a password, including time spent queued")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Password hashing requests rejected because the pool was saturated")
+                .register(meterRegistry);
+        log.info("Password hashing pool started with {} threads, queue capacity {} and BCrypt strength {}",
+                poolSize, queueCapacity, strength);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> submit(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matches = matchesTimer.record(() -> submit(() -> delegate.matches(rawPassword, encodedPassword)));
+        return Boolean.TRUE.equals(matches);
+    }
+
+    /**
+     * The number of hashes that can run at once.
+     */
+    public int getPoolSize() {
+        return pool.getThreads();
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            // BCrypt hashes look like $2a$10$..., where 10 is the cost factor
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Password hashing queue is full", e);
+        }
+
+        try {
+            return future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            abandon(future);
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException("Password hashing timed out", e);
+        } catch (InterruptedException e) {
+            abandon(future);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Keeps a queued hash from ever starting. A running one cannot be interrupted and is left to finish.
+     */
+    private void abandon(Future<?> future) {
+        future.cancel(false);
+        pool.purge();
+    }
+
+    @Override
+    public void close() {
+        pool.close();
+    }
+}
@@ -5,6 +5,7 @@ import com.example.cleaning_service.security.repositories.UserRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 @Component
 public class AdminInitializer implements CommandLineRunner {
@@ -19,6 +20,7 @@ public class AdminInitializer implements CommandLineRunner {
     }
 
     @Override
+    @Transactional
     public void run(String... args) {
         // Create an admin user if none exists
         if (!userRepository.existsByUsername("admin_user1")) {
@@ -0,0 +1,20 @@
+package com.example.cleaning_service.security.dtos.auth;
+
+import lombok.Getter;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@Relation(itemRelation = "session", collectionRelation = "sessions")
+public class SessionModel extends RepresentationModel<SessionModel> {
+    private final UUID id;
+    private final Instant expiresAt;
+
+    public SessionModel(UUID id, Instant expiresAt) {
+        this.id = id;
+        this.expiresAt = expiresAt;
+    }
+}
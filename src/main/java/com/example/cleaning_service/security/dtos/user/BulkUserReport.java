@@ -0,0 +1,24 @@
+package com.example.cleaning_service.security.dtos.user;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk provisioning job: every line that did not create a user is listed with the reason.
+ *
+ * @param received The number of non-blank lines read
+ * @param created  The number of users created
+ * @param failures The rejected lines, in input order
+ */
+public record BulkUserReport(
+        long received,
+        long created,
+        List<Failure> failures
+) {
+    /**
+     * @param line     The 1-based line number in the request body
+     * @param username The username of the line, or {@code null} if the line could not be parsed
+     * @param reason   Why no user was created
+     */
+    public record Failure(long line, String username, String reason) {
+    }
+}
@@ -1,11 +1,28 @@
 package com.example.cleaning_service.security.entities.permission;
 
-public enum EPermission {
-    CREATE_ACCOUNT,
-    MANAGE_USERS, VIEW_REPORTS, MANAGE_ROLES, DELETE_ACCOUNTS,
-    CREATE_ORDERS, CANCEL_ORDERS,
-    VIEW_ASSIGNED_ORDERS, UPDATE_ORDER_STATUS,
-    ASSIGN_CLEANERS, MONITOR_CLEANING_PROGRESS,
-    RATE_CLEANERS, VIEW_ORDERS,
-    RESPOND_TO_QUERIES, MANAGE_SCHEDULES
+import com.example.cleaning_service.security.util.EnumBitmask;
+
+/**
+ * Permissions are stored as bits of {@code security.users.permissions} at their {@link #bit()}, which is also recorded
+ * in {@code security.permissions.mask_bit}: give a new constant an unused bit, never change or reuse one.
+ */
+public enum EPermission implements EnumBitmask.Flag {
+    CREATE_ACCOUNT(0),
+    MANAGE_USERS(1), VIEW_REPORTS(2), MANAGE_ROLES(3), DELETE_ACCOUNTS(4),
+    CREATE_ORDERS(5), CANCEL_ORDERS(6),
+    VIEW_ASSIGNED_ORDERS(7), UPDATE_ORDER_STATUS(8),
+    ASSIGN_CLEANERS(9), MONITOR_CLEANING_PROGRESS(10),
+    RATE_CLEANERS(11), VIEW_ORDERS(12),
+    RESPOND_TO_QUERIES(13), MANAGE_SCHEDULES(14);
+
+    private final int bit;
+
+    EPermission(int bit) {
+        this.bit = bit;
+    }
+
+    @Override
+    public int bit() {
+        return bit;
+    }
 }
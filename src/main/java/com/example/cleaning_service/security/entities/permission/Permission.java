@@ -3,7 +3,6 @@ package com.example.cleaning_service.security.entities.permission;
 import com.example.cleaning_service.audit.Auditable;
 import jakarta.persistence.*;
 import lombok.Getter;
-import lombok.Setter;
 import org.springframework.security.core.GrantedAuthority;
 
 import java.util.UUID;
@@ -17,15 +16,23 @@ public class Permission extends Auditable implements GrantedAuthority {
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
-    @Setter
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, unique = true)
     private EPermission name;
 
+    // Same as name.bit(); lets migrations translate permission rows into user bitmasks
+    @Column(name = "mask_bit", nullable = false, unique = true)
+    private int bit;
+
     public Permission() {}
 
     public Permission(EPermission name) {
+        setName(name);
+    }
+
+    public void setName(EPermission name) {
         this.name = name;
+        this.bit = name.bit();
     }
 
     @Override
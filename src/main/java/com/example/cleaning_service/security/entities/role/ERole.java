@@ -1,25 +1,36 @@
 package com.example.cleaning_service.security.entities.role;
 
 import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.util.EnumBitmask;
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.util.Set;
 
 @Getter
 @Schema(enumAsRef = true, example = "USER")
-public enum ERole {
-    ADMIN(Set.of(EPermission.MANAGE_USERS, EPermission.MANAGE_ROLES, EPermission.VIEW_REPORTS, EPermission.DELETE_ACCOUNTS)),
-    USER(Set.of(EPermission.CREATE_ACCOUNT)),
-    CUSTOMER(Set.of(EPermission.CREATE_ORDERS, EPermission.CANCEL_ORDERS, EPermission.VIEW_ORDERS, EPermission.RATE_CLEANERS)),
-    CLEANER(Set.of(EPermission.VIEW_ASSIGNED_ORDERS, EPermission.UPDATE_ORDER_STATUS)),
-    SUPERVISOR(Set.of(EPermission.ASSIGN_CLEANERS, EPermission.MONITOR_CLEANING_PROGRESS)),
-    SUPPORT(Set.of(EPermission.RESPOND_TO_QUERIES, EPermission.VIEW_ORDERS, EPermission.MANAGE_SCHEDULES)),
-    PROVIDER(Set.of(EPermission.VIEW_ORDERS, EPermission.UPDATE_ORDER_STATUS));
+public enum ERole implements EnumBitmask.Flag {
+    ADMIN(0, Set.of(EPermission.MANAGE_USERS, EPermission.MANAGE_ROLES, EPermission.VIEW_REPORTS, EPermission.DELETE_ACCOUNTS)),
+    USER(1, Set.of(EPermission.CREATE_ACCOUNT)),
+    CUSTOMER(2, Set.of(EPermission.CREATE_ORDERS, EPermission.CANCEL_ORDERS, EPermission.VIEW_ORDERS, EPermission.RATE_CLEANERS)),
+    CLEANER(3, Set.of(EPermission.VIEW_ASSIGNED_ORDERS, EPermission.UPDATE_ORDER_STATUS)),
+    SUPERVISOR(4, Set.of(EPermission.ASSIGN_CLEANERS, EPermission.MONITOR_CLEANING_PROGRESS)),
+    SUPPORT(5, Set.of(EPermission.RESPOND_TO_QUERIES, EPermission.VIEW_ORDERS, EPermission.MANAGE_SCHEDULES)),
+    PROVIDER(6, Set.of(EPermission.VIEW_ORDERS, EPermission.UPDATE_ORDER_STATUS));
 
+    // Position in cached role masks; never change or reuse one
+    @Getter(AccessLevel.NONE)
+    private final int bit;
     private final Set<EPermission> permissions;
 
-    ERole(Set<EPermission> permissions) {
+    ERole(int bit, Set<EPermission> permissions) {
+        this.bit = bit;
         this.permissions = permissions;
     }
+
+    @Override
+    public int bit() {
+        return bit;
+    }
 }
\ No newline at end of file
@@ -25,7 +25,7 @@ public class Role extends Auditable {
     private ERole name;
 
     @Setter
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "role_permissions",
             schema = "security",
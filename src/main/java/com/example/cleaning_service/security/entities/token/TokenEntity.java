@@ -1,37 +1,26 @@
 package com.example.cleaning_service.security.entities.token;
 
 import lombok.Getter;
-import lombok.Setter;
-import org.springframework.data.annotation.Id;
-import org.springframework.data.redis.core.RedisHash;
-import org.springframework.data.redis.core.TimeToLive;
-import org.springframework.data.redis.core.index.Indexed;
 
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 
-@Setter
+/**
+ * An issued token together with its Redis state, identified by the token's {@code jti} claim.
+ */
 @Getter
-@RedisHash("token")
 public class TokenEntity {
-    @Id
-    private UUID id;
-
-    @Indexed
-    private String token;
-
-    private String username;
-    private boolean blacklisted;
-
-    @TimeToLive(unit = TimeUnit.MILLISECONDS)
-    private Long timeToLive;
-
-    public TokenEntity(String token, String username, Long timeToLive) {
-        this.id = UUID.randomUUID();
+    private final UUID id;
+    private final String token;
+    private final String username;
+    private final boolean blacklisted;
+    private final Long timeToLive;
+
+    public TokenEntity(UUID id, String token, String username, boolean blacklisted, Long timeToLive) {
+        this.id = id;
         this.token = token;
         this.username = username;
+        this.blacklisted = blacklisted;
         this.timeToLive = timeToLive;
-        this.blacklisted = false;
     }
 
     @Override
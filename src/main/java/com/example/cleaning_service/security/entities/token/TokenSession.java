@@ -0,0 +1,13 @@
+package com.example.cleaning_service.security.entities.token;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An entry of a user's session index: a live token identified by its {@code jti}.
+ *
+ * @param id        The token identifier
+ * @param expiresAt The expiration time of the token
+ */
+public record TokenSession(UUID id, Instant expiresAt) {
+}
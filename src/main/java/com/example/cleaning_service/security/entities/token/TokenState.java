@@ -0,0 +1,17 @@
+package com.example.cleaning_service.security.entities.token;
+
+/**
+ * State of an issued token as recorded in Redis.
+ */
+public enum TokenState {
+    /** No record exists: the token was never issued by this service, or its record expired. */
+    ABSENT,
+    /** The token was issued and has not been revoked. */
+    ACTIVE,
+    /** The token was revoked through logout or refresh. */
+    BLACKLISTED;
+
+    public boolean isActive() {
+        return this == ACTIVE;
+    }
+}
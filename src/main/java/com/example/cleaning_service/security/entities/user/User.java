@@ -1,19 +1,21 @@
 package com.example.cleaning_service.security.entities.user;
 
 import com.example.cleaning_service.audit.Auditable;
-import com.example.cleaning_service.security.entities.permission.Permission;
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
 import com.example.cleaning_service.security.entities.role.Role;
+import com.example.cleaning_service.security.util.AuthorityGrants;
+import com.example.cleaning_service.security.util.EnumBitmask;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Getter
@@ -46,32 +48,39 @@ public class User extends Auditable implements UserDetails {
             inverseJoinColumns = @JoinColumn(name = "role_id"))
     private Set<Role> roles = new HashSet<>();
 
-    @ManyToMany(fetch = FetchType.LAZY, cascade = { CascadeType.MERGE })
-    @JoinTable(name = "user_permissions",
-            schema = "security",
-            joinColumns = @JoinColumn(name = "user_id"),
-            inverseJoinColumns = @JoinColumn(name = "permission_id"))
-    private Set<Permission> permissions = new HashSet<>();
+    /**
+     * Effective permissions: those of the roles plus the granted and minus the denied ones,
+     * one bit per {@link EPermission#bit()}. Kept up to date by the methods that change roles or overrides.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "permissions", nullable = false)
+    private long permissionMask;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "granted_permissions", nullable = false)
+    private long grantedPermissionMask;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "denied_permissions", nullable = false)
+    private long deniedPermissionMask;
 
     public User() {
     }
 
-    public User(String username, String password, Role role, Set<Permission> permissions) {
+    public User(String username, String password, Role role) {
         this.username = username;
         this.password = password;
         addRole(role);
-        this.permissions = permissions;
         this.isEnabled = true;
         this.isAccountNonExpired = true;
         this.isCredentialsNonExpired = true;
         this.isAccountNonLocked = true;
     }
 
-    public User(String username, String password, Set<Role> roles, Set<Permission> permissions) {
+    public User(String username, String password, Set<Role> roles) {
         this.username = username;
         this.password = password;
         addAllRoles(roles);
-        this.permissions = permissions;
         this.isEnabled = true;
         this.isAccountNonExpired = true;
         this.isCredentialsNonExpired = true;
@@ -83,34 +92,73 @@ public class User extends Auditable implements UserDetails {
         this.password = password;
     }
 
+    public void setRoles(Set<Role> roles) {
+        this.roles = roles;
+        refreshPermissions();
+    }
+
     public void addAllRoles(Set<Role> roles) {
         this.roles.addAll(roles);
         log.info("Roles after added: {}", roles);
+        refreshPermissions();
     }
 
     public void addRole(Role role) {
         this.roles.add(role);
+        refreshPermissions();
     }
 
     public void removeRole(Role removeRole) {
         this.roles.removeIf(userRole -> userRole.getName().equals(removeRole.getName()));
-
+        refreshPermissions();
     }
 
     public void removeAllRoles(Set<Role> removeRoles) {
         removeRoles.forEach(this::removeRole);
     }
 
-    public void addPermissions(Set<Permission> permissions) {
-        this.permissions.addAll(permissions);
+    /**
+     * Grants permissions on top of those of the roles, lifting any deny of them.
+     */
+    public void grantPermissions(Set<EPermission> permissions) {
+        long mask = EnumBitmask.toMask(permissions);
+        this.grantedPermissionMask |= mask;
+        this.deniedPermissionMask &= ~mask;
+        refreshPermissions();
+    }
+
+    /**
+     * Withholds permissions even if a role grants them, revoking any grant of them.
+     */
+    public void denyPermissions(Set<EPermission> permissions) {
+        long mask = EnumBitmask.toMask(permissions);
+        this.deniedPermissionMask |= mask;
+        this.grantedPermissionMask &= ~mask;
+        refreshPermissions();
+    }
+
+    /**
+     * Drops all per-user grants and denies, leaving exactly the permissions of the roles.
+     */
+    public void clearPermissionOverrides() {
+        this.grantedPermissionMask = 0L;
+        this.deniedPermissionMask = 0L;
+        refreshPermissions();
     }
 
-    public void removePermission(Permission removePermission) {
-        this.permissions.removeIf(permission -> permission.getName().equals(removePermission.getName()));
+    /**
+     * Recomputes the effective permissions, e.g. after the permissions of one of the roles changed.
+     */
+    public void refreshPermissions() {
+        long roleMask = 0L;
+        for (Role role : roles) {
+            roleMask |= EnumBitmask.toMask(role.getName().getPermissions());
+        }
+        this.permissionMask = (roleMask | grantedPermissionMask) & ~deniedPermissionMask;
     }
 
-    public void removePermissions(Set<Permission> removePermissions) {
-        removePermissions.forEach(this::removePermission);
+    public Set<EPermission> getPermissions() {
+        return EnumBitmask.fromMask(EPermission.class, permissionMask);
     }
 
     @Override
@@ -125,12 +173,10 @@ public class User extends Auditable implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        Set<GrantedAuthority> authorities = new HashSet<>(permissions);
-        Set<GrantedAuthority> roleAuthorities = roles.stream()
-                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName().name()))
-                .collect(Collectors.toSet());
-        authorities.addAll(roleAuthorities);
-        return authorities;
+        // Returns the shared, precomputed authority set of this combination of roles and permissions
+        Set<ERole> roleNames = EnumSet.noneOf(ERole.class);
+        roles.forEach(role -> roleNames.add(role.getName()));
+        return AuthorityGrants.of(roleNames, getPermissions()).authorities();
     }
 
     @Override
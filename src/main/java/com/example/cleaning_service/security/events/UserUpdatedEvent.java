@@ -0,0 +1,6 @@
+package com.example.cleaning_service.security.events;
+
+import com.example.cleaning_service.security.entities.user.User;
+
+public record UserUpdatedEvent(User user, String previousUsername) {
+}
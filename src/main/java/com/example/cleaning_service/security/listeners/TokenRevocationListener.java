@@ -0,0 +1,42 @@
+package com.example.cleaning_service.security.listeners;
+
+import com.example.cleaning_service.security.cache.RevocationFilter;
+import com.example.cleaning_service.security.cache.VerifiedTokenCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class TokenRevocationListener implements MessageListener {
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevocationFilter revocationFilter;
+
+    public TokenRevocationListener(VerifiedTokenCache verifiedTokenCache, RevocationFilter revocationFilter) {
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.revocationFilter = revocationFilter;
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.US_ASCII);
+        int separator = body.indexOf(' ');
+        UUID tokenId;
+        try {
+            tokenId = UUID.fromString(separator < 0 ? body : body.substring(0, separator));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed token revocation message: {}", body);
+            return;
+        }
+        log.debug("Received revocation of token {}", tokenId);
+        revocationFilter.add(tokenId);
+        if (separator >= 0) {
+            verifiedTokenCache.evictByHash(body.substring(separator + 1));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.cleaning_service.security.listeners;
+
+import com.example.cleaning_service.security.cache.UserAuthorizationCache;
+import com.example.cleaning_service.security.events.UserDeletedEvent;
+import com.example.cleaning_service.security.events.UserRoleUpdatedEvent;
+import com.example.cleaning_service.security.events.UserUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Drops cached authorization snapshots once a change to the user is committed,
+ * so the next request reloads the committed state.
+ */
+@Slf4j
+@Component
+public class UserAuthorizationEventListener {
+    private final UserAuthorizationCache userAuthorizationCache;
+
+    public UserAuthorizationEventListener(UserAuthorizationCache userAuthorizationCache) {
+        this.userAuthorizationCache = userAuthorizationCache;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    void handleUserRoleUpdatedEvent(UserRoleUpdatedEvent event) {
+        userAuthorizationCache.invalidate(event.user().getUsername());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    void handleUserDeletedEvent(UserDeletedEvent event) {
+        userAuthorizationCache.invalidate(event.user().getUsername());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    void handleUserUpdatedEvent(UserUpdatedEvent event) {
+        userAuthorizationCache.invalidate(event.user().getUsername());
+        if (!event.previousUsername().equals(event.user().getUsername())) {
+            userAuthorizationCache.invalidate(event.previousUsername());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.cleaning_service.security.listeners;
+
+import com.example.cleaning_service.security.cache.UserAuthorizationCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Component
+public class UserAuthorizationInvalidationListener implements MessageListener {
+    private final UserAuthorizationCache userAuthorizationCache;
+
+    public UserAuthorizationInvalidationListener(UserAuthorizationCache userAuthorizationCache) {
+        this.userAuthorizationCache = userAuthorizationCache;
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, byte[] pattern) {
+        String username = new String(message.getBody(), StandardCharsets.UTF_8);
+        log.debug("Received authorization invalidation of user {}", username);
+        userAuthorizationCache.evictLocal(username);
+    }
+}
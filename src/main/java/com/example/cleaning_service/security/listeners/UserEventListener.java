@@ -1,15 +1,13 @@
 package com.example.cleaning_service.security.listeners;
 
 import com.example.cleaning_service.customers.events.CustomerCreationEvent;
+import com.example.cleaning_service.customers.events.CustomersImportedEvent;
 import com.example.cleaning_service.providers.events.ProviderCreatedEvent;
-import com.example.cleaning_service.security.entities.permission.Permission;
 import com.example.cleaning_service.security.entities.role.ERole;
-import com.example.cleaning_service.security.entities.role.Role;
 import com.example.cleaning_service.security.entities.user.User;
 import com.example.cleaning_service.security.events.UserRoleUpdatedEvent;
 import com.example.cleaning_service.security.services.IRoleService;
 import com.example.cleaning_service.security.services.IUserService;
-import com.example.cleaning_service.security.services.impl.RoleService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
@@ -18,8 +16,8 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.UUID;
+
 
 @Slf4j
 @Component
@@ -28,7 +26,7 @@ public class UserEventListener {
     private final IUserService userService;
     private final ApplicationEventPublisher applicationEventPublisher;
 
-    public UserEventListener(RoleService roleService, IUserService userService, ApplicationEventPublisher applicationEventPublisher) {
+    public UserEventListener(IRoleService roleService, IUserService userService, ApplicationEventPublisher applicationEventPublisher) {
         this.roleService = roleService;
         this.userService = userService;
         this.applicationEventPublisher = applicationEventPublisher;
@@ -37,11 +35,9 @@ public class UserEventListener {
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
     void handleProviderCreatedEvent(ProviderCreatedEvent providerCreatedEvent) {
-        Role providerRole = roleService.ensureRoleExists(ERole.PROVIDER);
-
         User user = userService.findById(providerCreatedEvent.user().getId());
 
-        updateUserRoleAndPermissions(user, providerRole);
+        updateUserRoleAndPermissions(user, ERole.PROVIDER);
     }
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
@@ -49,20 +45,23 @@ public class UserEventListener {
     void handleCustomerCreationEvent(CustomerCreationEvent customerCreationEvent) {
         User user = userService.findById(customerCreationEvent.accountRequest().user().getId());
 
-        Role customerRole = roleService.ensureRoleExists(ERole.CUSTOMER);
+        updateUserRoleAndPermissions(user, ERole.CUSTOMER);
+    }
 
-        updateUserRoleAndPermissions(user, customerRole);
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    void handleCustomersImportedEvent(CustomersImportedEvent customersImportedEvent) {
+        for (UUID userId : customersImportedEvent.userIds()) {
+            updateUserRoleAndPermissions(userService.findById(userId), ERole.CUSTOMER);
+        }
     }
 
     @Transactional
-    protected void updateUserRoleAndPermissions(User user, Role newRole) {
+    protected void updateUserRoleAndPermissions(User user, ERole newRole) {
         log.info("Attempting to update new role {} ", newRole);
-        user.addRole(newRole);
-
-        log.info("Updating user role {} ", user.getRoles());
-        Set<Permission> newRolePermissions = new HashSet<>(newRole.getPermissions());
+        user.addRole(roleService.getRole(newRole));
 
-        user.addPermissions(newRolePermissions);
+        log.info("Updating user role {} ", newRole);
 
         log.info("Updating user permissions {}", user.getPermissions());
         User savedUser = userService.saveUser(user);
@@ -0,0 +1,37 @@
+package com.example.cleaning_service.security.listeners;
+
+import com.example.cleaning_service.security.events.UserDeletedEvent;
+import com.example.cleaning_service.security.events.UserUpdatedEvent;
+import com.example.cleaning_service.security.services.IJwtService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Revokes every session of a user once a change that may take privileges away is committed.
+ * <p>
+ * Deleting a user, or updating its username, password or role, revokes all of its tokens, so a token
+ * never carries more roles or permissions than its user holds. Role grants published as
+ * {@code UserRoleUpdatedEvent} keep existing sessions; the user refreshes to obtain the new role.
+ */
+@Slf4j
+@Component
+public class UserSessionEventListener {
+    private final IJwtService jwtService;
+
+    public UserSessionEventListener(IJwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    void handleUserDeletedEvent(UserDeletedEvent event) {
+        jwtService.revokeAllSessions(event.user().getUsername());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    void handleUserUpdatedEvent(UserUpdatedEvent event) {
+        // Tokens are indexed under the username they were issued to
+        jwtService.revokeAllSessions(event.previousUsername());
+    }
+}
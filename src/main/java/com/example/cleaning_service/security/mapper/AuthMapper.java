@@ -2,16 +2,23 @@ package com.example.cleaning_service.security.mapper;
 
 import com.example.cleaning_service.security.dtos.auth.*;
 import com.example.cleaning_service.security.entities.user.User;
+import com.example.cleaning_service.security.services.IRoleService;
 import org.springframework.stereotype.Component;
 
 @Component
 public class AuthMapper {
+    private final IRoleService roleService;
+
+    public AuthMapper(IRoleService roleService) {
+        this.roleService = roleService;
+    }
+
     public AuthResponseProfileModel fromUserToAuthResponseProfileModel(User user) {
         return new AuthResponseProfileModel(
                 user.getId(),
                 user.getUsername(),
                 RoleMapper.fromRolesToRoleResponseSet(user.getRoles()),
-                PermissionMapper.fromPermissionSetToPermissionResponseSet(user.getPermissions())
+                PermissionMapper.fromPermissionSetToPermissionResponseSet(user.getPermissions(), roleService::getPermissionId)
         );
     }
 
@@ -1,22 +1,26 @@
 package com.example.cleaning_service.security.mapper;
 
 import com.example.cleaning_service.security.dtos.user.PermissionResponse;
-import com.example.cleaning_service.security.entities.permission.Permission;
+import com.example.cleaning_service.security.entities.permission.EPermission;
 
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class PermissionMapper {
-    public static Set<PermissionResponse> fromPermissionSetToPermissionResponseSet(Set<Permission> permissions) {
+    public static Set<PermissionResponse> fromPermissionSetToPermissionResponseSet(Set<EPermission> permissions,
+                                                                                   Function<EPermission, UUID> permissionIds) {
         return permissions.stream()
-                .map(PermissionMapper::fromPermissionToPermissionResponse)
+                .map(permission -> fromPermissionToPermissionResponse(permission, permissionIds))
                 .collect(Collectors.toSet());
     }
 
-    public static PermissionResponse fromPermissionToPermissionResponse(Permission permission) {
+    public static PermissionResponse fromPermissionToPermissionResponse(EPermission permission,
+                                                                        Function<EPermission, UUID> permissionIds) {
         return new PermissionResponse(
-                permission.getId(),
-                permission.getName()
+                permissionIds.apply(permission),
+                permission
         );
     }
 }
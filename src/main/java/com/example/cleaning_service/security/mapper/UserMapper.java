@@ -2,17 +2,23 @@ package com.example.cleaning_service.security.mapper;
 
 import com.example.cleaning_service.security.dtos.user.UserResponseModel;
 import com.example.cleaning_service.security.entities.user.User;
+import com.example.cleaning_service.security.services.IRoleService;
 import org.springframework.stereotype.Component;
 
 @Component
 public class UserMapper {
+    private final IRoleService roleService;
+
+    public UserMapper(IRoleService roleService) {
+        this.roleService = roleService;
+    }
 
     public UserResponseModel fromUserToUserResponseModel(User user) {
         return new UserResponseModel(
                 user.getId(),
                 user.getUsername(),
                 RoleMapper.fromRolesToRoleResponseSet(user.getRoles()),
-                PermissionMapper.fromPermissionSetToPermissionResponseSet(user.getPermissions())
+                PermissionMapper.fromPermissionSetToPermissionResponseSet(user.getPermissions(), roleService::getPermissionId)
         );
     }
 }
@@ -0,0 +1,348 @@
+package com.example.cleaning_service.security.repositories;
+
+import com.example.cleaning_service.security.entities.token.TokenEntity;
+import com.example.cleaning_service.security.entities.token.TokenSession;
+import com.example.cleaning_service.security.entities.token.TokenState;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Stores issued tokens as a single Redis string per token, keyed by the token's {@code jti}.
+ * <p>
+ * Each value uses a compact binary layout:
+ * <pre>
+ * [0]       header: format version in the high nibble, state flags in the low nibble
+ * [1..8]    expiration time, epoch millis
+ * [9..10]   username length in bytes
+ * [11..]    username (UTF-8), followed by the raw token (ASCII)
+ * </pre>
+ * Keeping the state in the first byte lets {@link #findState(UUID)} answer existence and
+ * blacklisting with a single {@code GETRANGE key 0 0}, without transferring the token.
+ * <p>
+ * Every user also has a session index, a sorted set of the ids of their live tokens scored by
+ * expiration time. Issuing, blacklisting and rotating a token update the index in the same script call,
+ * expired entries are pruned whenever the index is written or read, and
+ * {@link #revokeAll(String, Duration)} revokes every session of a user in one call.
+ * <p>
+ * Token records expire through their own TTL. Index entries are tracked in a global expiry index,
+ * a sorted set of {@code <token id> <username>} scored by expiration time, which
+ * {@link #sweepExpired(int)} drains in batches.
+ */
+@Repository
+public class TokenStateRepository {
+    private static final String KEY_PREFIX = "token:state:";
+    private static final String REVOKED_KEY = "token:revoked";
+    private static final String SESSIONS_KEY_PREFIX = "token:sessions:";
+    private static final String EXPIRY_KEY = "token:expiry";
+    private static final int FORMAT_VERSION = 1;
+    private static final int FLAG_BLACKLISTED = 0x01;
+    private static final int HEADER_LENGTH = 1 + Long.BYTES + Short.BYTES;
+
+    // Stores the record and indexes it under its user; the index lives as long as its last token
+    private static final RedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[5])
+            redis.call('ZADD', KEYS[2], ARGV[3], ARGV[4])
+            if redis.call('PTTL', KEYS[2]) < tonumber(ARGV[2]) then
+                redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            end
+            redis.call('ZADD', KEYS[3], ARGV[3], ARGV[6])
+            return 1
+            """, Long.class);
+
+    // Only flag a record that still exists, so a late logout never resurrects an expired token.
+    // The id stays in the revoked set until the token itself expires, after the record is gone.
+    private static final RedisScript<Long> BLACKLIST_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                redis.call('SETRANGE', KEYS[1], 0, ARGV[1])
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                redis.call('ZADD', KEYS[2], ARGV[3], ARGV[4])
+                redis.call('ZREM', KEYS[3], ARGV[4])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    // Blacklists the old record exactly like BLACKLIST_SCRIPT and stores and indexes the new one in the same step.
+    // A missing or already blacklisted old record aborts the rotation, so a token can be refreshed only once.
+    private static final RedisScript<Long> ROTATE_SCRIPT = new DefaultRedisScript<>("""
+            local header = redis.call('GETRANGE', KEYS[1], 0, 0)
+            if header == '' or bit.band(string.byte(header), 1) == 1 then
+                return 0
+            end
+            redis.call('SETRANGE', KEYS[1], 0, ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            redis.call('ZADD', KEYS[2], ARGV[3], ARGV[4])
+            redis.call('ZREM', KEYS[4], ARGV[4])
+            redis.call('SET', KEYS[3], ARGV[5], 'PX', ARGV[6])
+            redis.call('ZREMRANGEBYSCORE', KEYS[5], '-inf', ARGV[9])
+            redis.call('ZADD', KEYS[5], ARGV[7], ARGV[8])
+            if redis.call('PTTL', KEYS[5]) < tonumber(ARGV[6]) then
+                redis.call('PEXPIRE', KEYS[5], ARGV[6])
+            end
+            redis.call('ZADD', KEYS[6], ARGV[7], ARGV[10])
+            return 1
+            """, Long.class);
+
+    // Blacklists every live token in the index and drops the index, returning the revoked ids.
+    // Records are addressed through ARGV[4], so this script assumes a single Redis node rather than a cluster.
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REVOKE_ALL_SCRIPT = new DefaultRedisScript<>("""
+            local sessions = redis.call('ZRANGEBYSCORE', KEYS[1], ARGV[3], '+inf', 'WITHSCORES')
+            local revoked = {}
+            for i = 1, #sessions, 2 do
+                local key = ARGV[4] .. sessions[i]
+                if redis.call('EXISTS', key) == 1 then
+                    redis.call('SETRANGE', key, 0, ARGV[1])
+                    redis.call('PEXPIRE', key, ARGV[2])
+                    redis.call('ZADD', KEYS[2], sessions[i + 1], sessions[i])
+                    table.insert(revoked, sessions[i])
+                end
+            end
+            redis.call('DEL', KEYS[1])
+            return revoked
+            """, List.class);
+
+    // Removes a batch of expired entries from the expiry index and from the session indexes they point to,
+    // then drops expired ids from the revoked set. Session indexes are addressed through ARGV[3] like above.
+    private static final RedisScript<Long> SWEEP_SCRIPT = new DefaultRedisScript<>("""
+            local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, ARGV[2])
+            for _, entry in ipairs(expired) do
+                redis.call('ZREM', ARGV[3] .. string.sub(entry, 38), string.sub(entry, 1, 36))
+            end
+            if #expired > 0 then
+                redis.call('ZREM', KEYS[1], unpack(expired))
+            end
+            redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', ARGV[1])
+            return #expired
+            """, Long.class);
+
+    // Script results that are lists are deserialized element by element with the result serializer
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final RedisSerializer<List> ID_LIST_SERIALIZER = (RedisSerializer) RedisSerializer.string();
+
+    private final StringRedisTemplate redisTemplate;
+
+    public TokenStateRepository(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Stores a newly issued token, expiring the record together with the token.
+     */
+    public void save(UUID id, String token, String username, Instant expiresAt) {
+        long timeToLive = Duration.between(Instant.now(), expiresAt).toMillis();
+        redisTemplate.execute(SAVE_SCRIPT, RedisSerializer.byteArray(), new GenericToStringSerializer<>(Long.class),
+                List.of(KEY_PREFIX + id, SESSIONS_KEY_PREFIX + username, EXPIRY_KEY), encode(token, username, expiresAt),
+                ascii(timeToLive), ascii(expiresAt.toEpochMilli()), ascii(id), ascii(System.currentTimeMillis()),
+                expiryEntry(id, username));
+    }
+
+    /**
+     * Reads existence and blacklist state together with one {@code GETRANGE} command.
+     */
+    public TokenState findState(UUID id) {
+        byte[] header = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().getRange(key(id), 0, 0));
+        if (header == null || header.length == 0) {
+            return TokenState.ABSENT;
+        }
+        return (header[0] & FLAG_BLACKLISTED) != 0 ? TokenState.BLACKLISTED : TokenState.ACTIVE;
+    }
+
+    public Optional<TokenEntity> findById(UUID id) {
+        byte[] value = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                connection.stringCommands().get(key(id)));
+        if (value == null || value.length < HEADER_LENGTH) {
+            return Optional.empty();
+        }
+        return Optional.of(decode(id, value));
+    }
+
+    /**
+     * Flags the token as blacklisted, shortens its record to the given time to live,
+     * adds its id to the revoked set until the token expires and removes it from the user's sessions.
+     *
+     * @return true if the token record existed, false otherwise.
+     */
+    public boolean blacklist(UUID id, String username, Duration timeToLive, Instant expiresAt) {
+        Long updated = redisTemplate.execute(BLACKLIST_SCRIPT, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(KEY_PREFIX + id, REVOKED_KEY, SESSIONS_KEY_PREFIX + username), blacklistedHeader(),
+                ascii(timeToLive.toMillis()), ascii(expiresAt.toEpochMilli()), ascii(id));
+        return updated != null && updated == 1L;
+    }
+
+    /**
+     * Atomically blacklists a token and stores the token replacing it, in a single script call.
+     *
+     * @return true if the old token was active and has been replaced, false if it was missing or already blacklisted.
+     */
+    public boolean rotate(UUID oldId, String oldUsername, Duration blacklistTimeToLive, Instant oldExpiresAt,
+                          UUID newId, String newToken, String username, Instant newExpiresAt) {
+        long timeToLive = Duration.between(Instant.now(), newExpiresAt).toMillis();
+        Long rotated = redisTemplate.execute(ROTATE_SCRIPT, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class),
+                List.of(KEY_PREFIX + oldId, REVOKED_KEY, KEY_PREFIX + newId,
+                        SESSIONS_KEY_PREFIX + oldUsername, SESSIONS_KEY_PREFIX + username, EXPIRY_KEY), blacklistedHeader(),
+                ascii(blacklistTimeToLive.toMillis()), ascii(oldExpiresAt.toEpochMilli()), ascii(oldId),
+                encode(newToken, username, newExpiresAt), ascii(timeToLive),
+                ascii(newExpiresAt.toEpochMilli()), ascii(newId), ascii(System.currentTimeMillis()),
+                expiryEntry(newId, username));
+        return rotated != null && rotated == 1L;
+    }
+
+    /**
+     * Returns the live sessions of a user, soonest expiring first.
+     */
+    public List<TokenSession> findSessions(String username) {
+        String key = SESSIONS_KEY_PREFIX + username;
+        long now = System.currentTimeMillis();
+        redisTemplate.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+        Set<ZSetOperations.TypedTuple<String>> sessions = redisTemplate.opsForZSet()
+                .rangeByScoreWithScores(key, now, Double.POSITIVE_INFINITY);
+        if (sessions == null) {
+            return List.of();
+        }
+        return sessions.stream()
+                .map(session -> new TokenSession(UUID.fromString(Objects.requireNonNull(session.getValue())),
+                        Instant.ofEpochMilli(Objects.requireNonNull(session.getScore()).longValue())))
+                .toList();
+    }
+
+    /**
+     * Returns the session with the given id if it is one of the user's live sessions.
+     */
+    public Optional<TokenSession> findSession(String username, UUID id) {
+        Double expiresAt = redisTemplate.opsForZSet().score(SESSIONS_KEY_PREFIX + username, id.toString());
+        if (expiresAt == null || expiresAt <= System.currentTimeMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(new TokenSession(id, Instant.ofEpochMilli(expiresAt.longValue())));
+    }
+
+    /**
+     * Blacklists every live token of a user in a single script call and drops the user's session index.
+     *
+     * @return the ids of the revoked tokens.
+     */
+    public List<UUID> revokeAll(String username, Duration blacklistTimeToLive) {
+        List<?> revoked = redisTemplate.execute(REVOKE_ALL_SCRIPT, RedisSerializer.byteArray(), ID_LIST_SERIALIZER,
+                List.of(SESSIONS_KEY_PREFIX + username, REVOKED_KEY), blacklistedHeader(),
+                ascii(blacklistTimeToLive.toMillis()), ascii(System.currentTimeMillis()),
+                KEY_PREFIX.getBytes(StandardCharsets.US_ASCII));
+        if (revoked == null) {
+            return List.of();
+        }
+        return revoked.stream().map(id -> UUID.fromString(id.toString())).toList();
+    }
+
+    /**
+     * Returns the ids of revoked tokens that have not expired yet.
+     */
+    public Set<UUID> findRevokedIds() {
+        long now = System.currentTimeMillis();
+        Set<String> ids = redisTemplate.opsForZSet().rangeByScore(REVOKED_KEY, now, Double.POSITIVE_INFINITY);
+        if (ids == null) {
+            return Set.of();
+        }
+        return ids.stream().map(UUID::fromString).collect(Collectors.toSet());
+    }
+
+    /**
+     * Removes up to {@code batchSize} expired tokens from the expiry index and from their users' session indexes,
+     * and drops expired ids from the revoked set.
+     *
+     * @return the number of expiry index entries removed.
+     */
+    public long sweepExpired(int batchSize) {
+        Long swept = redisTemplate.execute(SWEEP_SCRIPT, RedisSerializer.byteArray(),
+                new GenericToStringSerializer<>(Long.class), List.of(EXPIRY_KEY, REVOKED_KEY),
+                ascii(System.currentTimeMillis()), ascii(batchSize), SESSIONS_KEY_PREFIX.getBytes(StandardCharsets.US_ASCII));
+        return swept != null ? swept : 0;
+    }
+
+    /**
+     * Returns the number of entries in the expiry index, including expired entries not swept yet.
+     */
+    public long countExpiryIndexEntries() {
+        Long size = redisTemplate.opsForZSet().zCard(EXPIRY_KEY);
+        return size != null ? size : 0;
+    }
+
+    /**
+     * Returns the number of issued tokens that have not expired, as recorded in the expiry index.
+     */
+    public long countLiveTokens() {
+        Long count = redisTemplate.opsForZSet().count(EXPIRY_KEY, System.currentTimeMillis(), Double.POSITIVE_INFINITY);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Returns the number of bytes Redis uses to hold the token record, as reported by {@code MEMORY USAGE}.
+     */
+    public Long memoryUsage(UUID id) {
+        return redisTemplate.execute((RedisCallback<Long>) connection ->
+                (Long) connection.execute("MEMORY", "USAGE".getBytes(StandardCharsets.US_ASCII), key(id)));
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] ascii(UUID id) {
+        return id.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] expiryEntry(UUID id, String username) {
+        return (id + " " + username).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] blacklistedHeader() {
+        return new byte[]{(byte) (FORMAT_VERSION << 4 | FLAG_BLACKLISTED)};
+    }
+
+    private static byte[] key(UUID id) {
+        return (KEY_PREFIX + id).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static byte[] encode(String token, String username, Instant expiresAt) {
+        byte[] usernameBytes = username.getBytes(StandardCharsets.UTF_8);
+        byte[] tokenBytes = token.getBytes(StandardCharsets.US_ASCII);
+        return ByteBuffer.allocate(HEADER_LENGTH + usernameBytes.length + tokenBytes.length)
+                .put((byte) (FORMAT_VERSION << 4))
+                .putLong(expiresAt.toEpochMilli())
+                .putShort((short) usernameBytes.length)
+                .put(usernameBytes)
+                .put(tokenBytes)
+                .array();
+    }
+
+    static TokenEntity decode(UUID id, byte[] value) {
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        boolean blacklisted = (buffer.get() & FLAG_BLACKLISTED) != 0;
+        long expiresAt = buffer.getLong();
+        byte[] usernameBytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(usernameBytes);
+        String token = new String(value, buffer.position(), buffer.remaining(), StandardCharsets.US_ASCII);
+        long timeToLive = Math.max(0, expiresAt - System.currentTimeMillis());
+        return new TokenEntity(id, token, new String(usernameBytes, StandardCharsets.UTF_8), blacklisted, timeToLive);
+    }
+}
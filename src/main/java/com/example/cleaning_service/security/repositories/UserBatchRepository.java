@@ -0,0 +1,57 @@
+package com.example.cleaning_service.security.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inserts new users with plain JDBC batches, bypassing the persistence context.
+ * <p>
+ * Each call sends one batch per table, which the Postgres driver rewrites into multi-row inserts when
+ * {@code reWriteBatchedInserts} is enabled on the data source.
+ */
+@Repository
+public class UserBatchRepository {
+    private static final String INSERT_USER = """
+            INSERT INTO security.users (id, version, created_at, created_by, username, password, is_enabled,
+                                        is_account_non_expired, is_account_non_locked, is_credentials_non_expired,
+                                        permissions, granted_permissions, denied_permissions)
+            VALUES (?, 0, ?, ?, ?, ?, true, true, true, true, ?, 0, 0)
+            """;
+    private static final String INSERT_USER_ROLE = "INSERT INTO security.user_roles (user_id, role_id) VALUES (?, ?)";
+
+    /**
+     * A user to insert with a single role and the permissions of that role.
+     */
+    public record NewUser(UUID id, String username, String encodedPassword, UUID roleId, long permissionMask) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the users and their roles. Must run in a transaction, so that a failing row rolls back the whole batch.
+     */
+    public void insertAll(List<NewUser> users, Instant createdAt, String createdBy) {
+        Timestamp timestamp = Timestamp.from(createdAt);
+        jdbcTemplate.batchUpdate(INSERT_USER, users, users.size(), (statement, user) -> {
+            statement.setObject(1, user.id());
+            statement.setTimestamp(2, timestamp);
+            statement.setString(3, createdBy);
+            statement.setString(4, user.username());
+            statement.setString(5, user.encodedPassword());
+            statement.setLong(6, user.permissionMask());
+        });
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE, users, users.size(), (statement, user) -> {
+            statement.setObject(1, user.id());
+            statement.setObject(2, user.roleId());
+        });
+    }
+}
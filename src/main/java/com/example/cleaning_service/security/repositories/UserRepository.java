@@ -1,16 +1,65 @@
 package com.example.cleaning_service.security.repositories;
 
+import com.example.cleaning_service.security.entities.role.ERole;
 import com.example.cleaning_service.security.entities.user.User;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
-    @EntityGraph(attributePaths = {"roles", "permissions"})
-    Optional<User> findWithRolesAndPermissionsByUsername(String username);
+    @EntityGraph(attributePaths = {"roles"})
+    Optional<User> findWithRolesByUsername(String username);
+
+    @EntityGraph(attributePaths = {"roles"})
+    List<User> findByRolesName(ERole name);
+
     boolean existsByUsername(String username);
+
+    @EntityGraph(attributePaths = {"roles"})
+    List<User> findWithRolesByIdIn(Collection<UUID> ids);
+
+    /*
+     * Keyset pages of all users ordered by (created_at, id). The row comparison is answered from
+     * ix_users_created_at_id, so every page costs the same however far the client pages.
+     */
+    @Query(value = "SELECT u.id FROM security.users u ORDER BY u.created_at, u.id LIMIT :limit", nativeQuery = true)
+    List<UUID> findFirstIds(@Param("limit") int limit);
+
+    @Query(value = """
+            SELECT u.id FROM security.users u
+            WHERE (u.created_at, u.id) > (CAST(:createdAt AS TIMESTAMP), :id)
+            ORDER BY u.created_at, u.id LIMIT :limit""", nativeQuery = true)
+    List<UUID> findIdsAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, @Param("limit") int limit);
+
+    @Query(value = """
+            SELECT u.id FROM security.users u
+            WHERE (u.created_at, u.id) < (CAST(:createdAt AS TIMESTAMP), :id)
+            ORDER BY u.created_at DESC, u.id DESC LIMIT :limit""", nativeQuery = true)
+    List<UUID> findIdsBefore(@Param("createdAt") Instant createdAt, @Param("id") UUID id, @Param("limit") int limit);
+
+    /**
+     * Row count from the planner statistics, refreshed by autovacuum; avoids scanning the table.
+     */
+    @Query(value = "SELECT GREATEST(c.reltuples, 0)::bigint FROM pg_class c WHERE c.oid = 'security.users'::regclass",
+            nativeQuery = true)
+    long estimateCount();
+
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Modifying
+    @Query("update User u set u.isAccountNonLocked = :nonLocked, u.version = u.version + 1 " +
+            "where u.username = :username and u.isAccountNonLocked <> :nonLocked")
+    int updateAccountNonLocked(@Param("username") String username, @Param("nonLocked") boolean nonLocked);
 }
\ No newline at end of file
@@ -2,14 +2,21 @@ package com.example.cleaning_service.security.services;
 
 import com.example.cleaning_service.security.dtos.auth.*;
 import com.example.cleaning_service.security.entities.token.TokenEntity;
+import com.example.cleaning_service.security.entities.token.TokenSession;
 import com.example.cleaning_service.security.entities.user.User;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface IAuthService {
     User register(AuthRequest authRequest);
-    TokenEntity login(AuthRequest authRequest);
+    TokenEntity login(AuthRequest authRequest, String clientIp);
     void logout(String token);
     TokenEntity refreshToken(String token, User user);
     TokenEntity getTokenById(UUID tokenId, User user);
+    Map<String, Object> getPublicJwkSet();
+    List<TokenSession> getSessions(User user);
+    void revokeSession(UUID sessionId, User user);
+    void revokeAllSessions(User user);
 }
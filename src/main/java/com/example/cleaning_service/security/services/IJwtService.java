@@ -1,15 +1,22 @@
 package com.example.cleaning_service.security.services;
 
 import com.example.cleaning_service.security.entities.token.TokenEntity;
+import com.example.cleaning_service.security.entities.token.TokenSession;
+import com.example.cleaning_service.security.entities.token.TokenState;
+import com.example.cleaning_service.security.util.IssuedToken;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface IJwtService {
-    TokenEntity saveToken(String token);
-    boolean existsByToken(String token);
+    TokenEntity saveToken(IssuedToken token);
+    TokenEntity rotateToken(String oldToken, IssuedToken newToken);
+    TokenState getTokenState(String tokenId);
     void logoutToken(String token);
 
     TokenEntity findById(UUID id);
-    TokenEntity findByToken(String token);
-    boolean isTokenBlacklisted(String token);
+
+    List<TokenSession> findSessions(String username);
+    void revokeSession(String username, UUID tokenId);
+    int revokeAllSessions(String username);
 }
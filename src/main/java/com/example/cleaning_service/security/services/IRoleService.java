@@ -1,8 +1,15 @@
 package com.example.cleaning_service.security.services;
 
+import com.example.cleaning_service.security.entities.permission.EPermission;
 import com.example.cleaning_service.security.entities.role.ERole;
 import com.example.cleaning_service.security.entities.role.Role;
 
+import java.util.UUID;
+
 public interface IRoleService {
-    Role ensureRoleExists(ERole roleName);
-}
\ No newline at end of file
+    Role getRole(ERole roleName);
+
+    UUID getRoleId(ERole roleName);
+
+    UUID getPermissionId(EPermission permission);
+}
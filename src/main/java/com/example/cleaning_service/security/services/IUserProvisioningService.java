@@ -0,0 +1,10 @@
+package com.example.cleaning_service.security.services;
+
+import com.example.cleaning_service.security.dtos.user.BulkUserReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface IUserProvisioningService {
+    BulkUserReport provisionUsers(InputStream ndjson, String provisionedBy) throws IOException;
+}
@@ -1,5 +1,7 @@
 package com.example.cleaning_service.security.services;
 
+import com.example.cleaning_service.commons.KeysetPage;
+import com.example.cleaning_service.commons.KeysetRequest;
 import com.example.cleaning_service.security.dtos.auth.AuthRequest;
 import com.example.cleaning_service.security.dtos.user.UserRequest;
 import com.example.cleaning_service.security.entities.user.User;
@@ -8,9 +10,12 @@ import java.util.UUID;
 
 public interface IUserService {
     User findById(UUID userId);
+    KeysetPage<User> findPage(KeysetRequest request);
+    long estimateCount();
     User createUser(UserRequest userRequest);
     User register(AuthRequest authRequest);
     void deleteUser(UUID id);
     User updateUser(UUID id, UserRequest userRequest);
     User saveUser(User user);
+    boolean setAccountLocked(String username, boolean locked);
 }
\ No newline at end of file
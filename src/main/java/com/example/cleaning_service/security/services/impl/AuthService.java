@@ -2,10 +2,14 @@ package com.example.cleaning_service.security.services.impl;
 
 import com.example.cleaning_service.security.dtos.auth.*;
 import com.example.cleaning_service.security.entities.token.TokenEntity;
+import com.example.cleaning_service.security.entities.token.TokenSession;
 import com.example.cleaning_service.security.entities.user.User;
 import com.example.cleaning_service.security.services.IAuthService;
 import com.example.cleaning_service.security.services.IJwtService;
 import com.example.cleaning_service.security.services.IUserService;
+import com.example.cleaning_service.security.throttling.LoginThrottle;
+import com.example.cleaning_service.security.util.IssuedToken;
+import com.example.cleaning_service.security.util.JwtKeyring;
 import com.example.cleaning_service.security.util.JwtUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +21,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -27,13 +33,18 @@ class AuthService implements IAuthService {
     private final IUserService userService;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final JwtKeyring jwtKeyring;
+    private final LoginThrottle loginThrottle;
 
     public AuthService(IJwtService jwtService, IUserService userService, JwtUtil jwtUtil,
-                       AuthenticationManager authenticationManager) {
+                       AuthenticationManager authenticationManager, JwtKeyring jwtKeyring,
+                       LoginThrottle loginThrottle) {
         this.jwtService = jwtService;
         this.userService = userService;
         this.jwtUtil = jwtUtil;
         this.authenticationManager = authenticationManager;
+        this.jwtKeyring = jwtKeyring;
+        this.loginThrottle = loginThrottle;
     }
 
     @Override
@@ -46,10 +57,20 @@ class AuthService implements IAuthService {
 
     @Override
     @Transactional
-    public TokenEntity login(AuthRequest authRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(authRequest.username(), authRequest.password())
-        );
+    public TokenEntity login(AuthRequest authRequest, String clientIp) {
+        // Rejects throttled attempts before the password is hashed
+        loginThrottle.acquire(authRequest.username(), clientIp);
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(authRequest.username(), authRequest.password())
+            );
+        } catch (BadCredentialsException e) {
+            loginThrottle.recordFailure(authRequest.username());
+            throw e;
+        }
+        loginThrottle.recordSuccess(authRequest.username());
 
         User user = (User) authentication.getPrincipal();
         return saveAndGetTokenEntity(user);
@@ -71,13 +92,20 @@ class AuthService implements IAuthService {
     @Transactional
     public TokenEntity refreshToken(String token, User user) {
         log.info("Attempting to refresh token for user {}", user.getId());
-        logout(token);
-        return saveAndGetTokenEntity(user);
+        if (token == null || !token.startsWith("Bearer ")) {
+            log.warn("Invalid authorization header format for refresh");
+            throw new BadCredentialsException("Invalid token format");
+        }
+        // The principal only carries identity, so load the current roles and permissions for the new token
+        IssuedToken newToken = jwtUtil.issueToken(userService.findById(user.getId()), null);
+        TokenEntity rotatedTokenEntity = jwtService.rotateToken(token.substring(7), newToken);
+        log.info("Rotated token: {}...", rotatedTokenEntity.getToken().substring(0, 10));
+        return rotatedTokenEntity;
     }
 
     @Transactional
     TokenEntity saveAndGetTokenEntity(User user) {
-        String newToken = jwtUtil.generateToken(user, null);
+        IssuedToken newToken = jwtUtil.issueToken(user, null);
         TokenEntity savedTokenEntity = jwtService.saveToken(newToken);
         log.info("Saved token: {}...", savedTokenEntity.getToken().substring(0, 10));
         return savedTokenEntity;
@@ -92,4 +120,25 @@ class AuthService implements IAuthService {
         }
         return tokenEntity;
     }
+
+    @Override
+    public Map<String, Object> getPublicJwkSet() {
+        return jwtKeyring.getPublicJwkSet();
+    }
+
+    @Override
+    public List<TokenSession> getSessions(User user) {
+        return jwtService.findSessions(user.getUsername());
+    }
+
+    @Override
+    public void revokeSession(UUID sessionId, User user) {
+        jwtService.revokeSession(user.getUsername(), sessionId);
+    }
+
+    @Override
+    public void revokeAllSessions(User user) {
+        int revoked = jwtService.revokeAllSessions(user.getUsername());
+        log.info("User {} revoked {} sessions", user.getId(), revoked);
+    }
 }
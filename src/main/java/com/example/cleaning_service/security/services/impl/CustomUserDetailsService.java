@@ -2,12 +2,17 @@ package com.example.cleaning_service.security.services.impl;
 
 import com.example.cleaning_service.security.entities.user.User;
 import com.example.cleaning_service.security.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -17,7 +22,17 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     @Override
     public User loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findWithRolesAndPermissionsByUsername(username)
+        return userRepository.findWithRolesByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
+
+    @Override
+    @Transactional
+    public User updatePassword(UserDetails user, String newPassword) {
+        User existingUser = userRepository.findWithRolesByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        existingUser.setPassword(newPassword);
+        log.info("Rehashed password of user {} with the configured BCrypt strength", existingUser.getId());
+        return userRepository.save(existingUser);
+    }
 }
@@ -1,108 +1,151 @@
 package com.example.cleaning_service.security.services.impl;
 
+import com.example.cleaning_service.security.cache.RevocationFilter;
+import com.example.cleaning_service.security.cache.TokenRevocationPublisher;
+import com.example.cleaning_service.security.cache.VerifiedTokenCache;
 import com.example.cleaning_service.security.entities.token.TokenEntity;
-import com.example.cleaning_service.security.repositories.TokenRepository;
+import com.example.cleaning_service.security.entities.token.TokenSession;
+import com.example.cleaning_service.security.entities.token.TokenState;
+import com.example.cleaning_service.security.repositories.TokenStateRepository;
 import com.example.cleaning_service.security.services.IJwtService;
-import com.example.cleaning_service.security.util.JwtUtil;
+import com.example.cleaning_service.security.util.IssuedToken;
+import com.example.cleaning_service.security.util.VerifiedToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 @Service
 public class JwtService implements IJwtService {
     private static final Logger log = LoggerFactory.getLogger(JwtService.class);
-    private static final long BLACKLIST_TTL = 300; // 5 minutes for blacklisted tokens
-
-    private final TokenRepository tokenRepository;
-    private final JwtUtil jwtUtil;
-
-    public JwtService(TokenRepository tokenRepository, JwtUtil jwtUtil) {
-        this.tokenRepository = tokenRepository;
-        this.jwtUtil = jwtUtil;
+    private static final Duration BLACKLIST_TTL = Duration.ofMinutes(5); // 5 minutes for blacklisted tokens
+
+    private final TokenStateRepository tokenStateRepository;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationPublisher tokenRevocationPublisher;
+    private final RevocationFilter revocationFilter;
+
+    public JwtService(TokenStateRepository tokenStateRepository, VerifiedTokenCache verifiedTokenCache,
+                      TokenRevocationPublisher tokenRevocationPublisher, RevocationFilter revocationFilter) {
+        this.tokenStateRepository = tokenStateRepository;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationPublisher = tokenRevocationPublisher;
+        this.revocationFilter = revocationFilter;
     }
 
-    @Transactional
     @Override
-    public TokenEntity saveToken(String token) {
+    public TokenEntity saveToken(IssuedToken token) {
         log.info("Saving token for authentication");
-        String username = jwtUtil.extractUsername(token);
-        Long expirationMillis = jwtUtil.extractExpirationTime(token);
-
-        // Debug info
-        Date expirationDate = new Date(expirationMillis);
-        log.info("JWT expiration timestamp: {}, which is date: {}", expirationMillis, expirationDate);
-
-        // Calculate remaining time until expiration
-        long currentTimeMillis = System.currentTimeMillis();
-        log.info("Current timestamp: {}, which is date: {}", currentTimeMillis, new Date(currentTimeMillis));
-
-        long timeToLive = expirationMillis - currentTimeMillis;
-        log.info("Calculated TTL: {} ms", timeToLive);
-
+        long timeToLive = token.timeToLive(Instant.now()).toMillis();
         if (timeToLive <= 0) {
-            log.warn("Attempted to save expired token for user: {}", username);
+            log.warn("Attempted to save expired token for user: {}", token.username());
             throw new IllegalArgumentException("Expired JWT token");
         }
 
-        log.info("Token TTL: {} ms for user: {}", timeToLive, username);
-        TokenEntity tokenEntity = new TokenEntity(token, username, timeToLive);
-        TokenEntity savedEntity = tokenRepository.save(tokenEntity);
+        log.info("Token TTL: {} ms for user: {}", timeToLive, token.username());
+        tokenStateRepository.save(token.id(), token.token(), token.username(), token.expiresAt());
+        TokenEntity savedEntity = new TokenEntity(token.id(), token.token(), token.username(), false, timeToLive);
         log.info("Token successfully saved: {}", savedEntity);
+        if (log.isDebugEnabled()) {
+            log.debug("Token record {} uses {} bytes in Redis", token.id(), tokenStateRepository.memoryUsage(token.id()));
+        }
         return savedEntity;
     }
 
-    @Transactional
+    @Override
+    public TokenEntity rotateToken(String oldToken, IssuedToken newToken) {
+        log.info("Rotating token for user: {}", newToken.username());
+        VerifiedToken verifiedToken = verify(oldToken);
+        UUID oldId = UUID.fromString(verifiedToken.id());
+
+        // Blacklist the old token and store the new one in a single script call
+        if (!tokenStateRepository.rotate(oldId, verifiedToken.username(), BLACKLIST_TTL, verifiedToken.expiresAt(),
+                newToken.id(), newToken.token(), newToken.username(), newToken.expiresAt())) {
+            throw new AccessDeniedException("Token not found");
+        }
+        log.info("Token {} replaced by {}", oldId, newToken.id());
+
+        revocationFilter.add(oldId);
+        tokenRevocationPublisher.publish(oldId, oldToken);
+        return new TokenEntity(newToken.id(), newToken.token(), newToken.username(), false,
+                newToken.timeToLive(Instant.now()).toMillis());
+    }
+
     @Override
     public void logoutToken(String token) {
         log.info("Processing logout for token");
-        TokenEntity tokenEntity = findByToken(token);
-        log.info("Found token: {}, marking as blacklisted", tokenEntity);
+        VerifiedToken verifiedToken = verify(token);
+        UUID id = UUID.fromString(verifiedToken.id());
 
-        // Reduce TTL to a short duration for blacklisted tokens
-        tokenEntity.setBlacklisted(true);
-        tokenEntity.setTimeToLive(BLACKLIST_TTL); // Set a short TTL for blacklisted tokens
+        // Flag the token, reduce its TTL to a short duration and record the revocation in a single script call
+        if (!tokenStateRepository.blacklist(id, verifiedToken.username(), BLACKLIST_TTL, verifiedToken.expiresAt())) {
+            throw new AccessDeniedException("Token not found");
+        }
+        log.info("Token {} successfully blacklisted", id);
 
-        TokenEntity savedEntity = tokenRepository.save(tokenEntity);
-        log.info("Token successfully blacklisted: {}", savedEntity);
+        // Flag the id in the revocation filter and evict the verified claims cached on every node
+        revocationFilter.add(id);
+        tokenRevocationPublisher.publish(id, token);
     }
 
-    @Transactional
     @Override
-    public boolean existsByToken(String token) {
-        log.debug("Checking if token exists in repository");
-        boolean exists = tokenRepository.existsByToken(token);
-        if (!exists) {
-            log.info("Token does not exist: {}...", token.substring(0, 10));
-            return false;
+    public TokenState getTokenState(String tokenId) {
+        if (tokenId == null) {
+            return TokenState.ABSENT;
+        }
+        try {
+            return tokenStateRepository.findState(UUID.fromString(tokenId));
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed token id: {}", tokenId);
+            return TokenState.ABSENT;
         }
-        return true;
     }
 
-    @Transactional
-    @Override
-    public TokenEntity findByToken(String token) {
-        return tokenRepository.findByToken(token)
+    /**
+     * Reads the claims of a token the authentication filter has just verified, usually from the local cache.
+     */
+    private VerifiedToken verify(String token) {
+        return verifiedTokenCache.verify(token)
+                .filter(verifiedToken -> verifiedToken.id() != null)
                 .orElseThrow(() -> new AccessDeniedException("Token not found"));
     }
 
-    @Transactional
     @Override
     public TokenEntity findById(UUID id) {
-        return tokenRepository.findById(id)
-                .orElseThrow(() -> new AccessDeniedException("Token with id " + id + "not found"));
+        return tokenStateRepository.findById(id)
+                .orElseThrow(() -> new AccessDeniedException("Token with id " + id + " not found"));
+    }
+
+    @Override
+    public List<TokenSession> findSessions(String username) {
+        return tokenStateRepository.findSessions(username);
+    }
+
+    @Override
+    public void revokeSession(String username, UUID tokenId) {
+        TokenSession session = tokenStateRepository.findSession(username, tokenId)
+                .orElseThrow(() -> new AccessDeniedException("Session with id " + tokenId + " not found"));
+        if (!tokenStateRepository.blacklist(tokenId, username, BLACKLIST_TTL, session.expiresAt())) {
+            throw new AccessDeniedException("Session with id " + tokenId + " not found");
+        }
+        log.info("Session {} of user {} revoked", tokenId, username);
+        revocationFilter.add(tokenId);
+        tokenRevocationPublisher.publish(tokenId);
     }
 
-    @Transactional
     @Override
-    public boolean isTokenBlacklisted(String token) {
-        log.debug("Checking if token is blacklisted");
-        TokenEntity tokenEntity = findByToken(token);
-        log.info("Found token: {}, blacklisted: {}", token.substring(0,20), tokenEntity.isBlacklisted());
-        return tokenEntity.isBlacklisted();
+    public int revokeAllSessions(String username) {
+        List<UUID> revokedIds = tokenStateRepository.revokeAll(username, BLACKLIST_TTL);
+        revokedIds.forEach(id -> {
+            revocationFilter.add(id);
+            tokenRevocationPublisher.publish(id);
+        });
+        log.info("Revoked {} sessions of user {}", revokedIds.size(), username);
+        return revokedIds.size();
     }
-}
\ No newline at end of file
+}
@@ -3,48 +3,154 @@ package com.example.cleaning_service.security.services.impl;
 import com.example.cleaning_service.security.entities.role.ERole;
 import com.example.cleaning_service.security.entities.role.Role;
 import com.example.cleaning_service.security.repositories.RoleRepository;
+import com.example.cleaning_service.security.repositories.UserRepository;
 import com.example.cleaning_service.security.entities.permission.EPermission;
 import com.example.cleaning_service.security.entities.permission.Permission;
+import com.example.cleaning_service.security.entities.user.User;
+import com.example.cleaning_service.security.events.UserRoleUpdatedEvent;
+import com.example.cleaning_service.security.events.UserUpdatedEvent;
 import com.example.cleaning_service.security.services.IPermissionService;
 import com.example.cleaning_service.security.services.IRoleService;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Set;
+import java.util.*;
 
+/**
+ * Catalog of the roles and permissions defined by {@link ERole} and {@link EPermission}.
+ * <p>
+ * The enums are fixed at build time, so their rows are reconciled once all singletons are created, before the web
+ * server and the Kafka listeners start, and only their ids are kept. Afterwards roles are handed out as references,
+ * which lets a user be saved with its roles without reading them back from the database.
+ */
+@Slf4j
 @Service
-public class RoleService implements IRoleService {
+public class RoleService implements IRoleService, SmartInitializingSingleton {
 
     private final RoleRepository roleRepository;
     private final IPermissionService permissionService;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private volatile Map<ERole, UUID> roleIds = Map.of();
+    private volatile Map<EPermission, UUID> permissionIds = Map.of();
 
-    public RoleService(RoleRepository roleRepository, IPermissionService permissionService) {
+    public RoleService(RoleRepository roleRepository, IPermissionService permissionService,
+                       UserRepository userRepository, EntityManager entityManager,
+                       ApplicationEventPublisher applicationEventPublisher,
+                       PlatformTransactionManager transactionManager) {
         this.roleRepository = roleRepository;
         this.permissionService = permissionService;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // A call from within the bean does not go through the transactional proxy
+        transactionTemplate.executeWithoutResult(status -> loadCatalog());
+    }
+
+    /**
+     * Creates missing roles and permissions, aligns the permissions of existing roles with {@link ERole}
+     * and records the ids of all of them. Users of a realigned role get their effective permissions recomputed;
+     * those who lost a permission have their sessions revoked, the others get their cached authorization dropped.
+     *
+     * @throws IllegalStateException If a stored permission has another bit than its {@link EPermission#bit()}
+     */
+    void loadCatalog() {
+        Map<EPermission, Permission> permissions = new EnumMap<>(EPermission.class);
+        permissionService.ensurePermissionsExist(EnumSet.allOf(EPermission.class))
+                .forEach(permission -> permissions.put(permission.getName(), permission));
+        permissions.forEach((name, permission) -> {
+            if (permission.getBit() != name.bit()) {
+                throw new IllegalStateException("Permission " + name + " is stored with bit " + permission.getBit()
+                        + " but EPermission defines bit " + name.bit());
+            }
+        });
+
+        Map<ERole, Role> existingRoles = new EnumMap<>(ERole.class);
+        roleRepository.findAll().forEach(role -> existingRoles.put(role.getName(), role));
+
+        Map<ERole, UUID> loadedRoleIds = new EnumMap<>(ERole.class);
+        for (ERole roleName : ERole.values()) {
+            Set<Permission> requiredPermissions = new HashSet<>();
+            roleName.getPermissions().forEach(permission -> requiredPermissions.add(permissions.get(permission)));
+
+            Role role = existingRoles.get(roleName);
+            if (role == null) {
+                role = roleRepository.save(new Role(roleName, requiredPermissions));
+                log.info("Created role {} with permissions {}", roleName, roleName.getPermissions());
+            } else if (!namesOf(role.getPermissions()).equals(roleName.getPermissions())) {
+                role.setPermissions(requiredPermissions);
+                List<User> users = userRepository.findByRolesName(roleName);
+                users.forEach(this::refreshPermissions);
+                log.info("Reconciled permissions of role {} to {} for {} users", roleName, roleName.getPermissions(), users.size());
+            }
+            loadedRoleIds.put(roleName, role.getId());
+        }
+
+        Map<EPermission, UUID> loadedPermissionIds = new EnumMap<>(EPermission.class);
+        permissions.forEach((name, permission) -> loadedPermissionIds.put(name, permission.getId()));
+        this.roleIds = Collections.unmodifiableMap(loadedRoleIds);
+        this.permissionIds = Collections.unmodifiableMap(loadedPermissionIds);
+        log.info("Loaded {} roles and {} permissions into the role catalog", loadedRoleIds.size(), loadedPermissionIds.size());
     }
 
     /**
-     * Ensures that a role exists in the database.
-     * If the role is missing, it is created along with its required permissions.
+     * Returns a reference to the role, bound to the current transaction, without querying the database.
      */
-    @Transactional
+    @Transactional(propagation = Propagation.MANDATORY)
     @Override
-    public Role ensureRoleExists(ERole roleName) {
-        return roleRepository.findByName(roleName)
-                .orElseGet(() -> {
-                    // Get EPermissions from the Enum Role
-                    Set<EPermission> requiredPermissions = roleName.getPermissions();
+    public Role getRole(ERole roleName) {
+        return entityManager.getReference(Role.class, idOf(roleIds, roleName));
+    }
 
-                    // Ensure all necessary permissions exist in DB
-                    Set<Permission> permissions = permissionService.ensurePermissionsExist(requiredPermissions);
+    @Override
+    public UUID getRoleId(ERole roleName) {
+        return idOf(roleIds, roleName);
+    }
+
+    @Override
+    public UUID getPermissionId(EPermission permission) {
+        return idOf(permissionIds, permission);
+    }
 
-                    // Create and save the new role
-                    Role newRole = new Role(roleName, permissions);
-                    newRole = roleRepository.save(newRole); // 🔹 Ensure Role is saved first
+    private static <E extends Enum<E>> UUID idOf(Map<E, UUID> ids, E name) {
+        UUID id = ids.get(name);
+        if (id == null) {
+            throw new IllegalStateException("Role catalog has not been loaded, cannot resolve " + name);
+        }
+        return id;
+    }
 
-                    newRole.setPermissions(permissions); // 🔹 Explicitly assign permissions
+    /**
+     * Recomputes the permissions of a user after a role changed. Sessions carry the permissions they were issued
+     * with, so removing one revokes them; an added one only needs the cached authorization to be reloaded.
+     */
+    private void refreshPermissions(User user) {
+        long previousMask = user.getPermissionMask();
+        user.refreshPermissions();
+        if ((previousMask & ~user.getPermissionMask()) != 0) {
+            applicationEventPublisher.publishEvent(new UserUpdatedEvent(user, user.getUsername()));
+        } else if (previousMask != user.getPermissionMask()) {
+            applicationEventPublisher.publishEvent(new UserRoleUpdatedEvent(user, false));
+        }
+    }
 
-                    return roleRepository.save(newRole);
-                });
+    private static Set<EPermission> namesOf(Set<Permission> permissions) {
+        Set<EPermission> names = EnumSet.noneOf(EPermission.class);
+        permissions.forEach(permission -> names.add(permission.getName()));
+        return names;
     }
-}
\ No newline at end of file
+}
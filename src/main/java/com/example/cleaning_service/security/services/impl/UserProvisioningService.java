@@ -0,0 +1,240 @@
+package com.example.cleaning_service.security.services.impl;
+
+import com.example.cleaning_service.security.crypto.BoundedPasswordEncoder;
+import com.example.cleaning_service.security.dtos.user.BulkUserReport;
+import com.example.cleaning_service.security.dtos.user.UserRequest;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.repositories.UserBatchRepository;
+import com.example.cleaning_service.security.repositories.UserBatchRepository.NewUser;
+import com.example.cleaning_service.security.repositories.UserRepository;
+import com.example.cleaning_service.security.services.IRoleService;
+import com.example.cleaning_service.security.services.IUserProvisioningService;
+import com.example.cleaning_service.security.util.EnumBitmask;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Creates users from a newline-delimited JSON stream of {@link UserRequest}s, one request per line.
+ * <p>
+ * Lines are processed in chunks. Each chunk is validated, checked against existing usernames with one query,
+ * hashed in parallel on the shared {@link BoundedPasswordEncoder} pool, and inserted with one JDBC batch per table.
+ * If a batch fails, e.g. because a username was taken concurrently, the chunk is retried row by row so that only the
+ * offending rows are reported. A job keeps at most one hash per pool thread in flight, so it never fills the queue
+ * that logins wait in, and a hash that is rejected or fails is reported for its row.
+ */
+@Slf4j
+@Service
+class UserProvisioningService implements IUserProvisioningService {
+    private final UserRepository userRepository;
+    private final UserBatchRepository userBatchRepository;
+    private final IRoleService roleService;
+    private final ObjectReader requestReader;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final int chunkSize;
+    private final Counter createdCounter;
+    private final Counter failedCounter;
+
+    UserProvisioningService(UserRepository userRepository,
+                            UserBatchRepository userBatchRepository,
+                            IRoleService roleService,
+                            ObjectMapper objectMapper,
+                            Validator validator,
+                            PlatformTransactionManager transactionManager,
+                            BoundedPasswordEncoder passwordEncoder,
+                            MeterRegistry meterRegistry,
+                            @Value("${security.user-provisioning.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userBatchRepository = userBatchRepository;
+        this.roleService = roleService;
+        this.requestReader = objectMapper.readerFor(UserRequest.class);
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.chunkSize = chunkSize;
+        this.createdCounter = Counter.builder("security.user-provisioning.users").tag("outcome", "created")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("security.user-provisioning.users").tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    private record Row(long line, UserRequest request) {
+    }
+
+    private record HashedRow(long line, NewUser user) {
+    }
+
+    @Override
+    public BulkUserReport provisionUsers(InputStream ndjson, String provisionedBy) throws IOException {
+        List<BulkUserReport.Failure> failures = new ArrayList<>();
+        Set<String> seenUsernames = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        long received = 0;
+        long created = 0;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            received++;
+            Row row = parse(lineNumber, line, failures);
+            if (row == null) {
+                continue;
+            }
+            if (!seenUsernames.add(row.request().username())) {
+                failures.add(new BulkUserReport.Failure(lineNumber, row.request().username(), "Duplicate username in request"));
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == chunkSize) {
+                created += provisionChunk(chunk, provisionedBy, failures);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            created += provisionChunk(chunk, provisionedBy, failures);
+        }
+
+        failures.sort(Comparator.comparingLong(BulkUserReport.Failure::line));
+        createdCounter.increment(created);
+        failedCounter.increment(failures.size());
+        log.info("Provisioned {} of {} users for {}, {} rejected", created, received, provisionedBy, failures.size());
+        return new BulkUserReport(received, created, List.copyOf(failures));
+    }
+
+    private Row parse(long lineNumber, String line, List<BulkUserReport.Failure> failures) {
+        UserRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (JsonProcessingException e) {
+            failures.add(new BulkUserReport.Failure(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage()));
+            return null;
+        }
+        if (request == null) {
+            failures.add(new BulkUserReport.Failure(lineNumber, null, "Expected a user object, got null"));
+            return null;
+        }
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            StringJoiner reason = new StringJoiner("; ");
+            violations.forEach(violation -> reason.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+            failures.add(new BulkUserReport.Failure(lineNumber, request.username(), reason.toString()));
+            return null;
+        }
+        return new Row(lineNumber, request);
+    }
+
+    private int provisionChunk(List<Row> rows, String provisionedBy, List<BulkUserReport.Failure> failures) {
+        Set<String> usernames = new HashSet<>();
+        rows.forEach(row -> usernames.add(row.request().username()));
+        Set<String> existing = userRepository.findExistingUsernames(usernames);
+
+        List<Row> accepted = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existing.contains(row.request().username())) {
+                failures.add(new BulkUserReport.Failure(row.line(), row.request().username(), "Username already exists"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        List<HashedRow> hashed = hash(accepted, failures);
+        if (hashed.isEmpty()) {
+            return 0;
+        }
+        List<NewUser> users = hashed.stream().map(HashedRow::user).toList();
+        Instant now = Instant.now();
+        try {
+            transactionTemplate.executeWithoutResult(status -> userBatchRepository.insertAll(users, now, provisionedBy));
+            return users.size();
+        } catch (DataAccessException e) {
+            log.warn("Batch insert of {} users failed, retrying row by row: {}", users.size(), e.getMessage());
+        }
+
+        int created = 0;
+        for (HashedRow row : hashed) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> userBatchRepository.insertAll(List.of(row.user()), now, provisionedBy));
+                created++;
+            } catch (DataAccessException e) {
+                failures.add(new BulkUserReport.Failure(row.line(), row.user().username(),
+                        "Insert failed: " + e.getMostSpecificCause().getMessage()));
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Hashes the passwords of the rows, leaving out and reporting the rows whose hash failed.
+     */
+    private List<HashedRow> hash(List<Row> rows, List<BulkUserReport.Failure> failures) {
+        Semaphore inFlight = new Semaphore(passwordEncoder.getPoolSize());
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        // Waits on virtual threads, so the hashes are submitted as fast as the pool takes them
+        try (ExecutorService submitters = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Row row : rows) {
+                String password = row.request().password();
+                hashes.add(submitters.submit(() -> {
+                    inFlight.acquire();
+                    try {
+                        return passwordEncoder.encode(password);
+                    } finally {
+                        inFlight.release();
+                    }
+                }));
+            }
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new IllegalStateException("Interrupted while hashing passwords");
+        }
+
+        List<HashedRow> hashed = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            UserRequest request = row.request();
+            Future<String> hash = hashes.get(i);
+            switch (hash.state()) {
+                case SUCCESS -> {
+                    ERole role = request.role() != null ? request.role() : ERole.USER;
+                    hashed.add(new HashedRow(row.line(), new NewUser(UUID.randomUUID(), request.username(),
+                            hash.resultNow(), roleService.getRoleId(role), EnumBitmask.toMask(role.getPermissions()))));
+                }
+                case FAILED -> failures.add(new BulkUserReport.Failure(row.line(), request.username(),
+                        "Password hashing failed: " + hash.exceptionNow().getMessage()));
+                default -> throw new IllegalStateException("Hash of line " + row.line() + " did not complete");
+            }
+        }
+        return hashed;
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.cleaning_service.security.services.impl;
 
+import com.example.cleaning_service.commons.KeysetCursor;
+import com.example.cleaning_service.commons.KeysetPage;
+import com.example.cleaning_service.commons.KeysetRequest;
 import com.example.cleaning_service.security.dtos.auth.AuthRequest;
 import com.example.cleaning_service.security.dtos.user.UserRequest;
 import com.example.cleaning_service.security.entities.role.ERole;
-import com.example.cleaning_service.security.entities.permission.Permission;
 import com.example.cleaning_service.security.entities.role.Role;
 import com.example.cleaning_service.security.entities.user.User;
 import com.example.cleaning_service.security.events.UserDeletedEvent;
+import com.example.cleaning_service.security.events.UserUpdatedEvent;
 import com.example.cleaning_service.security.mapper.AuthMapper;
 import com.example.cleaning_service.security.repositories.UserRepository;
 import com.example.cleaning_service.security.services.IRoleService;
@@ -15,12 +18,12 @@ import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -28,13 +31,13 @@ import java.util.UUID;
 class UserService implements IUserService {
     private final UserRepository userRepository;
     private final IRoleService roleService;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
     private final ApplicationEventPublisher applicationEventPublisher;
     private final AuthMapper authMapper;
 
     UserService(UserRepository userRepository,
                 IRoleService roleService,
-                BCryptPasswordEncoder passwordEncoder,
+                PasswordEncoder passwordEncoder,
                 ApplicationEventPublisher applicationEventPublisher,
                 AuthMapper authMapper) {
         this.userRepository = userRepository;
@@ -44,6 +47,29 @@ class UserService implements IUserService {
         this.authMapper = authMapper;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<User> findPage(KeysetRequest request) {
+        KeysetCursor after = request.after();
+        KeysetCursor before = request.before();
+        List<UUID> ids;
+        if (before != null) {
+            ids = userRepository.findIdsBefore(before.position(), before.id(), request.limit());
+        } else if (after != null) {
+            ids = userRepository.findIdsAfter(after.position(), after.id(), request.limit());
+        } else {
+            ids = userRepository.findFirstIds(request.limit());
+        }
+        List<User> users = KeysetPage.inOrder(ids, userRepository.findWithRolesByIdIn(ids), User::getId);
+        return KeysetPage.of(users, request, user -> KeysetCursor.of(user.getCreatedAt(), user.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long estimateCount() {
+        return userRepository.estimateCount();
+    }
+
     @Override
     @Transactional
     public User createUser(UserRequest userRequest) {
@@ -58,14 +84,13 @@ class UserService implements IUserService {
 
     @Transactional
     User saveUser(String username, String password, ERole roleName) {
-        Role userRole = roleService.ensureRoleExists(roleName);
-        log.info("User role: {}", userRole);
+        Role userRole = roleService.getRole(roleName);
+        log.info("User role: {}", roleName);
 
-        // ✅ Use existing managed Permission instances
-        Set<Permission> existingPermissions = new HashSet<>(userRole.getPermissions());
-        log.info("User role permissions: {}", existingPermissions);
+        // ✅ Permissions are derived from the role
+        log.info("User role permissions: {}", roleName.getPermissions());
 
-        User user = new User(username, passwordEncoder.encode(password), userRole, existingPermissions);
+        User user = new User(username, passwordEncoder.encode(password), userRole);
         log.info("Saving user {}", user);
 
         return userRepository.save(user);
@@ -82,19 +107,15 @@ class UserService implements IUserService {
 
         User newUserRequest = authMapper.fromAuthRequestToUser(authRequest);
 
-        // 🔹 Ensure the "USER" role exists and fetch it
-        Role userRole = roleService.ensureRoleExists(ERole.USER);
-        log.info("Fetched role '{}' with {} permissions.", userRole.getName(), userRole.getPermissions().size());
-
-        // 🔹 Create a COPY of the permissions set to avoid shared references
-        Set<Permission> copiedPermissions = new HashSet<>(userRole.getPermissions());
+        // 🔹 Reference the "USER" role from the catalog, without querying it
+        Role userRole = roleService.getRole(ERole.USER);
+        log.info("Fetched role '{}' with {} permissions.", ERole.USER, ERole.USER.getPermissions().size());
 
-        // 🔹 Create User entity with a new set of permissions
+        // 🔹 Create User entity, its permissions are derived from the role
         User user = new User(
                 newUserRequest.getUsername(),
                 passwordEncoder.encode(newUserRequest.getPassword()),
-                userRole,
-                copiedPermissions // 🔹 Assign the copied set, not the original reference
+                userRole
         );
 
         User savedUser = userRepository.save(user);
@@ -134,32 +155,45 @@ class UserService implements IUserService {
         // Find the existing user
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
+        String previousUsername = user.getUsername();
+        // Whether existing sessions or cached authorizations may no longer match the user
+        boolean credentialsOrAuthoritiesChanged = false;
 
         // Update username if provided
-        if (userRequest.username() != null && !userRequest.username().isEmpty()) {
+        if (userRequest.username() != null && !userRequest.username().isEmpty()
+                && !userRequest.username().equals(previousUsername)) {
             log.info("Updating username for user ID: {} from '{}' to '{}'", id, user.getUsername(), userRequest.username());
             user.setUsername(userRequest.username());
+            credentialsOrAuthoritiesChanged = true;
         }
 
         // Update password if provided
         if (userRequest.password() != null && !userRequest.password().isEmpty()) {
             log.info("Updating password for user ID: {}", id);
             user.setPassword(passwordEncoder.encode(userRequest.password()));
+            credentialsOrAuthoritiesChanged = true;
         }
 
         // Update role if provided
         if (userRequest.role() != null) {
             log.info("Updating role for user ID: {} to '{}'", id, userRequest.role());
-            Role newRole = roleService.ensureRoleExists(userRequest.role());
+            Role newRole = roleService.getRole(userRequest.role());
+            boolean roleAdded = user.getRoles().stream().noneMatch(role -> role.getName() == newRole.getName());
+            long previousPermissionMask = user.getPermissionMask();
 
-            // 🔹 Create a COPY of the permissions set to avoid shared references
-            Set<Permission> copiedPermissions = new HashSet<>(newRole.getPermissions());
+            // 🔹 Drop per-user overrides, so the permissions are exactly those of the roles
             user.addRole(newRole);
-            user.setPermissions(copiedPermissions);
+            user.clearPermissionOverrides();
+            if (roleAdded || user.getPermissionMask() != previousPermissionMask) {
+                credentialsOrAuthoritiesChanged = true;
+            }
         }
 
         // Save the updated user
         User updatedUser = userRepository.save(user);
+        if (credentialsOrAuthoritiesChanged) {
+            applicationEventPublisher.publishEvent(new UserUpdatedEvent(updatedUser, previousUsername));
+        }
         log.info("User with ID: {} successfully updated.", id);
         return updatedUser;
     }
@@ -169,4 +203,17 @@ class UserService implements IUserService {
     public User saveUser(User user) {
         return userRepository.saveAndFlush(user);
     }
+
+    /**
+     * Runs in its own transaction so that a lockout is committed even when the surrounding login rolls back.
+     *
+     * @return {@code true} if the flag changed.
+     */
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean setAccountLocked(String username, boolean locked) {
+        boolean changed = userRepository.updateAccountNonLocked(username, !locked) > 0;
+        log.info("Account lock of user {} set to {}: {}", username, locked, changed ? "updated" : "unchanged");
+        return changed;
+    }
 }
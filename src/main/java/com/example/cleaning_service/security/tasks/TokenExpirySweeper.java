@@ -0,0 +1,104 @@
+package com.example.cleaning_service.security.tasks;
+
+import com.example.cleaning_service.security.repositories.TokenStateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains expired entries from the token expiry index in batches, replacing Redis keyspace notifications.
+ * <p>
+ * Every node schedules the sweep, but only the node holding the sweeper lease in Redis runs it. The lease
+ * outlives a few sweep intervals, so another node takes over if the leader stops renewing it.
+ * All nodes refresh the index size and live token gauges, so the metrics stay available on every node.
+ */
+@Component
+public class TokenExpirySweeper {
+    private static final Logger log = LoggerFactory.getLogger(TokenExpirySweeper.class);
+    private static final String LEASE_KEY = "token:expiry:sweeper";
+
+    // Takes the lease if it is free, or renews it if this node already holds it
+    private static final RedisScript<Long> LEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) or redis.call('GET', KEYS[1]) == ARGV[1] then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final TokenStateRepository tokenStateRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Duration leaseDuration;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Counter sweptCounter;
+    private final AtomicLong indexEntries = new AtomicLong();
+    private final AtomicLong liveTokens = new AtomicLong();
+
+    public TokenExpirySweeper(TokenStateRepository tokenStateRepository,
+                              StringRedisTemplate redisTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${security.jwt.expiry-sweeper.interval:PT1M}") Duration interval,
+                              @Value("${security.jwt.expiry-sweeper.batch-size:500}") int batchSize,
+                              @Value("${security.jwt.expiry-sweeper.max-batches:20}") int maxBatches) {
+        this.tokenStateRepository = tokenStateRepository;
+        this.redisTemplate = redisTemplate;
+        this.leaseDuration = interval.multipliedBy(3);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.sweptCounter = Counter.builder("security.token.expiry-index.swept")
+                .description("Expired entries removed from the token expiry index by this node")
+                .register(meterRegistry);
+        Gauge.builder("security.token.expiry-index.entries", indexEntries, AtomicLong::get)
+                .description("Entries in the token expiry index, including expired entries not swept yet")
+                .register(meterRegistry);
+        Gauge.builder("security.token.live", liveTokens, AtomicLong::get)
+                .description("Issued tokens that have not expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.expiry-sweeper.interval:PT1M}")
+    public void sweep() {
+        try {
+            if (holdsLease()) {
+                long swept = 0;
+                for (int batch = 0; batch < maxBatches; batch++) {
+                    long removed = tokenStateRepository.sweepExpired(batchSize);
+                    swept += removed;
+                    if (removed < batchSize) {
+                        break;
+                    }
+                }
+                sweptCounter.increment(swept);
+                if (swept > 0) {
+                    log.info("Swept {} expired entries from the token expiry index", swept);
+                }
+            }
+            indexEntries.set(tokenStateRepository.countExpiryIndexEntries());
+            liveTokens.set(tokenStateRepository.countLiveTokens());
+        } catch (DataAccessException e) {
+            log.warn("Cannot sweep the token expiry index: {}", e.getMessage());
+        }
+    }
+
+    private boolean holdsLease() {
+        Long held = redisTemplate.execute(LEASE_SCRIPT, List.of(LEASE_KEY), nodeId,
+                Long.toString(leaseDuration.toMillis()));
+        return held != null && held == 1L;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.cleaning_service.security.throttling;
+
+import com.example.cleaning_service.exceptions.LoginThrottledException;
+import com.example.cleaning_service.security.cache.UserAuthorizationCache;
+import com.example.cleaning_service.security.services.IUserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Throttles login attempts per client IP and per username before any password is hashed.
+ * <p>
+ * Each attempt first takes a token from node-local buckets, so bursts from a single client are rejected
+ * without touching Redis. Attempts that pass are checked against cluster-wide sliding windows held in
+ * Redis sorted sets: one counting every attempt from the client IP, one counting failed attempts for
+ * the username. Reaching the failure limit locks the account through {@code User.isAccountNonLocked}
+ * until the lockout expires; locked accounts are then rejected by {@code DaoAuthenticationProvider}
+ * before the password is checked. The failure window is kept full, so attempts for the username are
+ * rejected from Redis until its oldest failure leaves the window, independently of the lockout.
+ * <p>
+ * Redis errors fail open: the local buckets still apply, but a Redis outage never blocks logins.
+ */
+@Component
+public class LoginThrottle {
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottle.class);
+    private static final String IP_KEY_PREFIX = "login:attempts:ip:";
+    private static final String USER_KEY_PREFIX = "login:failures:user:";
+    private static final String LOCKOUTS_KEY = "login:lockouts";
+
+    // Returns 0 and records the attempt if both windows have room, otherwise the milliseconds until one frees up
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local windows = {{KEYS[1], tonumber(ARGV[2]), tonumber(ARGV[3])}, {KEYS[2], tonumber(ARGV[4]), tonumber(ARGV[5])}}
+            for _, window in ipairs(windows) do
+                redis.call('ZREMRANGEBYSCORE', window[1], '-inf', now - window[2])
+                if redis.call('ZCARD', window[1]) >= window[3] then
+                    local oldest = redis.call('ZRANGE', window[1], 0, 0, 'WITHSCORES')
+                    return math.max(1, oldest[2] + window[2] - now)
+                end
+            end
+            redis.call('ZADD', KEYS[1], now, ARGV[6])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 0
+            """, Long.class);
+
+    // Records a failure, keeping at most the limit, and returns 1 if it reached the limit, in which case the lockout
+    // is scheduled. The full window then makes ACQUIRE_SCRIPT reject the username until a failure ages out
+    private static final RedisScript<Long> FAILURE_SCRIPT = new DefaultRedisScript<>("""
+            local now = tonumber(ARGV[1])
+            local limit = tonumber(ARGV[3])
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - tonumber(ARGV[2]))
+            local reached = redis.call('ZCARD', KEYS[1]) == limit - 1
+            redis.call('ZADD', KEYS[1], now, ARGV[4])
+            redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(limit + 1))
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            if reached then
+                redis.call('ZADD', KEYS[2], now + tonumber(ARGV[5]), ARGV[6])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final IUserService userService;
+    private final UserAuthorizationCache userAuthorizationCache;
+    private final Cache<String, TokenBucket> buckets;
+    private final long localCapacity;
+    private final Duration localRefillPeriod;
+    private final int ipMaxAttempts;
+    private final Duration ipWindow;
+    private final int userMaxFailures;
+    private final Duration userWindow;
+    private final Duration lockoutDuration;
+    private final Counter localRejections;
+    private final Counter redisRejections;
+    private final Counter lockouts;
+
+    public LoginThrottle(StringRedisTemplate redisTemplate,
+                         IUserService userService,
+                         UserAuthorizationCache userAuthorizationCache,
+                         MeterRegistry meterRegistry,
+                         @Value("${security.login-throttle.local.capacity:10}") long localCapacity,
+                         @Value("${security.login-throttle.local.refill-period:PT1M}") Duration localRefillPeriod,
+                         @Value("${security.login-throttle.ip.max-attempts:30}") int ipMaxAttempts,
+                         @Value("${security.login-throttle.ip.window:PT1M}") Duration ipWindow,
+                         @Value("${security.login-throttle.user.max-failures:5}") int userMaxFailures,
+                         @Value("${security.login-throttle.user.window:PT15M}") Duration userWindow,
+                         @Value("${security.login-throttle.lockout-duration:PT15M}") Duration lockoutDuration) {
+        this.redisTemplate = redisTemplate;
+        this.userService = userService;
+        this.userAuthorizationCache = userAuthorizationCache;
+        this.localCapacity = localCapacity;
+        this.localRefillPeriod = localRefillPeriod;
+        this.ipMaxAttempts = ipMaxAttempts;
+        this.ipWindow = ipWindow;
+        this.userMaxFailures = userMaxFailures;
+        this.userWindow = userWindow;
+        this.lockoutDuration = lockoutDuration;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(localRefillPeriod.multipliedBy(2))
+                .build();
+        this.localRejections = Counter.builder("security.login-throttle.rejected").tag("tier", "local")
+                .register(meterRegistry);
+        this.redisRejections = Counter.builder("security.login-throttle.rejected").tag("tier", "redis")
+                .register(meterRegistry);
+        this.lockouts = Counter.builder("security.login-throttle.lockouts").register(meterRegistry);
+    }
+
+    /**
+     * Admits a login attempt or throws before any credentials are checked.
+     *
+     * @throws LoginThrottledException if the client or the username exceeded its limits.
+     */
+    public void acquire(String username, String clientIp) {
+        TokenBucket ipBucket = buckets.get("ip:" + clientIp, key -> new TokenBucket(localCapacity, localRefillPeriod));
+        TokenBucket userBucket = buckets.get("user:" + username, key -> new TokenBucket(localCapacity, localRefillPeriod));
+        if (!ipBucket.tryConsume() || !userBucket.tryConsume()) {
+            localRejections.increment();
+            Duration retryAfter = max(ipBucket.timeUntilNextToken(), userBucket.timeUntilNextToken());
+            throw new LoginThrottledException("Local login rate exceeded for " + username + " from " + clientIp, retryAfter);
+        }
+
+        Long retryAfterMillis;
+        try {
+            retryAfterMillis = redisTemplate.execute(ACQUIRE_SCRIPT,
+                    List.of(IP_KEY_PREFIX + clientIp, USER_KEY_PREFIX + username),
+                    now(), millis(ipWindow), Integer.toString(ipMaxAttempts),
+                    millis(userWindow), Integer.toString(userMaxFailures), UUID.randomUUID().toString());
+        } catch (DataAccessException e) {
+            log.warn("Cannot check login windows in Redis, admitting attempt: {}", e.getMessage());
+            return;
+        }
+        if (retryAfterMillis != null && retryAfterMillis > 0) {
+            redisRejections.increment();
+            throw new LoginThrottledException("Login window exceeded for " + username + " from " + clientIp,
+                    Duration.ofMillis(retryAfterMillis));
+        }
+    }
+
+    /**
+     * Records a failed login and locks the account once the username reached its failure limit.
+     */
+    public void recordFailure(String username) {
+        Long lockedOut;
+        try {
+            lockedOut = redisTemplate.execute(FAILURE_SCRIPT, List.of(USER_KEY_PREFIX + username, LOCKOUTS_KEY),
+                    now(), millis(userWindow), Integer.toString(userMaxFailures), UUID.randomUUID().toString(),
+                    millis(lockoutDuration), username);
+        } catch (DataAccessException e) {
+            log.warn("Cannot record failed login of {} in Redis: {}", username, e.getMessage());
+            return;
+        }
+        if (lockedOut != null && lockedOut == 1L && userService.setAccountLocked(username, true)) {
+            lockouts.increment();
+            userAuthorizationCache.invalidate(username);
+            log.warn("Locked account {} for {} after {} failed logins", username, lockoutDuration, userMaxFailures);
+        }
+    }
+
+    public void recordSuccess(String username) {
+        try {
+            redisTemplate.delete(USER_KEY_PREFIX + username);
+        } catch (DataAccessException e) {
+            log.warn("Cannot reset failed logins of {} in Redis: {}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * Unlocks accounts whose lockout expired. Removing the entry first makes sure a single node unlocks each account.
+     */
+    @Scheduled(fixedDelayString = "${security.login-throttle.unlock-interval:PT30S}")
+    public void unlockExpiredLockouts() {
+        Set<String> usernames;
+        try {
+            usernames = redisTemplate.opsForZSet().rangeByScore(LOCKOUTS_KEY, Double.NEGATIVE_INFINITY,
+                    System.currentTimeMillis());
+        } catch (DataAccessException e) {
+            log.warn("Cannot read expired lockouts from Redis: {}", e.getMessage());
+            return;
+        }
+        if (usernames == null) {
+            return;
+        }
+        for (String username : usernames) {
+            Long removed = redisTemplate.opsForZSet().remove(LOCKOUTS_KEY, username);
+            if (removed != null && removed > 0 && userService.setAccountLocked(username, false)) {
+                userAuthorizationCache.invalidate(username);
+                log.info("Unlocked account {} after lockout expired", username);
+            }
+        }
+    }
+
+    private static String now() {
+        return Long.toString(System.currentTimeMillis());
+    }
+
+    private static String millis(Duration duration) {
+        return Long.toString(duration.toMillis());
+    }
+
+    private static Duration max(Duration first, Duration second) {
+        return first.compareTo(second) >= 0 ? first : second;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cleaning_service.security.throttling;
+
+import java.time.Duration;
+
+/**
+ * A node-local token bucket holding up to {@code capacity} tokens, refilled continuously
+ * at {@code capacity} tokens per {@code refillPeriod}.
+ */
+class TokenBucket {
+    private final long capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(long capacity, Duration refillPeriod) {
+        this.capacity = capacity;
+        this.tokensPerNano = (double) capacity / refillPeriod.toNanos();
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    synchronized boolean tryConsume() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Returns the time until the next token is available.
+     */
+    synchronized Duration timeUntilNextToken() {
+        return tokens >= 1 ? Duration.ZERO : Duration.ofNanos((long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.cleaning_service.security.util;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+
+import java.util.*;
+
+/**
+ * Encodes roles and permissions into the compact {@code authz} claim, {@code <version>.<role mask>.<permission mask>}
+ * with both masks in hexadecimal, e.g. {@code 1.1.1e}.
+ * <p>
+ * Bit positions are fixed by a per-version table rather than by enum ordinals, so reordering the enums never
+ * changes the meaning of issued tokens. New constants are appended to the newest table; constants missing
+ * from it make {@link #encode(Set, Set)} fall back to the legacy string list claims.
+ */
+public final class AuthorityClaim {
+    public static final String NAME = "authz";
+    private static final int CURRENT_VERSION = 1;
+
+    private static final List<ERole> V1_ROLES = List.of(
+            ERole.ADMIN, ERole.USER, ERole.CUSTOMER, ERole.CLEANER, ERole.SUPERVISOR, ERole.SUPPORT, ERole.PROVIDER);
+    private static final List<EPermission> V1_PERMISSIONS = List.of(
+            EPermission.CREATE_ACCOUNT,
+            EPermission.MANAGE_USERS, EPermission.VIEW_REPORTS, EPermission.MANAGE_ROLES, EPermission.DELETE_ACCOUNTS,
+            EPermission.CREATE_ORDERS, EPermission.CANCEL_ORDERS,
+            EPermission.VIEW_ASSIGNED_ORDERS, EPermission.UPDATE_ORDER_STATUS,
+            EPermission.ASSIGN_CLEANERS, EPermission.MONITOR_CLEANING_PROGRESS,
+            EPermission.RATE_CLEANERS, EPermission.VIEW_ORDERS,
+            EPermission.RESPOND_TO_QUERIES, EPermission.MANAGE_SCHEDULES);
+
+    private AuthorityClaim() {
+    }
+
+    /**
+     * Returns the claim value for the given grants, or {@code null} if the current table cannot represent them.
+     */
+    public static String encode(Set<ERole> roles, Set<EPermission> permissions) {
+        long roleMask = toMask(V1_ROLES, roles);
+        long permissionMask = toMask(V1_PERMISSIONS, permissions);
+        if (roleMask < 0 || permissionMask < 0) {
+            return null;
+        }
+        return CURRENT_VERSION + "." + Long.toHexString(roleMask) + "." + Long.toHexString(permissionMask);
+    }
+
+    /**
+     * Decodes a claim value into interned grants.
+     *
+     * @return the grants, or empty if the value is malformed or uses an unknown version.
+     */
+    public static Optional<AuthorityGrants> decode(String value) {
+        int first = value.indexOf('.');
+        int second = value.indexOf('.', first + 1);
+        if (first < 0 || second < 0 || !"1".equals(value.substring(0, first))) {
+            return Optional.empty();
+        }
+        try {
+            long roleMask = Long.parseUnsignedLong(value, first + 1, second, 16);
+            long permissionMask = Long.parseUnsignedLong(value, second + 1, value.length(), 16);
+            return Optional.of(AuthorityGrants.of(
+                    fromMask(V1_ROLES, roleMask, ERole.class), fromMask(V1_PERMISSIONS, permissionMask, EPermission.class)));
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static <E extends Enum<E>> long toMask(List<E> table, Set<E> values) {
+        long mask = 0L;
+        for (E value : values) {
+            int bit = table.indexOf(value);
+            if (bit < 0) {
+                return -1L;
+            }
+            mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    private static <E extends Enum<E>> EnumSet<E> fromMask(List<E> table, long mask, Class<E> type) {
+        if (mask >>> table.size() != 0) {
+            throw new IndexOutOfBoundsException("Mask " + Long.toHexString(mask) + " has bits beyond the table");
+        }
+        EnumSet<E> values = EnumSet.noneOf(type);
+        for (int bit = 0; bit < table.size(); bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                values.add(table.get(bit));
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.cleaning_service.security.util;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable combination of roles and permissions together with the granted authorities it implies:
+ * one {@code ROLE_} authority per role and one authority per permission.
+ * <p>
+ * Instances are interned per combination, so every token carrying the same grants shares one instance
+ * and authorities are built once per combination rather than once per request.
+ *
+ * @param roles          The granted roles
+ * @param permissions    The granted permissions
+ * @param authorities    The authorities implied by the roles and permissions
+ * @param roleMask       The roles as an {@link EnumBitmask}
+ * @param permissionMask The permissions as an {@link EnumBitmask}
+ */
+public record AuthorityGrants(
+        Set<ERole> roles,
+        Set<EPermission> permissions,
+        Set<GrantedAuthority> authorities,
+        long roleMask,
+        long permissionMask
+) {
+    private static final Map<Long, AuthorityGrants> INTERNED = new ConcurrentHashMap<>();
+    private static final Map<ERole, GrantedAuthority> ROLE_AUTHORITIES = new EnumMap<>(ERole.class);
+    private static final Map<EPermission, GrantedAuthority> PERMISSION_AUTHORITIES = new EnumMap<>(EPermission.class);
+
+    static {
+        if (Arrays.stream(ERole.values()).anyMatch(role -> role.bit() >= Integer.SIZE)
+                || Arrays.stream(EPermission.values()).anyMatch(permission -> permission.bit() >= Integer.SIZE)) {
+            throw new IllegalStateException("Interned grants support role and permission bits up to 31");
+        }
+        for (ERole role : ERole.values()) {
+            ROLE_AUTHORITIES.put(role, new SimpleGrantedAuthority("ROLE_" + role.name()));
+        }
+        for (EPermission permission : EPermission.values()) {
+            PERMISSION_AUTHORITIES.put(permission, new SimpleGrantedAuthority(permission.name()));
+        }
+    }
+
+    public static AuthorityGrants of(Set<ERole> roles, Set<EPermission> permissions) {
+        long roleMask = EnumBitmask.toMask(roles);
+        long permissionMask = EnumBitmask.toMask(permissions);
+        AuthorityGrants grants = INTERNED.get(roleMask << Integer.SIZE | permissionMask);
+        return grants != null ? grants : INTERNED.computeIfAbsent(roleMask << Integer.SIZE | permissionMask,
+                ignored -> create(roles, permissions, roleMask, permissionMask));
+    }
+
+    /**
+     * Returns the grants matching the given authorities, ignoring authorities that are neither a known role nor a known permission.
+     */
+    public static AuthorityGrants of(Collection<? extends GrantedAuthority> authorities) {
+        EnumSet<ERole> roles = EnumSet.noneOf(ERole.class);
+        EnumSet<EPermission> permissions = EnumSet.noneOf(EPermission.class);
+        for (GrantedAuthority authority : authorities) {
+            String name = authority.getAuthority();
+            if (name == null) {
+                continue;
+            }
+            try {
+                if (name.startsWith("ROLE_")) {
+                    roles.add(ERole.valueOf(name.substring("ROLE_".length())));
+                } else {
+                    permissions.add(EPermission.valueOf(name));
+                }
+            } catch (IllegalArgumentException e) {
+                // Not one of ours, e.g. ROLE_ANONYMOUS
+            }
+        }
+        return of(roles, permissions);
+    }
+
+    private static AuthorityGrants create(Set<ERole> roles, Set<EPermission> permissions, long roleMask, long permissionMask) {
+        EnumSet<ERole> roleSet = roles.isEmpty() ? EnumSet.noneOf(ERole.class) : EnumSet.copyOf(roles);
+        EnumSet<EPermission> permissionSet = permissions.isEmpty() ? EnumSet.noneOf(EPermission.class) : EnumSet.copyOf(permissions);
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>(roleSet.size() + permissionSet.size());
+        roleSet.forEach(role -> authorities.add(ROLE_AUTHORITIES.get(role)));
+        permissionSet.forEach(permission -> authorities.add(PERMISSION_AUTHORITIES.get(permission)));
+        return new AuthorityGrants(Collections.unmodifiableSet(roleSet), Collections.unmodifiableSet(permissionSet),
+                Collections.unmodifiableSet(authorities), roleMask, permissionMask);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.cleaning_service.security.util;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Packs enum sets into a {@code long} bitmask, one bit per constant at the position given by {@link Flag#bit()}.
+ * <p>
+ * Masks are stored, so a constant keeps its bit for good: new constants take an unused bit, and the bit of a removed
+ * constant is never reused. Reordering the constants does not change any mask.
+ */
+public final class EnumBitmask {
+
+    /**
+     * An enum constant with a fixed position between 0 and 63 in a bitmask.
+     */
+    public interface Flag {
+        int bit();
+    }
+
+    private EnumBitmask() {
+    }
+
+    public static <E extends Enum<E> & Flag> long toMask(Set<E> values) {
+        long mask = 0L;
+        for (E value : values) {
+            mask |= 1L << checkedBit(value);
+        }
+        return mask;
+    }
+
+    public static <E extends Enum<E> & Flag> EnumSet<E> fromMask(Class<E> type, long mask) {
+        EnumSet<E> values = EnumSet.noneOf(type);
+        for (E constant : type.getEnumConstants()) {
+            if ((mask & (1L << checkedBit(constant))) != 0) {
+                values.add(constant);
+            }
+        }
+        return values;
+    }
+
+    private static <E extends Enum<E> & Flag> int checkedBit(E value) {
+        int bit = value.bit();
+        if (bit < 0 || bit >= Long.SIZE) {
+            throw new IllegalArgumentException(value.getDeclaringClass().getSimpleName() + "." + value.name()
+                    + " has bit " + bit + ", expected 0 to 63");
+        }
+        return bit;
+    }
+}
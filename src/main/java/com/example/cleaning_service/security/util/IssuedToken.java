@@ -0,0 +1,27 @@
+package com.example.cleaning_service.security.util;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A freshly signed JWT together with the claims it was built from, returned by {@link JwtUtil#issueToken}
+ * so that callers storing the token never parse what was just produced.
+ *
+ * @param id        The token identifier ({@code jti})
+ * @param token     The serialized token
+ * @param username  The subject of the token
+ * @param issuedAt  The issue time of the token
+ * @param expiresAt The expiration time of the token
+ */
+public record IssuedToken(
+        UUID id,
+        String token,
+        String username,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+    public Duration timeToLive(Instant now) {
+        return Duration.between(now, expiresAt);
+    }
+}
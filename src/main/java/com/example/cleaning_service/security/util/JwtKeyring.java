@@ -0,0 +1,159 @@
+package com.example.cleaning_service.security.util;
+
+import com.nimbusds.jose.*;
+import com.nimbusds.jose.crypto.*;
+import com.nimbusds.jose.jwk.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.ParseException;
+import java.util.*;
+
+/**
+ * The set of keys used to sign and verify JWTs, indexed by key id ({@code kid}).
+ * <p>
+ * The keyring always holds the RSA key pair loaded by {@link KeyProvider} (RS256), plus any keys of the
+ * optional JWK set at {@code security.jwt.jwk-set}: RSA (RS256), EC P-256 (ES256) and Ed25519 (EdDSA) keys.
+ * Keys without a private part are verify-only. New tokens are signed with the key named by
+ * {@code security.jwt.active-kid}, defaulting to the RSA key.
+ * <p>
+ * To rotate without downtime, first deploy the new key as an inactive member of the JWK set so every node
+ * can verify it, then switch {@code active-kid} to it, and drop the old key once the tokens it signed expired.
+ * <p>
+ * Signers and verifiers are thread-safe and built once per key. Tokens without a {@code kid} header
+ * predate the keyring and are verified with the RSA key.
+ */
+@Component
+public class JwtKeyring {
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyring.class);
+
+    /**
+     * A key of the keyring with its precomputed signer and verifier.
+     *
+     * @param kid       The key id, also written in the header of signed tokens
+     * @param header    The header of tokens signed with this key
+     * @param signer    The signer, or {@code null} for verify-only keys
+     * @param verifier  The verifier
+     * @param publicJwk The public part of the key, as published in the JWKS document
+     */
+    public record JwtKey(String kid, JWSHeader header, @Nullable JWSSigner signer, JWSVerifier verifier, JWK publicJwk) {
+        public JWSAlgorithm algorithm() {
+            return header.getAlgorithm();
+        }
+    }
+
+    private final Map<String, JwtKey> keys;
+    private final JwtKey defaultKey;
+    private final JwtKey activeKey;
+    private final Map<String, Object> publicJwkSet;
+
+    @Autowired
+    public JwtKeyring(KeyProvider keyProvider,
+                      ResourceLoader resourceLoader,
+                      @Value("${security.jwt.jwk-set:}") String jwkSetLocation,
+                      @Value("${security.jwt.active-kid:}") String activeKid) {
+        this(keyProvider, loadJwkSet(resourceLoader, jwkSetLocation), activeKid);
+    }
+
+    public JwtKeyring(KeyProvider keyProvider, List<JWK> additionalKeys, @Nullable String activeKid) {
+        try {
+            RSAKey rsaKey = new RSAKey.Builder(keyProvider.getPublicKey())
+                    .privateKey(keyProvider.getPrivateKey())
+                    .keyIDFromThumbprint()
+                    .build();
+            Map<String, JwtKey> indexed = new LinkedHashMap<>();
+            this.defaultKey = toJwtKey(rsaKey);
+            indexed.put(defaultKey.kid(), defaultKey);
+            for (JWK jwk : additionalKeys) {
+                JwtKey key = toJwtKey(jwk);
+                if (indexed.putIfAbsent(key.kid(), key) != null) {
+                    throw new IllegalStateException("Duplicate JWT key id " + key.kid());
+                }
+            }
+            this.keys = Map.copyOf(indexed);
+            this.activeKey = activeKid == null || activeKid.isBlank() ? defaultKey : keys.get(activeKid);
+            if (activeKey == null || activeKey.signer() == null) {
+                throw new IllegalStateException("Active JWT key " + activeKid + " is unknown or has no private key");
+            }
+            this.publicJwkSet = new JWKSet(indexed.values().stream().map(JwtKey::publicJwk).toList()).toJSONObject();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to build JWT keyring", e);
+        }
+        log.info("Loaded {} JWT keys, signing with {} ({})", keys.size(), activeKey.kid(), activeKey.algorithm());
+    }
+
+    public JwtKey getActiveKey() {
+        return activeKey;
+    }
+
+    /**
+     * Returns the key that signed a token with the given header, or empty if the key is unknown
+     * or the header algorithm does not match the algorithm of the key.
+     */
+    public Optional<JwtKey> findVerificationKey(JWSHeader header) {
+        JwtKey key = header.getKeyID() == null ? defaultKey : keys.get(header.getKeyID());
+        if (key == null || !key.algorithm().equals(header.getAlgorithm())) {
+            return Optional.empty();
+        }
+        return Optional.of(key);
+    }
+
+    /**
+     * Returns the public keys as a JWKS document.
+     */
+    public Map<String, Object> getPublicJwkSet() {
+        return publicJwkSet;
+    }
+
+    private static JwtKey toJwtKey(JWK jwk) throws JOSEException {
+        String kid = jwk.getKeyID() != null ? jwk.getKeyID() : jwk.computeThumbprint().toString();
+        JWSAlgorithm algorithm;
+        JWSSigner signer;
+        JWSVerifier verifier;
+        if (jwk instanceof RSAKey rsaKey) {
+            algorithm = JWSAlgorithm.RS256;
+            signer = rsaKey.isPrivate() ? new RSASSASigner(rsaKey) : null;
+            verifier = new RSASSAVerifier(rsaKey);
+        } else if (jwk instanceof ECKey ecKey && Curve.P_256.equals(ecKey.getCurve())) {
+            algorithm = JWSAlgorithm.ES256;
+            signer = ecKey.isPrivate() ? new ECDSASigner(ecKey) : null;
+            verifier = new ECDSAVerifier(ecKey);
+        } else if (jwk instanceof OctetKeyPair okp && Curve.Ed25519.equals(okp.getCurve())) {
+            algorithm = JWSAlgorithm.EdDSA;
+            signer = okp.isPrivate() ? new Ed25519Signer(okp) : null;
+            verifier = new Ed25519Verifier(okp.toPublicJWK());
+        } else {
+            throw new IllegalStateException("Unsupported JWT key " + kid + " of type " + jwk.getKeyType());
+        }
+        if (jwk.getAlgorithm() != null && !jwk.getAlgorithm().equals(algorithm)) {
+            throw new IllegalStateException("JWT key " + kid + " declares " + jwk.getAlgorithm() + " but is a " + algorithm + " key");
+        }
+
+        JWSHeader header = new JWSHeader.Builder(algorithm).keyID(kid).build();
+        JWK publicJwk = switch (jwk.toPublicJWK()) {
+            case RSAKey key -> new RSAKey.Builder(key).keyID(kid).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).build();
+            case ECKey key -> new ECKey.Builder(key).keyID(kid).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).build();
+            case OctetKeyPair key -> new OctetKeyPair.Builder(key).keyID(kid).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).build();
+            default -> throw new IllegalStateException("Unsupported JWT key " + kid);
+        };
+        return new JwtKey(kid, header, signer, verifier, publicJwk);
+    }
+
+    private static List<JWK> loadJwkSet(ResourceLoader resourceLoader, String location) {
+        if (location == null || location.isBlank()) {
+            return List.of();
+        }
+        try (InputStream inputStream = resourceLoader.getResource(location).getInputStream()) {
+            return JWKSet.load(inputStream).getKeys();
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to load JWK set from " + location, e);
+        }
+    }
+}
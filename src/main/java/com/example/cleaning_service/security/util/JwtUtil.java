@@ -1,70 +1,102 @@
 package com.example.cleaning_service.security.util;
 
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
 import com.example.cleaning_service.security.entities.user.User;
 import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.*;
 import com.nimbusds.jwt.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 import java.text.ParseException;
-import java.util.Date;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.time.Instant;
+import java.util.*;
 
 @Component
 public class JwtUtil {
     private static final Logger log = LoggerFactory.getLogger(JwtUtil.class);
     private static final Long EXPIRATION_TIME_IN_MILLIS = 86400000L;
     private static final Long EXPIRATION_TIME_IN_SECONDS = EXPIRATION_TIME_IN_MILLIS / 1000;
-    private final KeyProvider keyProvider;
-    public JwtUtil(KeyProvider keyProvider) {
-        this.keyProvider = keyProvider;
+    private final JwtKeyring keyring;
+    private final boolean compactAuthorityClaim;
+
+    public JwtUtil(JwtKeyring keyring) {
+        this(keyring, false);
+    }
+
+    /**
+     * @param compactAuthorityClaim Whether issued tokens carry their grants in the compact {@link AuthorityClaim}
+     *                              instead of the {@code roles} and {@code permissions} lists. Tokens in either
+     *                              format are accepted regardless, so the flag is safe to enable once every node
+     *                              runs a version that reads the compact claim.
+     */
+    @Autowired
+    public JwtUtil(JwtKeyring keyring,
+                   @Value("${security.jwt.compact-authority-claim:false}") boolean compactAuthorityClaim) {
+        this.keyring = keyring;
+        this.compactAuthorityClaim = compactAuthorityClaim;
     }
 
     /**
-     * Generates a JWT token using RS256.
+     * Generates a JWT token signed with the active key of the keyring.
      *
      * @param subject The user identifier (e.g., username).
      * @param expirationMillis The expiration time in milliseconds.
      * @return The generated JWT token.
      */
     public String generateToken(User subject, @Nullable Long expirationMillis) {
-        JWSSigner signer = new RSASSASigner(keyProvider.getPrivateKey());
+        return issueToken(subject, expirationMillis).token();
+    }
 
+    /**
+     * Generates a JWT token signed with the active key of the keyring and returns it together with its claims.
+     *
+     * @param subject The user identifier (e.g., username).
+     * @param expirationMillis The expiration time in milliseconds.
+     * @return The generated JWT token and the claims it carries.
+     */
+    public IssuedToken issueToken(User subject, @Nullable Long expirationMillis) {
         // Extract role and permissions
-        List<String> roles= subject.getRoles().stream()
-                .map(role -> role.getName().name())
-                .toList(); // Convert Enum to String
-        List<String> permissions = subject.getPermissions().stream()
-                .map(permission -> permission.getName().name()) // Convert Enum to String
-                .toList();
+        Set<ERole> roles = EnumSet.noneOf(ERole.class);
+        subject.getRoles().forEach(role -> roles.add(role.getName()));
+        Set<EPermission> permissions = subject.getPermissions();
 
         Date now = new Date(System.currentTimeMillis());
         expirationMillis = (expirationMillis != null)
                 ? expirationMillis : getDefaultExpirationTimeInMillis();
         Date expiryDate = new Date(now.getTime() + expirationMillis);
+        UUID id = UUID.randomUUID();
 
-        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .jwtID(id.toString()) // Key of the token record in Redis
                 .subject(subject.getUsername())  // Store username
-                .claim("roles", roles)          // Store user roles
-                .claim("permissions", permissions)  // Store user permissions
                 .issueTime(now)  // Issue time
-                .expirationTime(expiryDate) // Expiration time
-                .build();
+                .expirationTime(expiryDate); // Expiration time
 
-        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+        String authorityClaim = compactAuthorityClaim ? AuthorityClaim.encode(roles, permissions) : null;
+        if (authorityClaim != null) {
+            claims.claim(AuthorityClaim.NAME, authorityClaim); // Store roles and permissions as bitmasks
+        } else {
+            claims.claim("roles", roles.stream().map(Enum::name).toList())          // Store user roles
+                    .claim("permissions", permissions.stream().map(Enum::name).toList());  // Store user permissions
+        }
+        JWTClaimsSet claimsSet = claims.build();
+
+        JwtKeyring.JwtKey signingKey = keyring.getActiveKey();
+        SignedJWT signedJWT = new SignedJWT(signingKey.header(), claimsSet);
         try {
-            signedJWT.sign(signer);
+            signedJWT.sign(signingKey.signer());
         } catch (JOSEException e) {
             throw new RuntimeException(e);
         }
 
-        return signedJWT.serialize();
+        // JWT dates have second precision, so report the values that were actually serialized
+        return new IssuedToken(id, signedJWT.serialize(), subject.getUsername(),
+                Instant.ofEpochSecond(now.getTime() / 1000), Instant.ofEpochSecond(expiryDate.getTime() / 1000));
     }
 
     public Long getDefaultExpirationTimeInSeconds() {
@@ -96,109 +128,71 @@ public class JwtUtil {
     }
 
     /**
-     * Validates the JWT token against UserDetails using RS256.
+     * Parses the token, verifies its signature with the key named by its {@code kid} header
+     * and decodes its claims in a single pass.
      *
      * @param token The JWT token.
-     * @param user The user details to validate against.
-     * @return true if the token is valid, false otherwise.
+     * @return The verified token, or empty if the token is malformed, tampered with or expired.
      */
-    public boolean validateToken(String token, User user) {
-        SignedJWT signedJWT;
-        try {
-            signedJWT = SignedJWT.parse(token);
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
-        }
-        JWSVerifier verifier = new RSASSAVerifier(keyProvider.getPublicKey());
-
-        // Validate signature
+    public Optional<VerifiedToken> verifyToken(String token) {
         try {
-            if (!signedJWT.verify(verifier)) {
+            SignedJWT signedJWT = SignedJWT.parse(token);
+            Optional<JwtKeyring.JwtKey> key = keyring.findVerificationKey(signedJWT.getHeader());
+            if (key.isEmpty() || !signedJWT.verify(key.get().verifier())) {
                 log.warn("Cannot verify token {}", token);
-                return false;
+                return Optional.empty();
             }
-        } catch (JOSEException e) {
-            throw new RuntimeException(e);
-        }
 
-        // Extract claims
-        JWTClaimsSet claims;
-        try {
-            claims = signedJWT.getJWTClaimsSet();
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
-        }
-        String usernameFromToken = claims.getSubject();
-        Set<String> tokenRoles = extractRoles(token);
-        Set<String> tokenPermissions = extractPermissions(token);
-
-        // Validate expiration time
-        if (new Date().after(claims.getExpirationTime())) {
-            log.warn("Token expired: {}", token);
-            return false;
-        }
-
-        // Validate username
-        if (!user.getUsername().equals(usernameFromToken)) {
-            log.warn("Token's username unknown: {}", token);
-            return false;
-        }
-
-        Set<String> userRoles = user.getRoles().stream()
-                .map(role -> role.getName().name())
-                .collect(Collectors.toSet());
-        // Validate role
-        if (!userRoles.containsAll(tokenRoles)) {
-            log.warn("Token's role: {} not included in user's role {}", tokenRoles, userRoles);
-            return false;
-        }
-
-        Set<String> userPermissions = user.getPermissions().stream()
-                .map(permission -> permission.getName().name())
-                .collect(Collectors.toSet());
-
-        // Validate permissions
-        if (!userPermissions.containsAll(tokenPermissions)) {
-            log.warn("User permissions {} not contain all token permissions {}",
-                    userPermissions, tokenPermissions);
-            return false;
+            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+            if (claims.getSubject() == null || claims.getExpirationTime() == null) {
+                log.warn("Token is missing subject or expiration claim: {}", token);
+                return Optional.empty();
+            }
+            AuthorityGrants grants = readGrants(claims).orElse(null);
+            if (grants == null) {
+                log.warn("Token has an unreadable {} claim: {}", AuthorityClaim.NAME, token);
+                return Optional.empty();
+            }
+            VerifiedToken verifiedToken = new VerifiedToken(
+                    claims.getJWTID(),
+                    claims.getSubject(),
+                    grants,
+                    claims.getIssueTime() != null ? claims.getIssueTime().toInstant() : null,
+                    claims.getExpirationTime().toInstant()
+            );
+
+            // Validate expiration time
+            if (verifiedToken.isExpired(Instant.now())) {
+                log.warn("Token expired: {}", token);
+                return Optional.empty();
+            }
+            return Optional.of(verifiedToken);
+        } catch (ParseException | JOSEException | IllegalArgumentException e) {
+            log.warn("Cannot parse token {}: {}", token, e.getMessage());
+            return Optional.empty();
         }
-
-        return true;
     }
 
     /**
-     * Extracts the role from a JWT token.
+     * Reads the compact authority claim, falling back to the legacy {@code roles} and {@code permissions} lists
+     * for tokens issued without it.
      */
-    public Set<String> extractRoles(String token) {
-        SignedJWT signedJWT;
-        try {
-            signedJWT = SignedJWT.parse(token);
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
-        }
-        try {
-            return new HashSet<>(signedJWT.getJWTClaimsSet().getStringListClaim("roles"));
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
-        }
+    private static Optional<AuthorityGrants> readGrants(JWTClaimsSet claims) throws ParseException {
+        String authorityClaim = claims.getStringClaim(AuthorityClaim.NAME);
+        if (authorityClaim != null) {
+            return AuthorityClaim.decode(authorityClaim);
+        }
+        return Optional.of(AuthorityGrants.of(
+                toEnumSet(ERole.class, claims.getStringListClaim("roles")),
+                toEnumSet(EPermission.class, claims.getStringListClaim("permissions"))));
     }
 
-    /**
-     * Extracts permissions from a JWT token.
-     */
-    public Set<String> extractPermissions(String token) {
-        SignedJWT signedJWT;
-        try {
-            signedJWT = SignedJWT.parse(token);
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
-        }
-        try {
-            return new HashSet<>(signedJWT.getJWTClaimsSet().getStringListClaim("permissions"));
-        } catch (ParseException e) {
-            throw new RuntimeException(e);
+    private static <E extends Enum<E>> Set<E> toEnumSet(Class<E> type, List<String> names) {
+        Set<E> values = EnumSet.noneOf(type);
+        if (names != null) {
+            names.forEach(name -> values.add(Enum.valueOf(type, name)));
         }
+        return values;
     }
 
     /**
@@ -0,0 +1,47 @@
+package com.example.cleaning_service.security.util;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * The result of parsing a JWT, checking its signature and decoding its claims exactly once.
+ * <p>
+ * Instances are only created by {@link JwtUtil#verifyToken(String)} for tokens whose signature
+ * is valid and which have not expired, so holders can rely on the claims without re-parsing the raw token.
+ *
+ * @param id        The token identifier ({@code jti}), or {@code null} for tokens issued without one
+ * @param username  The subject of the token
+ * @param grants    The roles and permissions granted by the token
+ * @param issuedAt  The issue time of the token
+ * @param expiresAt The expiration time of the token
+ */
+public record VerifiedToken(
+        String id,
+        String username,
+        AuthorityGrants grants,
+        Instant issuedAt,
+        Instant expiresAt
+) {
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    public Set<ERole> roles() {
+        return grants.roles();
+    }
+
+    public Set<EPermission> permissions() {
+        return grants.permissions();
+    }
+
+    /**
+     * Returns the granted authorities carried by the token, shared by every token with the same grants.
+     */
+    public Set<GrantedAuthority> authorities() {
+        return grants.authorities();
+    }
+}
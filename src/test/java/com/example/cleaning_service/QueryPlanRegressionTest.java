@@ -0,0 +1,414 @@
+package com.example.cleaning_service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.metamodel.EntityType;
+import jakarta.persistence.metamodel.PluralAttribute;
+import org.hibernate.Hibernate;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.data.util.Streamable;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Fails when a repository query plans a sequential scan over one of the large tables.
+ * <p>
+ * Runs only when {@code QUERY_PLAN_DB_URL} points to a disposable PostgreSQL database (credentials in
+ * {@code QUERY_PLAN_DB_USERNAME} and {@code QUERY_PLAN_DB_PASSWORD}), for example:
+ * {@code QUERY_PLAN_DB_URL=jdbc:postgresql://localhost:5432/plans mvn test -Dtest=QueryPlanRegressionTest}.
+ * The changelog is applied, the tables are seeded with production-like volumes on the first run, and each statement
+ * is explained as the generic plan that a pooled prepared statement ends up with.
+ * <p>
+ * The statements are the ones Hibernate issues, recorded with a {@link StatementInspector}: every query method of
+ * every Spring Data repository is called with sample arguments, and every collection of every entity is loaded, each
+ * in a transaction that is rolled back. A new query method is therefore checked without touching this test, unless it
+ * takes a parameter type {@link #sample} does not know yet. Queries that read whole tables by design, such as
+ * {@code UserRepository.findByRolesName}, are skipped, as are the {@code JdbcTemplate} batch repositories, which write
+ * by primary and unique keys.
+ */
+@EnabledIfEnvironmentVariable(named = "QUERY_PLAN_DB_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+    private static final int USERS = 100_000;
+    private static final int PROVIDERS = 10_000;
+    private static final Set<String> SMALL_TABLES = Set.of("roles", "permissions", "role_permissions", "pg_class");
+    private static final Set<String> WHOLE_TABLE_QUERIES = Set.of("UserRepository.findByRolesName");
+    private static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+    @TestConfiguration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, LiquibaseAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = CleaningServiceApplication.class)
+    @EnableJpaRepositories(basePackageClasses = CleaningServiceApplication.class)
+    static class QueryPlanConfiguration {
+        @Bean
+        HibernatePropertiesCustomizer statementRecorder() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, (StatementInspector) sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            });
+        }
+    }
+
+    record QueryMethod(Class<?> domainType, Class<?> repository, Method method) {
+        @Override
+        public String toString() {
+            return repository.getSimpleName() + "." + method.getName();
+        }
+    }
+
+    record Association(EntityType<?> entity, PluralAttribute<?, ?, ?> attribute) {
+        @Override
+        public String toString() {
+            return entity.getName() + "." + attribute.getName();
+        }
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ConfigurableApplicationContext context;
+    private Repositories repositories;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private Connection connection;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        context = new SpringApplicationBuilder(QueryPlanConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + System.getenv("QUERY_PLAN_DB_URL"),
+                        "--spring.datasource.username=" + System.getenv("QUERY_PLAN_DB_USERNAME"),
+                        "--spring.datasource.password=" + System.getenv("QUERY_PLAN_DB_PASSWORD"),
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        repositories = new Repositories(context);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        connection = context.getBean(DataSource.class).getConnection();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            if (count(statement, "security.users") < USERS) {
+                seed(statement);
+            }
+            statement.execute("ANALYZE");
+            statement.execute("SET plan_cache_mode = force_generic_plan");
+        }
+    }
+
+    @AfterAll
+    void tearDown() throws Exception {
+        if (connection != null) {
+            connection.close();
+        }
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    Stream<QueryMethod> queryMethods() {
+        return Streamable.of(repositories).stream()
+                .flatMap(domainType -> {
+                    RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+                    return information.getQueryMethods().stream()
+                            .map(method -> new QueryMethod(domainType, information.getRepositoryInterface(), method));
+                })
+                .filter(query -> !WHOLE_TABLE_QUERIES.contains(query.toString()))
+                .sorted(Comparator.comparing(QueryMethod::toString));
+    }
+
+    Stream<Association> associations() {
+        return entityManagerFactory.getMetamodel().getEntities().stream()
+                .flatMap(entity -> entity.getDeclaredPluralAttributes().stream()
+                        .map(attribute -> new Association(entity, attribute)))
+                .sorted(Comparator.comparing(Association::toString));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queryMethods")
+    void queryMethodDoesNotScanLargeTables(QueryMethod query) throws Exception {
+        Object repository = repositories.getRepositoryFor(query.domainType()).orElseThrow();
+        List<String> statements = inRolledBackTransaction(() -> {
+            Type[] parameterTypes = query.method().getGenericParameterTypes();
+            Object[] arguments = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                arguments[i] = argument(parameterTypes[i]);
+            }
+            STATEMENTS.clear();
+            ReflectionUtils.invokeMethod(query.method(), repository, arguments);
+            return List.copyOf(STATEMENTS);
+        });
+
+        assertFalse(statements.isEmpty(), () -> query + " issued no statements");
+        for (String sql : statements) {
+            assertNoLargeSequentialScans(query.toString(), sql);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("associations")
+    void associationDoesNotScanLargeTables(Association association) throws Exception {
+        Class<?> entityType = association.entity().getJavaType();
+        String idAttribute = association.entity().getId(association.entity().getIdType().getJavaType()).getName();
+        List<String> statements = inRolledBackTransaction(() -> {
+            List<?> ids = entityManager
+                    .createQuery("select e." + idAttribute + " from " + association.entity().getName() + " e")
+                    .setMaxResults(1)
+                    .getResultList();
+            if (ids.isEmpty()) {
+                return null;
+            }
+            entityManager.clear();
+            STATEMENTS.clear();
+            Object entity = entityManager.find(entityType, ids.getFirst());
+            Hibernate.initialize(read(entity, association.attribute().getJavaMember()));
+            return List.copyOf(STATEMENTS);
+        });
+
+        assumeTrue(statements != null, () -> association.entity().getName() + " has no rows to load");
+        for (String sql : statements) {
+            assertNoLargeSequentialScans(association.toString(), sql);
+        }
+    }
+
+    private <T> T inRolledBackTransaction(Supplier<T> work) {
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return work.get();
+        });
+    }
+
+    /**
+     * A value for a query method parameter: two distinct elements for a collection, an uninitialized reference for an
+     * entity, so that only its ID is bound.
+     */
+    private Object argument(Type parameterType) {
+        ResolvableType type = ResolvableType.forType(parameterType);
+        Class<?> rawType = type.toClass();
+        if (Collection.class.isAssignableFrom(rawType)) {
+            Class<?> elementType = type.asCollection().getGeneric(0).toClass();
+            List<Object> elements = List.of(sample(elementType, 0), sample(elementType, 1));
+            return Set.class.isAssignableFrom(rawType) ? new HashSet<>(elements) : elements;
+        }
+        return sample(rawType, 0);
+    }
+
+    private Object sample(Class<?> type, int index) {
+        if (type == String.class) {
+            return "plan_user_" + (index + 1);
+        }
+        if (type == UUID.class) {
+            return UUID.randomUUID();
+        }
+        if (type == Instant.class) {
+            return Instant.now();
+        }
+        if (type == int.class || type == Integer.class) {
+            return 20;
+        }
+        if (type == long.class || type == Long.class) {
+            return 20L;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return false;
+        }
+        if (type.isEnum()) {
+            Object[] constants = type.getEnumConstants();
+            return constants[index % constants.length];
+        }
+        if (type.isAnnotationPresent(Entity.class)) {
+            Class<?> idType = entityManagerFactory.getMetamodel().entity(type).getIdType().getJavaType();
+            return entityManager.getReference(type, sample(idType, index));
+        }
+        throw new IllegalArgumentException("No sample value for parameters of type " + type.getName());
+    }
+
+    private static Object read(Object entity, Member member) {
+        if (member instanceof Field field) {
+            ReflectionUtils.makeAccessible(field);
+            return ReflectionUtils.getField(field, entity);
+        }
+        return ReflectionUtils.invokeMethod((Method) member, entity);
+    }
+
+    private void assertNoLargeSequentialScans(String name, String sql) throws Exception {
+        JsonNode plan = explain(sql);
+        List<String> scanned = new ArrayList<>();
+        collectSequentialScans(plan, scanned);
+        assertTrue(scanned.isEmpty(), () -> name + " scans " + scanned + " in\n" + sql + "\n" + plan.toPrettyString());
+    }
+
+    private JsonNode explain(String sql) throws Exception {
+        // Hibernate issues JDBC placeholders; PREPARE takes numbered ones
+        StringBuilder numbered = new StringBuilder();
+        int parameters = 0;
+        boolean quoted = false;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        // The generic plan does not depend on the values, so NULL stands in for every parameter
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PREPARE planned_query AS " + numbered);
+            try (ResultSet resultSet = statement.executeQuery("EXPLAIN (FORMAT JSON) EXECUTE planned_query" + arguments)) {
+                resultSet.next();
+                return objectMapper.readTree(resultSet.getString(1)).get(0).get("Plan");
+            } finally {
+                statement.execute("DEALLOCATE planned_query");
+            }
+        }
+    }
+
+    private static void collectSequentialScans(JsonNode node, List<String> scanned) {
+        if ("Seq Scan".equals(node.path("Node Type").asText())
+                && !SMALL_TABLES.contains(node.path("Relation Name").asText())) {
+            scanned.add(node.path("Relation Name").asText());
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectSequentialScans(child, scanned);
+        }
+    }
+
+    private static long count(Statement statement, String table) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    /**
+     * One account, customer, role and five notifications per user; the customers are split evenly across the four
+     * subtypes and a tenth of the users also run a provider.
+     */
+    private static void seed(Statement statement) throws Exception {
+        statement.execute("""
+                INSERT INTO security.roles (id, version, created_at, name)
+                SELECT gen_random_uuid(), 0, now(), role.name
+                FROM unnest(ARRAY['ADMIN', 'USER', 'CUSTOMER', 'CLEANER', 'SUPERVISOR', 'SUPPORT', 'PROVIDER']) role(name)
+                WHERE NOT EXISTS (SELECT 1 FROM security.roles r WHERE r.name = role.name)""");
+        statement.execute("""
+                INSERT INTO security.users (id, version, created_at, username, password, is_enabled,
+                                            is_account_non_expired, is_account_non_locked, is_credentials_non_expired)
+                SELECT gen_random_uuid(), 0, now(), 'plan_user_' || i, 'x', true, true, true, true
+                FROM generate_series(1, %d) i""".formatted(USERS));
+        statement.execute("""
+                INSERT INTO security.user_roles (role_id, user_id)
+                SELECT (SELECT id FROM security.roles WHERE name = 'CUSTOMER'), u.id
+                FROM security.users u WHERE u.username LIKE 'plan_user_%'""");
+        statement.execute("""
+                INSERT INTO customer.customer_details (id, version, created_at, name, email, loyalty_type, tax_id,
+                                                       registration_number, customer_type)
+                SELECT gen_random_uuid(), 0, now(), 'Customer ' || i, 'customer' || i || '@example.com', 'STANDARD',
+                       'TX-' || i, 'REG-' || i,
+                       (ARRAY['INDIVIDUAL', 'COMPANY', 'GOVERNMENT', 'NON_PROFIT'])[i % 4 + 1]
+                FROM generate_series(1, %d) i""".formatted(USERS));
+        statement.execute("""
+                INSERT INTO customer.companies (id, organization_type, company_type)
+                SELECT c.id, c.customer_type, 'SMALL_BUSINESS' FROM customer.customer_details c
+                WHERE c.customer_type = 'COMPANY'""");
+        statement.execute("""
+                INSERT INTO customer.governments (id, organization_type, is_tax_exempt, requires_emergency_cleaning)
+                SELECT c.id, c.customer_type, true, false FROM customer.customer_details c
+                WHERE c.customer_type = 'GOVERNMENT'""");
+        statement.execute("""
+                INSERT INTO customer.individual_customers (id, organization_type)
+                SELECT c.id, c.customer_type FROM customer.customer_details c WHERE c.customer_type = 'INDIVIDUAL'""");
+        statement.execute("""
+                INSERT INTO customer.non_profit_org (id, organization_type)
+                SELECT c.id, c.customer_type FROM customer.customer_details c WHERE c.customer_type = 'NON_PROFIT'""");
+        statement.execute("""
+                INSERT INTO customer.customer_preferred_days (id, preferred_day, customer_id)
+                SELECT gen_random_uuid(), day, c.id
+                FROM customer.customer_details c, unnest(ARRAY['MONDAY', 'THURSDAY']) day""");
+        statement.execute("""
+                INSERT INTO sale.customer_account (id, version, created_at, user_id, customer_id, is_primary,
+                                                   association_type)
+                SELECT gen_random_uuid(), 0, now(), u.id, c.id, true, 'OWNER'
+                FROM (SELECT id, row_number() OVER () rn FROM security.users WHERE username LIKE 'plan_user_%') u
+                JOIN (SELECT id, row_number() OVER () rn FROM customer.customer_details) c ON c.rn = u.rn""");
+        statement.execute("""
+                INSERT INTO security.security_notifications (id, user_id, type, message, timestamp, read)
+                SELECT gen_random_uuid(), u.id, 'LOGIN', 'New login', i, i % 5 <> 0
+                FROM security.users u, generate_series(1, 5) i
+                WHERE u.username LIKE 'plan_user_%'""");
+        statement.execute("""
+                INSERT INTO provider.providers (id, version, created_at, name)
+                SELECT gen_random_uuid(), 0, now(), 'Provider ' || i
+                FROM generate_series(1, %d) i""".formatted(PROVIDERS));
+        statement.execute("""
+                INSERT INTO provider.provider_accounts (id, version, created_at, provider_id, user_id, active)
+                SELECT gen_random_uuid(), 0, now(), p.id, u.id, true
+                FROM (SELECT id, row_number() OVER () rn FROM provider.providers) p
+                JOIN (SELECT id, row_number() OVER () rn FROM security.users WHERE username LIKE 'plan_user_%') u
+                    ON u.rn = p.rn""");
+        for (String table : List.of("provider_service_types", "provider_service_areas", "provider_certifications",
+                "provider_equipment")) {
+            String column = switch (table) {
+                case "provider_service_types" -> "service_type";
+                case "provider_service_areas" -> "service_area";
+                case "provider_certifications" -> "certification";
+                default -> "equipment";
+            };
+            statement.execute("INSERT INTO provider." + table + " (provider_id, " + column + ") "
+                    + "SELECT p.id, 'value ' || i FROM provider.providers p, generate_series(1, 3) i");
+        }
+        statement.execute("""
+                INSERT INTO provider.provider_availability (provider_id, day_of_week, start_time, end_time)
+                SELECT p.id, day, TIME '08:00', TIME '17:00'
+                FROM provider.providers p, unnest(ARRAY['MONDAY', 'WEDNESDAY', 'FRIDAY']) day""");
+    }
+}
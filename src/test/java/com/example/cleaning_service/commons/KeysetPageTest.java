@@ -0,0 +1,61 @@
+package com.example.cleaning_service.commons;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetPageTest {
+    private static final List<KeysetCursor> ROWS = IntStream.range(0, 5)
+            .mapToObj(i -> KeysetCursor.of(Instant.ofEpochSecond(1_700_000_000L + i, 123_456_000), UUID.randomUUID()))
+            .toList();
+
+    @Test
+    void cursorRoundTripsThroughItsToken() {
+        KeysetCursor cursor = ROWS.get(3);
+
+        assertEquals(cursor, KeysetCursor.decode(cursor.encode()));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    void firstPageLinksOnlyForward() {
+        KeysetPage<KeysetCursor> page = KeysetPage.of(ROWS.subList(0, 3), KeysetRequest.first(2), row -> row);
+
+        assertEquals(ROWS.subList(0, 2), page.content());
+        assertEquals(ROWS.get(1), page.next());
+        assertNull(page.previous());
+    }
+
+    @Test
+    void lastPageForwardLinksOnlyBack() {
+        KeysetRequest request = new KeysetRequest(ROWS.get(2), null, 2);
+        KeysetPage<KeysetCursor> page = KeysetPage.of(ROWS.subList(3, 5), request, row -> row);
+
+        assertEquals(ROWS.subList(3, 5), page.content());
+        assertNull(page.next());
+        assertEquals(ROWS.get(3), page.previous());
+    }
+
+    @Test
+    void backwardPageIsReturnedInListingOrder() {
+        KeysetRequest request = new KeysetRequest(null, ROWS.get(4), 2);
+        // Fetched newest first, one past the page size
+        KeysetPage<KeysetCursor> page = KeysetPage.of(List.of(ROWS.get(3), ROWS.get(2), ROWS.get(1)), request, row -> row);
+
+        assertEquals(ROWS.subList(2, 4), page.content());
+        assertEquals(ROWS.get(3), page.next());
+        assertEquals(ROWS.get(2), page.previous());
+    }
+
+    @Test
+    void rejectsBothDirectionsAndClampsSize() {
+        assertThrows(IllegalArgumentException.class, () -> new KeysetRequest(ROWS.get(0), ROWS.get(1), 10));
+        assertEquals(KeysetRequest.MAX_SIZE, KeysetRequest.first(10_000).size());
+        assertEquals(1, KeysetRequest.first(0).size());
+    }
+}
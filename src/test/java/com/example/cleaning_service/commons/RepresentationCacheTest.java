@@ -0,0 +1,198 @@
+package com.example.cleaning_service.commons;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.hateoas.RepresentationModel;
+import org.springframework.hateoas.mediatype.MediaTypeConfigurationCustomizer;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.HalConfiguration;
+import org.springframework.hateoas.mediatype.hal.HalMediaTypeConfiguration;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepresentationCacheTest {
+    private static final String BASE_URI = "https://api.example.com/api/v1";
+    private static final UUID ID = UUID.randomUUID();
+
+    static class Details extends RepresentationModel<Details> {
+        public final String name;
+
+        Details(String name) {
+            this.name = name;
+        }
+    }
+
+    // Stands in for Redis: the values by key, or unreachable while down is set
+    private final Map<String, byte[]> redis = new HashMap<>();
+    private boolean down;
+    private String requestBaseUri = BASE_URI;
+    private final AtomicInteger renders = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private RepresentationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        HalMediaTypeConfiguration halMediaTypeConfiguration = new HalMediaTypeConfiguration(
+                new DefaultLinkRelationProvider(),
+                beanFactory.getBeanProvider(CurieProvider.class),
+                beanFactory.getBeanProvider(HalConfiguration.class),
+                beanFactory.getBeanProvider(ResolvableType.forClassWithGenerics(
+                        MediaTypeConfigurationCustomizer.class, HalConfiguration.class)),
+                MessageResolver.DEFAULTS_ONLY,
+                beanFactory);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RepresentationCache(redisTemplate(), new ObjectMapper(), halMediaTypeConfiguration, meterRegistry,
+                Duration.ofMinutes(30), BASE_URI) {
+            @Override
+            String requestBaseUri() {
+                return requestBaseUri;
+            }
+        };
+    }
+
+    @Test
+    void missRendersAndStores() {
+        byte[] body = get(1L, "first");
+
+        assertEquals(1, renders.get());
+        assertEquals(1, redis.size());
+        assertTrue(new String(body, StandardCharsets.UTF_8).contains("\"name\":\"first\""));
+        assertEquals(1, requests("miss"));
+        assertEquals(0, requests("hit"));
+    }
+
+    @Test
+    void hitReturnsTheStoredBodyWithoutRendering() {
+        byte[] stored = get(1L, "first");
+
+        byte[] body = get(1L, "changed");
+
+        assertEquals(1, renders.get());
+        assertArrayEquals(stored, body);
+        assertEquals(1, requests("hit"));
+        assertEquals(0.5, meterRegistry.get("representation.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void newVersionIsRenderedAgain() {
+        get(1L, "first");
+
+        byte[] body = get(2L, "second");
+
+        assertEquals(2, renders.get());
+        assertTrue(new String(body, StandardCharsets.UTF_8).contains("\"name\":\"second\""));
+    }
+
+    @Test
+    void evictDropsTheEntryOutsideOfARequest() {
+        get(1L, "first");
+        requestBaseUri = null;
+
+        cache.evict("details", ID, 1L);
+
+        assertTrue(redis.isEmpty());
+    }
+
+    @Test
+    void rendersOnEveryCallWhileRedisIsDown() {
+        down = true;
+
+        byte[] first = get(1L, "first");
+        byte[] second = get(1L, "first");
+
+        assertEquals(2, renders.get());
+        assertArrayEquals(first, second);
+        assertEquals(2, requests("miss"));
+    }
+
+    @Test
+    void otherBaseUriNeitherReadsNorStores() {
+        byte[] stored = get(1L, "first");
+        requestBaseUri = "https://attacker.example.com/api/v1";
+
+        byte[] body = get(1L, "foreign");
+
+        assertEquals(2, renders.get());
+        assertTrue(new String(body, StandardCharsets.UTF_8).contains("\"name\":\"foreign\""));
+        assertArrayEquals(stored, redis.values().iterator().next());
+        assertEquals(1, requests("miss"));
+    }
+
+    private byte[] get(Long version, String name) {
+        return cache.get("details", ID, version, () -> {
+            renders.incrementAndGet();
+            return new Details(name);
+        });
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("representation.cache.requests").tag("result", result).counter().count();
+    }
+
+    private StringRedisTemplate redisTemplate() {
+        RedisStringCommands stringCommands = proxy(RedisStringCommands.class, (name, args) -> switch (name) {
+            case "mGet" -> Arrays.stream((byte[][]) args[0]).map(key -> redis.get(string(key))).toList();
+            case "set" -> {
+                redis.put(string((byte[]) args[0]), (byte[]) args[1]);
+                yield true;
+            }
+            default -> throw new UnsupportedOperationException(name);
+        });
+        RedisKeyCommands keyCommands = proxy(RedisKeyCommands.class, (name, args) -> switch (name) {
+            case "del" -> Arrays.stream((byte[][]) args[0]).filter(key -> redis.remove(string(key)) != null).count();
+            default -> throw new UnsupportedOperationException(name);
+        });
+        RedisConnection connection = proxy(RedisConnection.class, (name, args) -> switch (name) {
+            case "stringCommands" -> stringCommands;
+            case "keyCommands" -> keyCommands;
+            default -> throw new UnsupportedOperationException(name);
+        });
+        return new StringRedisTemplate() {
+            @Override
+            public <T> T execute(RedisCallback<T> action) {
+                if (down) {
+                    throw new RedisConnectionFailureException("Redis is down");
+                }
+                return action.doInRedis(connection);
+            }
+
+            @Override
+            public List<Object> executePipelined(RedisCallback<?> action) {
+                execute(action);
+                return List.of();
+            }
+        };
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+
+    private static String string(byte[] key) {
+        return new String(key, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cleaning_service.customers.services.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsPlainAndQuotedFields() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "type,companyName,notes\r\nCOMPANY,\"Acme, Inc.\",\"Says \"\"hi\"\"\"\r\n"));
+
+        assertEquals(List.of("type", "companyName", "notes"), reader.next());
+        assertEquals(List.of("COMPANY", "Acme, Inc.", "Says \"hi\""), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void keepsLineBreaksInQuotedFieldsAndCountsLines() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a,b\n\"first\nsecond\",x\n\n,\nlast,"));
+
+        assertEquals(List.of("a", "b"), reader.next());
+        assertEquals(List.of("first\nsecond", "x"), reader.next());
+        assertEquals(2, reader.recordLine());
+        assertEquals(List.of("", ""), reader.next());
+        assertEquals(5, reader.recordLine());
+        assertEquals(List.of("last", ""), reader.next());
+        assertEquals(6, reader.recordLine());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsUnterminatedQuotes() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("a\n\"open\n"));
+
+        assertEquals(List.of("a"), reader.next());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+        assertTrue(e.getMessage().contains("line 2"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.cleaning_service.customers.services.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvRecordWriterTest {
+
+    @Test
+    void quotesOnlyFieldsThatNeedIt() throws IOException {
+        StringWriter output = new StringWriter();
+        new CsvRecordWriter(output).write(new Object[]{"plain", null, "a,b", "say \"hi\"", 42, true});
+
+        assertEquals("plain,,\"a,b\",\"say \"\"hi\"\"\",42,true\r\n", output.toString());
+    }
+
+    @Test
+    void roundTripsThroughTheReader() throws IOException {
+        List<String> fields = List.of("line\nbreak", "", "\"quoted\"", "comma, separated", "MONDAY;FRIDAY");
+        StringWriter output = new StringWriter();
+        CsvRecordWriter writer = new CsvRecordWriter(output);
+        writer.write(fields);
+        writer.write(Arrays.asList("second", null));
+
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(output.toString()));
+        assertEquals(fields, reader.next());
+        assertEquals(List.of("second", ""), reader.next());
+        assertNull(reader.next());
+    }
+}
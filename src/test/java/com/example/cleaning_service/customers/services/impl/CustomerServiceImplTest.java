@@ -0,0 +1,24 @@
+package com.example.cleaning_service.customers.services.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerServiceImplTest {
+
+    @Test
+    void normalizesIdentifiersLikeTheDuplicateIndexes() {
+        assertEquals("123456789", CustomerServiceImpl.normalizeIdentifier("12-3456789"));
+        assertEquals("GB123456789", CustomerServiceImpl.normalizeIdentifier("gb 123 456 789"));
+        assertEquals("501C3123", CustomerServiceImpl.normalizeIdentifier("501(c)(3)-123"));
+        assertNull(CustomerServiceImpl.normalizeIdentifier("--"));
+        assertNull(CustomerServiceImpl.normalizeIdentifier(null));
+    }
+
+    @Test
+    void normalizesEmailsCaseInsensitively() {
+        assertEquals("john.doe@company.org", CustomerServiceImpl.normalizeEmail("John.Doe@Company.ORG"));
+        assertNull(CustomerServiceImpl.normalizeEmail(" "));
+        assertNull(CustomerServiceImpl.normalizeEmail(null));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.cleaning_service.security.authorization;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.util.AuthorityGrants;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthorityRuleTest {
+    private static final AuthorityGrants ADMIN = AuthorityGrants.of(EnumSet.of(ERole.ADMIN), ERole.ADMIN.getPermissions());
+    private static final AuthorityGrants CUSTOMER = AuthorityGrants.of(EnumSet.of(ERole.CUSTOMER), ERole.CUSTOMER.getPermissions());
+
+    @Test
+    void compilesTheExpressionsUsedByTheControllers() {
+        AuthorityRule admin = AuthorityRule.compile("hasRole('ADMIN')").orElseThrow();
+        AuthorityRule adminManagingUsers = AuthorityRule.compile("hasRole('ADMIN') and hasAuthority('MANAGE_USERS')").orElseThrow();
+
+        assertTrue(admin.test(ADMIN));
+        assertFalse(admin.test(CUSTOMER));
+        assertTrue(adminManagingUsers.test(ADMIN));
+        assertFalse(adminManagingUsers.test(AuthorityGrants.of(EnumSet.of(ERole.ADMIN), Set.of())));
+    }
+
+    @Test
+    void compilesAnyOfAndDisjunctions() {
+        AuthorityRule anyRole = AuthorityRule.compile("hasAnyRole('ADMIN', 'ROLE_CUSTOMER')").orElseThrow();
+        AuthorityRule either = AuthorityRule.compile("hasAuthority('MANAGE_USERS') or hasAuthority('ROLE_PROVIDER')").orElseThrow();
+
+        assertTrue(anyRole.test(CUSTOMER));
+        assertFalse(anyRole.test(AuthorityGrants.of(EnumSet.of(ERole.USER), Set.of(EPermission.CREATE_ACCOUNT))));
+        assertTrue(either.test(ADMIN));
+        assertFalse(either.test(CUSTOMER));
+    }
+
+    @Test
+    void leavesOtherExpressionsToSpel() {
+        assertTrue(AuthorityRule.compile("hasRole('ADMIN') and hasRole('USER') or hasRole('CUSTOMER')").isEmpty());
+        assertTrue(AuthorityRule.compile("hasRole('UNKNOWN')").isEmpty());
+        assertTrue(AuthorityRule.compile("#id == authentication.principal.id").isEmpty());
+        assertTrue(AuthorityRule.compile("isAuthenticated()").isEmpty());
+    }
+}
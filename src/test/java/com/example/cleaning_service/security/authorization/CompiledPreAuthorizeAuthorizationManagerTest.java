@@ -0,0 +1,43 @@
+package com.example.cleaning_service.security.authorization;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledPreAuthorizeAuthorizationManagerTest {
+
+    static class Base {
+        public void read() {
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    static class AdminTarget extends Base {
+    }
+
+    @PreAuthorize("hasRole('CUSTOMER')")
+    static class CustomerTarget extends Base {
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void compilesAnInheritedMethodPerTargetClass() throws NoSuchMethodException {
+        CompiledPreAuthorizeAuthorizationManager manager =
+                new CompiledPreAuthorizeAuthorizationManager(new PreAuthorizeAuthorizationManager());
+        Method read = Base.class.getMethod("read");
+        Authentication customer = UsernamePasswordAuthenticationToken.authenticated("customer", null,
+                List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER")));
+
+        assertFalse(manager.check(() -> customer, new SimpleMethodInvocation(new AdminTarget(), read)).isGranted());
+        assertTrue(manager.check(() -> customer, new SimpleMethodInvocation(new CustomerTarget(), read)).isGranted());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.cleaning_service.security.cache;
+
+import com.example.cleaning_service.security.repositories.TokenStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationFilterTest {
+
+    @Test
+    void idsAddedDuringRebuildsAreNeverLost() throws Exception {
+        // Stands in for the revoked set in Redis, which callers write before calling add()
+        Set<UUID> revoked = ConcurrentHashMap.newKeySet();
+        RevocationFilter filter = new RevocationFilter(new TokenStateRepository(null) {
+            @Override
+            public Set<UUID> findRevokedIds() {
+                return Set.copyOf(revoked);
+            }
+        }, new SimpleMeterRegistry(), 100_000, 0.01);
+        filter.rebuild();
+
+        AtomicBoolean adding = new AtomicBoolean(true);
+        Thread rebuilder = new Thread(() -> {
+            while (adding.get()) {
+                filter.rebuild();
+            }
+        });
+        rebuilder.start();
+
+        int threads = 4;
+        List<UUID> added = new ArrayList<>();
+        List<Thread> writers = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            List<UUID> ids = new ArrayList<>();
+            for (int i = 0; i < 5_000; i++) {
+                ids.add(UUID.randomUUID());
+            }
+            added.addAll(ids);
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (UUID id : ids) {
+                    revoked.add(id);
+                    filter.add(id);
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        adding.set(false);
+        rebuilder.join();
+
+        for (UUID id : added) {
+            assertTrue(filter.mightBeRevoked(id.toString()), "lost revocation of " + id);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cleaning_service.security.cache;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.entities.user.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserAuthorizationSnapshotTest {
+
+    @Test
+    void bytesRoundTrip() {
+        UserAuthorizationSnapshot snapshot = new UserAuthorizationSnapshot(
+                UUID.randomUUID(), 3L, "jane", true, true, false, true,
+                Set.of(ERole.CUSTOMER, ERole.PROVIDER), ERole.CUSTOMER.getPermissions());
+
+        UserAuthorizationSnapshot decoded = UserAuthorizationSnapshot.fromBytes(snapshot.toBytes());
+
+        assertEquals(snapshot, decoded);
+        assertFalse(decoded.isUsable());
+    }
+
+    @Test
+    void principalCarriesIdentityAndVersion() {
+        UUID id = UUID.randomUUID();
+        User principal = new UserAuthorizationSnapshot(
+                id, 7L, "jane", true, true, true, true, Set.of(ERole.USER), Set.of(EPermission.CREATE_ACCOUNT))
+                .toPrincipal();
+
+        assertEquals(id, principal.getId());
+        assertEquals(7L, principal.getVersion());
+        assertEquals("jane", principal.getUsername());
+        assertTrue(principal.isAccountNonLocked());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.cleaning_service.security.crypto;
+
+import com.example.cleaning_service.exceptions.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void hashesOnThePoolAndFlagsHashesWithAnotherCost() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 2, 4, Duration.ofSeconds(5),
+                new SimpleMeterRegistry())) {
+            String encoded = encoder.encode("secret");
+
+            assertTrue(encoder.matches("secret", encoded));
+            assertFalse(encoder.matches("other", encoded));
+            assertFalse(encoder.upgradeEncoding(encoded));
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        }
+    }
+
+    @Test
+    void rejectsWhenWaitingTooLong() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(14, 1, 1, Duration.ofMillis(1),
+                new SimpleMeterRegistry())) {
+            assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("secret"));
+        }
+    }
+
+    @Test
+    void timedOutHashesGiveUpTheirQueueSlot() {
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(15, 1, 1, Duration.ofMillis(50),
+                new SimpleMeterRegistry())) {
+            // Keeps the only thread busy well past the timeouts below
+            assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("running"));
+            assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("queued"));
+
+            PasswordHashingRejectedException rejected =
+                    assertThrows(PasswordHashingRejectedException.class, () -> encoder.encode("next"));
+            assertEquals("Password hashing timed out", rejected.getMessage());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.cleaning_service.security.entities.user;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.entities.role.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserTest {
+
+    private static Role role(ERole name) {
+        return new Role(name, Set.of());
+    }
+
+    @Test
+    void derivesPermissionsFromRoles() {
+        User user = new User("jane", "secret", role(ERole.USER));
+        assertEquals(ERole.USER.getPermissions(), user.getPermissions());
+
+        user.addRole(role(ERole.CUSTOMER));
+        Set<EPermission> expected = EnumSet.copyOf(ERole.USER.getPermissions());
+        expected.addAll(ERole.CUSTOMER.getPermissions());
+        assertEquals(expected, user.getPermissions());
+
+        user.removeRole(role(ERole.USER));
+        assertEquals(ERole.CUSTOMER.getPermissions(), user.getPermissions());
+    }
+
+    @Test
+    void appliesGrantsAndDeniesOnTopOfRoles() {
+        User user = new User("jane", "secret", role(ERole.CUSTOMER));
+
+        user.grantPermissions(Set.of(EPermission.VIEW_REPORTS));
+        user.denyPermissions(Set.of(EPermission.CANCEL_ORDERS));
+        assertTrue(user.getPermissions().contains(EPermission.VIEW_REPORTS));
+        assertFalse(user.getPermissions().contains(EPermission.CANCEL_ORDERS));
+        assertTrue(user.getAuthorities().stream().noneMatch(a -> a.getAuthority().equals("CANCEL_ORDERS")));
+
+        user.grantPermissions(Set.of(EPermission.CANCEL_ORDERS));
+        assertTrue(user.getPermissions().contains(EPermission.CANCEL_ORDERS));
+
+        user.clearPermissionOverrides();
+        assertEquals(ERole.CUSTOMER.getPermissions(), user.getPermissions());
+    }
+}
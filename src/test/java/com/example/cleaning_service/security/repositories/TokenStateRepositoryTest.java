@@ -0,0 +1,36 @@
+package com.example.cleaning_service.security.repositories;
+
+import com.example.cleaning_service.security.entities.token.TokenEntity;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenStateRepositoryTest {
+
+    @Test
+    void encodedRecordRoundTrips() {
+        UUID id = UUID.randomUUID();
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1));
+
+        byte[] value = TokenStateRepository.encode("header.payload.signature", "jôsé", expiresAt);
+        TokenEntity tokenEntity = TokenStateRepository.decode(id, value);
+
+        assertEquals(id, tokenEntity.getId());
+        assertEquals("header.payload.signature", tokenEntity.getToken());
+        assertEquals("jôsé", tokenEntity.getUsername());
+        assertFalse(tokenEntity.isBlacklisted());
+        assertTrue(tokenEntity.getTimeToLive() > 0);
+    }
+
+    @Test
+    void stateLivesInFirstByte() {
+        byte[] value = TokenStateRepository.encode("t", "u", Instant.now().plusSeconds(60));
+        value[0] |= 0x01;
+
+        assertTrue(TokenStateRepository.decode(UUID.randomUUID(), value).isBlacklisted());
+    }
+}
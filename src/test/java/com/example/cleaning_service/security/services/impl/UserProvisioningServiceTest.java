@@ -0,0 +1,180 @@
+package com.example.cleaning_service.security.services.impl;
+
+import com.example.cleaning_service.exceptions.PasswordHashingRejectedException;
+import com.example.cleaning_service.security.crypto.BoundedPasswordEncoder;
+import com.example.cleaning_service.security.dtos.user.BulkUserReport;
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.entities.role.Role;
+import com.example.cleaning_service.security.repositories.UserBatchRepository;
+import com.example.cleaning_service.security.repositories.UserBatchRepository.NewUser;
+import com.example.cleaning_service.security.repositories.UserRepository;
+import com.example.cleaning_service.security.services.IRoleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserProvisioningServiceTest {
+    private static final String PASSWORD = "StrongP@ssw0rd123";
+    private static final String REJECTED_PASSWORD = "Rejected@ssw0rd123";
+
+    // Stand in for the users table: the stored usernames, and those another writer inserts during the job
+    private final Set<String> existing = new HashSet<>();
+    private final Set<String> takenConcurrently = new HashSet<>();
+    private final List<List<NewUser>> batches = new ArrayList<>();
+    private BoundedPasswordEncoder passwordEncoder;
+    private UserProvisioningService service;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findExistingUsernames")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Set<String> found = new HashSet<>(existing);
+                    found.retainAll((Collection<?>) args[0]);
+                    return found;
+                });
+        UserBatchRepository userBatchRepository = new UserBatchRepository(null) {
+            @Override
+            public void insertAll(List<NewUser> users, Instant createdAt, String createdBy) {
+                if (users.stream().anyMatch(user -> takenConcurrently.contains(user.username()))) {
+                    throw new DuplicateKeyException("duplicate key value violates unique constraint \"uc_users_username\"");
+                }
+                batches.add(users);
+            }
+        };
+        passwordEncoder = new BoundedPasswordEncoder(4, 2, 4, Duration.ofSeconds(5), new SimpleMeterRegistry()) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                if (REJECTED_PASSWORD.contentEquals(rawPassword)) {
+                    throw new PasswordHashingRejectedException("Password hashing queue is full", null);
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        service = new UserProvisioningService(userRepository, userBatchRepository, new FixedRoleService(),
+                new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(),
+                new NoOpTransactionManager(), passwordEncoder, new SimpleMeterRegistry(), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordEncoder.close();
+    }
+
+    @Test
+    void insertsEachChunkInOneBatch() throws IOException {
+        BulkUserReport report = provision(user("alice_0001", PASSWORD), user("bob_00002", PASSWORD),
+                user("carol_0003", PASSWORD));
+
+        assertEquals(new BulkUserReport(3, 3, List.of()), report);
+        assertEquals(List.of(2, 1), batches.stream().map(List::size).toList());
+        NewUser alice = batches.getFirst().getFirst();
+        assertTrue(passwordEncoder.matches(PASSWORD, alice.encodedPassword()));
+        assertEquals(1L << EPermission.CREATE_ACCOUNT.bit(), alice.permissionMask());
+    }
+
+    @Test
+    void reportsUnusableLinesAndKeepsGoing() throws IOException {
+        existing.add("taken_0005");
+
+        BulkUserReport report = provision("{not json", "null", user("short", PASSWORD), user("alice_0001", PASSWORD),
+                user("alice_0001", PASSWORD), user("taken_0005", PASSWORD));
+
+        assertEquals(6, report.received());
+        assertEquals(1, report.created());
+        assertEquals(List.of(1L, 2L, 3L, 5L, 6L), report.failures().stream().map(BulkUserReport.Failure::line).toList());
+        assertTrue(report.failures().get(0).reason().startsWith("Malformed JSON"));
+        assertNull(report.failures().get(1).username());
+        assertEquals("Duplicate username in request", report.failures().get(3).reason());
+        assertEquals("Username already exists", report.failures().get(4).reason());
+    }
+
+    @Test
+    void retriesRowByRowWhenTheBatchFails() throws IOException {
+        takenConcurrently.add("bob_00002");
+
+        BulkUserReport report = provision(user("alice_0001", PASSWORD), user("bob_00002", PASSWORD));
+
+        assertEquals(1, report.created());
+        assertEquals(List.of("alice_0001"), batches.stream().flatMap(List::stream).map(NewUser::username).toList());
+        BulkUserReport.Failure failure = report.failures().getFirst();
+        assertEquals(2, failure.line());
+        assertTrue(failure.reason().startsWith("Insert failed"));
+    }
+
+    @Test
+    void reportsAFailedHashForItsRowOnly() throws IOException {
+        BulkUserReport report = provision(user("alice_0001", REJECTED_PASSWORD), user("bob_00002", PASSWORD),
+                user("carol_0003", PASSWORD));
+
+        assertEquals(2, report.created());
+        assertEquals(List.of(new BulkUserReport.Failure(1, "alice_0001",
+                "Password hashing failed: Password hashing queue is full")), report.failures());
+        assertEquals(List.of("bob_00002", "carol_0003"),
+                batches.stream().flatMap(List::stream).map(NewUser::username).toList());
+    }
+
+    private BulkUserReport provision(String... lines) throws IOException {
+        byte[] ndjson = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        return service.provisionUsers(new ByteArrayInputStream(ndjson), "admin_0001");
+    }
+
+    private static String user(String username, String password) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+    }
+
+    private static class FixedRoleService implements IRoleService {
+        private final Map<ERole, UUID> roleIds = new EnumMap<>(ERole.class);
+
+        @Override
+        public Role getRole(ERole roleName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UUID getRoleId(ERole roleName) {
+            return roleIds.computeIfAbsent(roleName, name -> UUID.randomUUID());
+        }
+
+        @Override
+        public UUID getPermissionId(EPermission permission) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.cleaning_service.security.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    @Test
+    void rejectsOnceCapacityIsSpentAndReportsTheWait() {
+        TokenBucket bucket = new TokenBucket(3, Duration.ofHours(1));
+
+        assertTrue(bucket.tryConsume());
+        assertTrue(bucket.tryConsume());
+        assertTrue(bucket.tryConsume());
+        assertFalse(bucket.tryConsume());
+
+        Duration wait = bucket.timeUntilNextToken();
+        assertTrue(wait.compareTo(Duration.ZERO) > 0);
+        assertTrue(wait.compareTo(Duration.ofMinutes(20)) <= 0);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, Duration.ofMillis(50));
+
+        assertTrue(bucket.tryConsume());
+        assertFalse(bucket.tryConsume());
+        Thread.sleep(60);
+        assertTrue(bucket.tryConsume());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.cleaning_service.security.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @Test
+    void addedIdsAreAlwaysReportedAndFalsePositivesStayNearTheTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<UUID> added = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            filter.add(id);
+            added.add(id);
+        }
+
+        added.forEach(id -> assertTrue(filter.mightContain(id)));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain(UUID.randomUUID())) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.cleaning_service.security.util;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnumBitmaskTest {
+
+    @Test
+    void everyConstantHasItsOwnBit() {
+        assertDistinctBits(EPermission.values());
+        assertDistinctBits(ERole.values());
+    }
+
+    @Test
+    void masksRoundTrip() {
+        EnumSet<EPermission> permissions = EnumSet.of(EPermission.CREATE_ACCOUNT, EPermission.VIEW_ORDERS,
+                EPermission.MANAGE_SCHEDULES);
+
+        long mask = EnumBitmask.toMask(permissions);
+
+        assertEquals((1L << 0) | (1L << 12) | (1L << 14), mask);
+        assertEquals(permissions, EnumBitmask.fromMask(EPermission.class, mask));
+    }
+
+    @Test
+    void permissionBitsMatchTheMigration() throws IOException {
+        String changelog;
+        try (InputStream in = getClass().getResourceAsStream("/db/changelog/2025/05/02-01-changelog.xml")) {
+            assertNotNull(in, "changelog not on the classpath");
+            changelog = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Map<String, Integer> migrated = new HashMap<>();
+        Matcher matcher = Pattern.compile("\\('([A-Z_]+)', (\\d+)\\)").matcher(changelog);
+        while (matcher.find()) {
+            migrated.put(matcher.group(1), Integer.parseInt(matcher.group(2)));
+        }
+
+        Map<String, Integer> defined = new HashMap<>();
+        for (EPermission permission : EPermission.values()) {
+            defined.put(permission.name(), permission.bit());
+        }
+        assertEquals(defined, migrated);
+    }
+
+    private static <E extends Enum<E> & EnumBitmask.Flag> void assertDistinctBits(E[] constants) {
+        Set<Integer> bits = new HashSet<>();
+        for (E constant : constants) {
+            assertTrue(constant.bit() >= 0 && constant.bit() < Long.SIZE, constant + " is out of range");
+            assertTrue(bits.add(constant.bit()), constant + " reuses bit " + constant.bit());
+        }
+    }
+}
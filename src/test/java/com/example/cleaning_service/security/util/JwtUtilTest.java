@@ -0,0 +1,118 @@
+package com.example.cleaning_service.security.util;
+
+import com.example.cleaning_service.security.entities.permission.EPermission;
+import com.example.cleaning_service.security.entities.permission.Permission;
+import com.example.cleaning_service.security.entities.role.ERole;
+import com.example.cleaning_service.security.entities.role.Role;
+import com.example.cleaning_service.security.entities.user.User;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetKeyPairGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private final KeyProvider keyProvider = new KeyProvider(
+            new ClassPathResource("keys/private.pem"),
+            new ClassPathResource("keys/public.pem")
+    );
+    private final JwtUtil jwtUtil = new JwtUtil(new JwtKeyring(keyProvider, List.of(), null));
+
+    private static User user(ERole roleName) {
+        Set<Permission> permissions = roleName.getPermissions().stream()
+                .map(Permission::new)
+                .collect(Collectors.toSet());
+        return new User("jane", "secret", new Role(roleName, permissions));
+    }
+
+    @Test
+    void verifyTokenDecodesClaimsOnce() {
+        User admin = user(ERole.ADMIN);
+        String token = jwtUtil.generateToken(admin, null);
+
+        Optional<VerifiedToken> verifiedToken = jwtUtil.verifyToken(token);
+
+        assertTrue(verifiedToken.isPresent());
+        assertEquals("jane", verifiedToken.get().username());
+        assertEquals(Set.of(ERole.ADMIN), verifiedToken.get().roles());
+        assertEquals(ERole.ADMIN.getPermissions(), verifiedToken.get().permissions());
+    }
+
+    @Test
+    void issueTokenReturnsTheClaimsItSerialized() {
+        IssuedToken issuedToken = jwtUtil.issueToken(user(ERole.USER), null);
+
+        VerifiedToken verifiedToken = jwtUtil.verifyToken(issuedToken.token()).orElseThrow();
+
+        assertEquals(issuedToken.id().toString(), verifiedToken.id());
+        assertEquals(issuedToken.username(), verifiedToken.username());
+        assertEquals(issuedToken.issuedAt(), verifiedToken.issuedAt());
+        assertEquals(issuedToken.expiresAt(), verifiedToken.expiresAt());
+    }
+
+    @Test
+    void compactAuthorityClaimIsSmallerAndLegacyTokensStillVerify() {
+        JwtUtil compactUtil = new JwtUtil(new JwtKeyring(keyProvider, List.of(), null), true);
+        String compactToken = compactUtil.generateToken(user(ERole.ADMIN), null);
+        String legacyToken = jwtUtil.generateToken(user(ERole.ADMIN), null);
+
+        VerifiedToken compact = compactUtil.verifyToken(compactToken).orElseThrow();
+        VerifiedToken legacy = compactUtil.verifyToken(legacyToken).orElseThrow();
+
+        assertTrue(compactToken.length() < legacyToken.length());
+        assertEquals(Set.of(ERole.ADMIN), compact.roles());
+        assertEquals(ERole.ADMIN.getPermissions(), compact.permissions());
+        assertSame(legacy.grants(), compact.grants());
+        assertTrue(jwtUtil.verifyToken(compactToken).isPresent());
+    }
+
+    @Test
+    void authorityClaimRejectsUnknownVersionsAndBits() {
+        String claim = AuthorityClaim.encode(Set.of(ERole.CUSTOMER), ERole.CUSTOMER.getPermissions());
+
+        assertEquals(Set.of(ERole.CUSTOMER), AuthorityClaim.decode(claim).orElseThrow().roles());
+        assertTrue(AuthorityClaim.decode("2" + claim.substring(1)).isEmpty());
+        assertTrue(AuthorityClaim.decode("1.ffff.0").isEmpty());
+        assertTrue(AuthorityClaim.decode("1.x").isEmpty());
+    }
+
+    @Test
+    void verifyTokenRejectsTamperedAndExpiredTokens() {
+        String token = jwtUtil.generateToken(user(ERole.USER), null);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+
+        assertTrue(jwtUtil.verifyToken(tampered).isEmpty());
+        assertTrue(jwtUtil.verifyToken("not-a-jwt").isEmpty());
+        assertTrue(jwtUtil.verifyToken(jwtUtil.generateToken(user(ERole.USER), -1000L)).isEmpty());
+    }
+
+    @Test
+    void keyringSignsWithActiveKidAndStillVerifiesRotatedKeys() throws JOSEException {
+        JWK ecKey = new ECKeyGenerator(Curve.P_256).keyID("ec-1").generate();
+        JWK edKey = new OctetKeyPairGenerator(Curve.Ed25519).keyID("ed-1").generate();
+        String rsaToken = jwtUtil.generateToken(user(ERole.USER), null);
+
+        JwtUtil ecUtil = new JwtUtil(new JwtKeyring(keyProvider, List.of(ecKey, edKey), "ec-1"));
+        JwtUtil edUtil = new JwtUtil(new JwtKeyring(keyProvider, List.of(ecKey, edKey), "ed-1"));
+        String ecToken = ecUtil.generateToken(user(ERole.USER), null);
+        String edToken = edUtil.generateToken(user(ERole.USER), null);
+
+        assertTrue(ecToken.length() < rsaToken.length());
+        assertTrue(edToken.length() < rsaToken.length());
+        for (String token : List.of(rsaToken, ecToken, edToken)) {
+            assertTrue(ecUtil.verifyToken(token).isPresent());
+            assertTrue(edUtil.verifyToken(token).isPresent());
+        }
+        assertTrue(jwtUtil.verifyToken(ecToken).isEmpty());
+    }
+}